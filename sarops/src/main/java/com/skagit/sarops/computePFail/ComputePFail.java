@@ -8,6 +8,7 @@ import java.util.Map;
 import java.util.Stack;
 import java.util.TreeMap;
 
+import com.skagit.sarops.model.LegIndex;
 import com.skagit.sarops.model.Sortie;
 import com.skagit.sarops.simCaseManager.SimCaseManager;
 import com.skagit.sarops.tracker.CpaCalculator;
@@ -99,6 +100,12 @@ public class ComputePFail {
 		final long[] refSecsS = particlesFile.getRefSecsS();
 		final TreeMap<LateralRangeCurve, ArrayList<PdInfo>> lrcToPdInfoList =
 				new TreeMap<>();
+		/** Null means that every leg is a candidate. */
+		final boolean[] candidateLegs = getCandidateLegs(particlesFile,
+				prtclIndxs, sortie, legList, expirationRefSecs);
+		/** Scratch for particlesFile.getLatLng; reused over every interval. */
+		final double[] latScratch = new double[1];
+		final double[] lngScratch = new double[1];
 		for (int kLeg = 0; kLeg < nLegs; ++kLeg) {
 			final Sortie.Leg leg = legList.get(kLeg);
 			final TreeMap<LateralRangeCurve, CpaCalculator.Result> bestResultsForThisLegAndLrc =
@@ -112,6 +119,10 @@ public class ComputePFail {
 			if (legRefSecs0 >= legRefSecs1) {
 				continue;
 			}
+			if (candidateLegs != null && !candidateLegs[leg.getEdgeNumber()]) {
+				/** This particle never gets close enough to this leg. */
+				continue;
+			}
 			final CpaCalculator cpaCalculator = new CpaCalculator(leg);
 			/**
 			 * Loop through the time intervals and process those that intersect
@@ -132,6 +143,12 @@ public class ComputePFail {
 					getStartAndStopIndexes(intrvlRefSecsS, legRefSecs0, legRefSecs1);
 			final int startIndex = startAndStopIndexes[0];
 			final int stopIndex = startAndStopIndexes[1];
+			/**
+			 * Each interval starts where the last one stopped, so we keep the
+			 * last end-position rather than interpolating it again.
+			 */
+			long lastRefSecs1 = Long.MIN_VALUE;
+			LatLng3 lastPrtclLatLng1 = null;
 			for (int k1 = startIndex; k1 < stopIndex; ++k1) {
 				final long intrvlRefSecs0 =
 						Math.max(intrvlRefSecsS[k1], legRefSecs0);
@@ -158,10 +175,15 @@ public class ComputePFail {
 							refSecs1 = intrvlRefSecs1;
 						}
 					}
-					final LatLng3 prtclLatLng0 =
-							particlesFile.getLatLng(refSecs0, prtclIndxs);
+					final LatLng3 prtclLatLng0 = refSecs0 == lastRefSecs1 ?
+							lastPrtclLatLng1 :
+							particlesFile.getLatLng(particlesFile.getTimeBracket(refSecs0),
+									prtclIndxs, latScratch, lngScratch);
 					final LatLng3 prtclLatLng1 =
-							particlesFile.getLatLng(refSecs1, prtclIndxs);
+							particlesFile.getLatLng(particlesFile.getTimeBracket(refSecs1),
+									prtclIndxs, latScratch, lngScratch);
+					lastRefSecs1 = refSecs1;
+					lastPrtclLatLng1 = prtclLatLng1;
 					final int objectTypeId =
 							particlesFile.getSotId(refSecs0, prtclIndxs);
 					final boolean closeEnoughToCompute = leg.closeEnoughToCompute(
@@ -246,6 +268,74 @@ public class ComputePFail {
 		return lrcToPdInfoArray;
 	}
 
+	/**
+	 * Bounds the particle over the legs' time span, using only its stored
+	 * positions, and asks the sortie's LegIndex which legs it might reach. The
+	 * stored positions are joined by great circles, and every segment that we
+	 * test lies on one of those or joins two points of the track. So we widen
+	 * the box by three times its diagonal, which also covers the bulge of those
+	 * great circles.
+	 */
+	private static boolean[] getCandidateLegs(
+			final ParticlesFile particlesFile, final ParticleIndexes prtclIndxs,
+			final Sortie sortie, final List<Sortie.Leg> legList,
+			final long expirationRefSecs) {
+		final LegIndex legIndex = sortie.getLegIndex();
+		final int nLegs = legList.size();
+		if (legIndex == null || nLegs == 0) {
+			return null;
+		}
+		final long refSecs0 = legList.get(0).getLegRefSecs0();
+		final long refSecs1 =
+				Math.min(legList.get(nLegs - 1).getLegRefSecs1(), expirationRefSecs);
+		if (refSecs0 >= refSecs1) {
+			return null;
+		}
+		final int timeIdx0 = particlesFile.getTimeBracket(refSecs0).getTimeIdx1();
+		final int timeIdx1 = particlesFile.getTimeBracket(refSecs1).getTimeIdx2();
+		final double refLng = legIndex.getRefLng();
+		double minLat = Double.POSITIVE_INFINITY;
+		double maxLat = Double.NEGATIVE_INFINITY;
+		double minRelLng = Double.POSITIVE_INFINITY;
+		double maxRelLng = Double.NEGATIVE_INFINITY;
+		double oldRelLng = Double.NaN;
+		final double[] latLngPair = new double[2];
+		for (int timeIdx = timeIdx0; timeIdx <= timeIdx1; ++timeIdx) {
+			particlesFile.getLatLngPair(timeIdx, prtclIndxs, latLngPair);
+			final double lat = latLngPair[0];
+			final double relLng =
+					LatLng3.getInRange180_180(latLngPair[1] - refLng);
+			if (Double.isNaN(lat) || Double.isNaN(relLng)) {
+				return null;
+			}
+			if (!Double.isNaN(oldRelLng) && Math.abs(relLng - oldRelLng) > 90d) {
+				/** We wrapped; we are nowhere near the sortie anyway. */
+				return null;
+			}
+			oldRelLng = relLng;
+			minLat = Math.min(minLat, lat);
+			maxLat = Math.max(maxLat, lat);
+			minRelLng = Math.min(minRelLng, relLng);
+			maxRelLng = Math.max(maxRelLng, relLng);
+		}
+		final double maxAbsLat0 = Math.max(Math.abs(minLat), Math.abs(maxLat));
+		final double minAbsLat0 = minLat <= 0d && maxLat >= 0d ? 0d :
+				Math.min(Math.abs(minLat), Math.abs(maxLat));
+		final double latSpanD = maxLat - minLat;
+		final double lngSpanD =
+				(maxRelLng - minRelLng) * Math.cos(Math.toRadians(minAbsLat0));
+		final double diagD =
+				Math.sqrt(latSpanD * latSpanD + lngSpanD * lngSpanD);
+		final double marginD = 3d * diagD + 1.0e-6;
+		final double maxAbsLat = maxAbsLat0 + marginD;
+		if (maxAbsLat >= 90d) {
+			return null;
+		}
+		final double lngMarginD = marginD / Math.cos(Math.toRadians(maxAbsLat));
+		return legIndex.getCandidates(minLat - marginD, maxLat + marginD,
+				minRelLng - lngMarginD, maxRelLng + lngMarginD);
+	}
+
 	private static int[] getStartAndStopIndexes(final long[] intrvlRefSecsS,
 			final long legRefSecs0, final long legRefSecs1) {
 		final int k0 = Arrays.binarySearch(intrvlRefSecsS, (int) legRefSecs0);
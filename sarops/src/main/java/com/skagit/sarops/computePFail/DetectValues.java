@@ -31,6 +31,15 @@ public class DetectValues {
 		this(/* isEmpty= */false);
 	}
 
+	/** For building a new version of a published DetectValues. */
+	public DetectValues(final DetectValues detectValues) {
+		_empty = detectValues._empty;
+		_proportionIn = detectValues._proportionIn;
+		_nftPFail = detectValues._nftPFail;
+		_ftPFail = detectValues._ftPFail;
+		_aiftPFail = detectValues._aiftPFail;
+	}
+
 	public double getPFail(final PFailType pFailType) {
 		switch (pFailType) {
 		case NFT:
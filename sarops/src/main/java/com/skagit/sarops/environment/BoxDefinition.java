@@ -170,6 +170,16 @@ public class BoxDefinition {
 
 	public NetcdfFile getNetCdfFile(final URI uri, final boolean zipped)
 			throws MalformedURLException, DOMException, IOException {
+		final byte[] allBytes = getNetCdfBytes(uri, zipped);
+		/** Read it into memory. */
+		@SuppressWarnings("deprecation")
+		final NetcdfFile netCdfFile = NetcdfFile.openInMemory(uri.toASCIIString(), allBytes);
+		return netCdfFile;
+	}
+
+	/** The NetCDF file's bytes, decoded and unzipped. */
+	public byte[] getNetCdfBytes(final URI uri, final boolean zipped)
+			throws MalformedURLException, DOMException, IOException {
 		_lastTriedUrl = uri.toURL();
 		final InputStream inputStream = _lastTriedUrl.openStream();
 		Document document = null;
@@ -212,10 +222,7 @@ public class BoxDefinition {
 		} else {
 			allBytes = decodedBytes;
 		}
-		/** Read it into memory. */
-		@SuppressWarnings("deprecation")
-		final NetcdfFile netCdfFile = NetcdfFile.openInMemory(uri.toASCIIString(), allBytes);
-		return netCdfFile;
+		return allBytes;
 	}
 
 	public String[] getStringsInUse() {
@@ -0,0 +1,275 @@
+package com.skagit.sarops.environment;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.List;
+
+import com.skagit.sarops.simCaseManager.SimCaseManager;
+import com.skagit.sarops.util.SimGlobalStrings;
+import com.skagit.util.navigation.LatLng3;
+
+/**
+ * A disk cache of what NetCdfUvGetter makes of a NetCdf file: the times, the
+ * distinct lats and lngs, and the points with their unit-converted,
+ * forward-filled values, after the points with missing u or v have been
+ * dropped. A repeat load of the same file skips the NetCdf parsing and goes
+ * straight to PointCollection.close.
+ * <p>
+ * An entry is one file, named by the SHA-256 of its key. The key is the
+ * source's path, length, and modification time, plus everything that
+ * NetCdfUvGetter's reading depends on (variable names, defaults, sign
+ * convention). Hence a changed source simply misses; stale entries are never
+ * read, and can be deleted by hand. The layout is flat and big-endian (a
+ * header, then the arrays), so we map it and bulk-copy the arrays out.
+ */
+final class EnvSidecarCache {
+	final private static int _Magic = 0x53455643;
+	final private static int _Version = 1;
+	final private static String _Suffix = ".env";
+	/** For a column: absent, always present (U and V), present by point. */
+	final private static byte _Absent = 0;
+	final private static byte _AllPresent = 1;
+	final private static byte _SomePresent = 2;
+	private static EnvSidecarCache _EnvSidecarCache = null;
+	private static boolean _HaveTriedToBuild = false;
+
+	final private File _dir;
+
+	/** What a hit gives back. */
+	static class Contents {
+		final long[] _refSecsS;
+		final double[] _lats;
+		final double[] _lngs;
+		final PointCollection _pointCollection;
+
+		private Contents(final long[] refSecsS, final double[] lats, final double[] lngs,
+				final PointCollection pointCollection) {
+			_refSecsS = refSecsS;
+			_lats = lats;
+			_lngs = lngs;
+			_pointCollection = pointCollection;
+		}
+	}
+
+	private EnvSidecarCache(final File dir) {
+		_dir = dir;
+	}
+
+	/** Returns null if there is no cache directory or we cannot use it. */
+	static synchronized EnvSidecarCache getEnvSidecarCache() {
+		if (!_HaveTriedToBuild) {
+			_HaveTriedToBuild = true;
+			final SimGlobalStrings simGlobalStrings = SimGlobalStrings.getStaticSimGlobalStrings();
+			final String dirName = simGlobalStrings.getEnvSidecarCacheDirName();
+			if (dirName != null && dirName.trim().length() > 0) {
+				final File dir = new File(dirName.trim());
+				if (dir.isDirectory() || dir.mkdirs()) {
+					_EnvSidecarCache = new EnvSidecarCache(dir);
+				}
+			}
+		}
+		return _EnvSidecarCache;
+	}
+
+	/** Returns null if filePath is not a plain file, which we do not cache. */
+	static String buildKey(final String filePath, final String tag, final String[][] nameArrays,
+			final double[] defaults, final boolean dataIsDownStreamOrDownWind) {
+		final File file = new File(filePath);
+		if (!file.isFile()) {
+			return null;
+		}
+		final StringBuilder sb = new StringBuilder();
+		sb.append(_Version).append('|').append(file.getAbsolutePath()).append('|').append(file.length()).append('|')
+				.append(file.lastModified()).append('|').append(tag);
+		for (final String[] names : nameArrays) {
+			sb.append('|').append(Arrays.toString(names));
+		}
+		for (final double d : defaults) {
+			sb.append('|').append(Double.toString(d));
+		}
+		sb.append('|').append(dataIsDownStreamOrDownWind);
+		return sb.toString();
+	}
+
+	/**
+	 * Returns null on a miss, or if the entry is unreadable. The points are
+	 * rebuilt with defaultDU and defaultDV, as NetCdfUvGetter builds them.
+	 */
+	Contents read(final SimCaseManager.SimCase simCase, final String key, final double defaultDU,
+			final double defaultDV) {
+		if (key == null) {
+			return null;
+		}
+		final File file = getFile(key);
+		if (!file.isFile()) {
+			return null;
+		}
+		try (FileChannel fileChannel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			final MappedByteBuffer buffer = fileChannel.map(FileChannel.MapMode.READ_ONLY, 0L, fileChannel.size());
+			if (buffer.getInt() != _Magic || buffer.getInt() != _Version) {
+				return null;
+			}
+			final long[] refSecsS = new long[buffer.getInt()];
+			buffer.asLongBuffer().get(refSecsS);
+			buffer.position(buffer.position() + 8 * refSecsS.length);
+			final double[] lats = new double[buffer.getInt()];
+			buffer.asDoubleBuffer().get(lats);
+			buffer.position(buffer.position() + 8 * lats.length);
+			final double[] lngs = new double[buffer.getInt()];
+			buffer.asDoubleBuffer().get(lngs);
+			buffer.position(buffer.position() + 8 * lngs.length);
+			final int nRefSecsS = refSecsS.length;
+			final int nPoints = buffer.getInt();
+			final PointCollection pointCollection = new PointCollection();
+			final NetCdfDataColumns dataColumns = pointCollection.createDataColumns(nRefSecsS, nPoints);
+			final double[] pointLats = new double[nPoints];
+			final double[] pointLngs = new double[nPoints];
+			final int[][] riverSeqLcrs = new int[nPoints][];
+			for (int k = 0; k < nPoints; ++k) {
+				pointLats[k] = buffer.getDouble();
+				pointLngs[k] = buffer.getDouble();
+				if (buffer.get() != 0) {
+					riverSeqLcrs[k] = new int[] {
+							buffer.getInt(), buffer.getInt(), buffer.getInt()
+					};
+				}
+			}
+			for (final NetCdfUvGetter.DataComponent dataComponent : NetCdfUvGetter._DataComponents) {
+				final byte kind = buffer.get();
+				if (kind == _Absent) {
+					continue;
+				}
+				final boolean[] hasValues;
+				if (kind == _SomePresent) {
+					hasValues = new boolean[nPoints];
+					for (int k = 0; k < nPoints; ++k) {
+						hasValues[k] = buffer.get() != 0;
+					}
+				} else {
+					hasValues = null;
+				}
+				final float[] column = new float[nRefSecsS * nPoints];
+				buffer.asFloatBuffer().get(column);
+				buffer.position(buffer.position() + 4 * column.length);
+				dataColumns.setColumn(dataComponent, column, hasValues);
+			}
+			for (int k = 0; k < nPoints; ++k) {
+				final NetCdfDataPoint dataPoint = new NetCdfDataPoint(LatLng3.getLatLngB(pointLats[k], pointLngs[k]),
+						dataColumns, /* slot= */k, defaultDU, defaultDV, riverSeqLcrs[k]);
+				if (!pointCollection.add(simCase.getLogger(), dataPoint)) {
+					/** The slots would no longer line up; parse the file instead. */
+					return null;
+				}
+			}
+			return new Contents(refSecsS, lats, lngs, pointCollection);
+		} catch (final IOException | BufferUnderflowException | IllegalArgumentException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Writes pointCollection's points, in their current order and with their
+	 * slots closed up. Failures are ignored; it's only a cache.
+	 */
+	void write(final String key, final long[] refSecsS, final double[] lats, final double[] lngs,
+			final PointCollection pointCollection) {
+		if (key == null || refSecsS == null || lats == null || lngs == null) {
+			return;
+		}
+		final List<NetCdfDataPoint> dataPoints = pointCollection.getDataPoints();
+		final NetCdfDataColumns dataColumns = pointCollection.getDataColumns();
+		if (dataPoints == null || dataColumns == null) {
+			return;
+		}
+		final int nRefSecsS = refSecsS.length;
+		final int nPoints = dataPoints.size();
+		final int oldMaxNPoints = dataColumns.getMaxNPoints();
+		try {
+			final Path tmp = Files.createTempFile(_dir.toPath(), getHash(key), ".tmp");
+			try (DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+				dos.writeInt(_Magic);
+				dos.writeInt(_Version);
+				dos.writeInt(nRefSecsS);
+				for (final long refSecs : refSecsS) {
+					dos.writeLong(refSecs);
+				}
+				dos.writeInt(lats.length);
+				for (final double lat : lats) {
+					dos.writeDouble(lat);
+				}
+				dos.writeInt(lngs.length);
+				for (final double lng : lngs) {
+					dos.writeDouble(lng);
+				}
+				dos.writeInt(nPoints);
+				for (final NetCdfDataPoint dataPoint : dataPoints) {
+					final LatLng3 latLng = dataPoint.getLatLng();
+					dos.writeDouble(latLng.getLat());
+					dos.writeDouble(latLng.getLng());
+					final int[] riverSeqLcr = dataPoint.getRiverSeqLcr();
+					dos.writeByte(riverSeqLcr == null ? 0 : 1);
+					if (riverSeqLcr != null) {
+						dos.writeInt(riverSeqLcr[0]);
+						dos.writeInt(riverSeqLcr[1]);
+						dos.writeInt(riverSeqLcr[2]);
+					}
+				}
+				for (final NetCdfUvGetter.DataComponent dataComponent : NetCdfUvGetter._DataComponents) {
+					final float[] column = dataColumns.getColumn(dataComponent);
+					final boolean[] hasValues = dataColumns.getHasValues(dataComponent);
+					if (column == null) {
+						dos.writeByte(_Absent);
+						continue;
+					}
+					dos.writeByte(hasValues == null ? _AllPresent : _SomePresent);
+					if (hasValues != null) {
+						for (final NetCdfDataPoint dataPoint : dataPoints) {
+							dos.writeByte(hasValues[dataPoint.getSlot()] ? 1 : 0);
+						}
+					}
+					for (int timeIdx = 0; timeIdx < nRefSecsS; ++timeIdx) {
+						for (final NetCdfDataPoint dataPoint : dataPoints) {
+							dos.writeFloat(column[timeIdx * oldMaxNPoints + dataPoint.getSlot()]);
+						}
+					}
+				}
+			}
+			Files.move(tmp, getFile(key).toPath(), StandardCopyOption.REPLACE_EXISTING,
+					StandardCopyOption.ATOMIC_MOVE);
+		} catch (final IOException e) {
+			/** It's only a cache. */
+		}
+	}
+
+	private File getFile(final String key) {
+		return new File(_dir, getHash(key) + _Suffix);
+	}
+
+	private static String getHash(final String key) {
+		try {
+			final MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+			final byte[] digest = messageDigest.digest(key.getBytes(StandardCharsets.UTF_8));
+			final StringBuilder sb = new StringBuilder(2 * digest.length);
+			for (final byte b : digest) {
+				sb.append(String.format("%02x", b & 0xff));
+			}
+			return sb.toString();
+		} catch (final NoSuchAlgorithmException e) {
+			/** Every JVM has SHA-256. */
+			throw new RuntimeException(e);
+		}
+	}
+}
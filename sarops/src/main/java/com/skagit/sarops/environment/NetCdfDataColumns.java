@@ -0,0 +1,103 @@
+package com.skagit.sarops.environment;
+
+import java.util.Arrays;
+
+/**
+ * The values of a {@link PointCollection}'s {@link NetCdfDataPoint}s, one
+ * contiguous float[] per {@link NetCdfUvGetter.DataComponent}. Each is
+ * time-major; the value of a component at (timeIdx, slot) is at timeIdx *
+ * _maxNPoints + slot. Hence all of the points' values for one time are
+ * together, which is how the interpolators read them. A point's slot is the
+ * order in which it was added to the PointCollection.
+ * <p>
+ * U and V are always there. The uncertainty components are allocated when
+ * the first value for them arrives, and each point keeps a flag that says
+ * whether it has values for them; a point without them uses its defaults.
+ */
+final class NetCdfDataColumns {
+	final private int _nRefSecsS;
+	final private int _maxNPoints;
+	/** Indexed by DataComponent.ordinal(). */
+	final private float[][] _columns;
+	/** Indexed by DataComponent.ordinal(); null for U and V. */
+	final private boolean[][] _hasValues;
+
+	NetCdfDataColumns(final int nRefSecsS, final int maxNPoints) {
+		_nRefSecsS = nRefSecsS;
+		_maxNPoints = maxNPoints;
+		_columns = new float[NetCdfUvGetter._NDataComponents][];
+		_hasValues = new boolean[NetCdfUvGetter._NDataComponents][];
+		_columns[NetCdfUvGetter.DataComponent.U.ordinal()] = new float[nRefSecsS * maxNPoints];
+		_columns[NetCdfUvGetter.DataComponent.V.ordinal()] = new float[nRefSecsS * maxNPoints];
+	}
+
+	int getNRefSecsS() {
+		return _nRefSecsS;
+	}
+
+	int getMaxNPoints() {
+		return _maxNPoints;
+	}
+
+	/** timeIdx must be in range. */
+	float getValue(final NetCdfUvGetter.DataComponent dataComponent, final int timeIdx, final int slot) {
+		return _columns[dataComponent.ordinal()][timeIdx * _maxNPoints + slot];
+	}
+
+	boolean hasValues(final NetCdfUvGetter.DataComponent dataComponent, final int slot) {
+		final boolean[] hasValues = _hasValues[dataComponent.ordinal()];
+		if (hasValues == null) {
+			return _columns[dataComponent.ordinal()] != null;
+		}
+		return hasValues[slot];
+	}
+
+	void setValue(final NetCdfUvGetter.DataComponent dataComponent, final int timeIdx, final int slot,
+			final float value) {
+		final int ordinal = dataComponent.ordinal();
+		float[] column = _columns[ordinal];
+		if (column == null) {
+			column = _columns[ordinal] = new float[_nRefSecsS * _maxNPoints];
+			_hasValues[ordinal] = new boolean[_maxNPoints];
+		}
+		column[timeIdx * _maxNPoints + slot] = value;
+		final boolean[] hasValues = _hasValues[ordinal];
+		if (hasValues != null) {
+			hasValues[slot] = true;
+		}
+	}
+
+	/** For EnvSidecarCache; null if dataComponent has never been set. */
+	float[] getColumn(final NetCdfUvGetter.DataComponent dataComponent) {
+		return _columns[dataComponent.ordinal()];
+	}
+
+	/** For EnvSidecarCache; null for U and V, and for absent columns. */
+	boolean[] getHasValues(final NetCdfUvGetter.DataComponent dataComponent) {
+		return _hasValues[dataComponent.ordinal()];
+	}
+
+	/** For EnvSidecarCache; column must be laid out as ours are. */
+	void setColumn(final NetCdfUvGetter.DataComponent dataComponent, final float[] column,
+			final boolean[] hasValues) {
+		if (column.length != _nRefSecsS * _maxNPoints || (hasValues != null && hasValues.length != _maxNPoints)) {
+			throw new IllegalArgumentException("Column does not fit.");
+		}
+		final int ordinal = dataComponent.ordinal();
+		_columns[ordinal] = column;
+		if (dataComponent != NetCdfUvGetter.DataComponent.U && dataComponent != NetCdfUvGetter.DataComponent.V) {
+			_hasValues[ordinal] = hasValues == null ? new boolean[_maxNPoints] : hasValues;
+			if (hasValues == null) {
+				Arrays.fill(_hasValues[ordinal], true);
+			}
+		}
+	}
+
+	/** Sends slot back to its defaults for dataComponent. U and V stay. */
+	void clearValues(final NetCdfUvGetter.DataComponent dataComponent, final int slot) {
+		final boolean[] hasValues = _hasValues[dataComponent.ordinal()];
+		if (hasValues != null) {
+			hasValues[slot] = false;
+		}
+	}
+}
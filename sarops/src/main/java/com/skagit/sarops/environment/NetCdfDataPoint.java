@@ -12,59 +12,58 @@ import com.skagit.util.navigation.LatLng3;
  * {@link PointCollection}, which finds the right set to use for the
  * different types of interpolation. The point is "constructed piecemeal"
  * via the ctors and the setters. The setters should all have been called to
- * populate the arrays before any of the getters are called.
+ * populate the arrays before any of the getters are called. The values
+ * themselves are not here; they are in the PointCollection's
+ * {@link NetCdfDataColumns}, and we just know our slot there.
  */
 final public class NetCdfDataPoint {
-	final private long[] _refSecsS;
 	final private double _defaultDU;
 	final private double _defaultDV;
 	final private double _altDefaultDU;
 	final private double _altDefaultDV;
 	final private int[] _riverSeqLcr;
-	/** _u, _v, _dU, and _dV are indexed by times. */
-	final private float[] _u;
-	final private float[] _v;
-	private float[] _dU = null;
-	private float[] _dV = null;
-	private float[] _altDU = null;
-	private float[] _altDV = null;
+	/**
+	 * Our values live in _dataColumns, which we share with the rest of our
+	 * PointCollection, at _slot.
+	 */
+	final private NetCdfDataColumns _dataColumns;
+	final private int _slot;
 	final private LatLng3 _latLng;
 
 	/**
-	 * The main ctor. The values of the vectors _u and _v are set as data is
-	 * read, by using the "setter" methods (e.g. {@link #setU(int, double)}).
+	 * The main ctor. The values are set as data is read, by using
+	 * {@link #setValue(NetCdfUvGetter.DataComponent, int, float)} or by writing
+	 * into dataColumns directly.
 	 */
-	public NetCdfDataPoint(final LatLng3 latLng, final long[] refSecondsS,
-			final double defaultDU, final double defaultDV,
+	NetCdfDataPoint(final LatLng3 latLng, final NetCdfDataColumns dataColumns,
+			final int slot, final double defaultDU, final double defaultDV,
 			final int[] riverSeqLcr) {
-		this(latLng, refSecondsS, defaultDU, defaultDV, riverSeqLcr,
+		this(latLng, dataColumns, slot, defaultDU, defaultDV, riverSeqLcr,
 				/* altDefaultDU= */defaultDU, /* altDefaultDV= */defaultDV);
 	}
 
-	public NetCdfDataPoint(final LatLng3 latLng, final long[] refSecondsS,
-			final double defaultDU, final double defaultDV,
+	NetCdfDataPoint(final LatLng3 latLng, final NetCdfDataColumns dataColumns,
+			final int slot, final double defaultDU, final double defaultDV,
 			final int[] riverSeqLcr, final double altDefaultDU,
 			final double altDefaultDV) {
 		_latLng = latLng;
-		_refSecsS = refSecondsS;
+		_dataColumns = dataColumns;
+		_slot = slot;
 		_defaultDU = defaultDU;
 		_defaultDV = defaultDV;
 		_altDefaultDU = altDefaultDU;
 		_altDefaultDV = altDefaultDV;
-		final int nRefSecondsS = _refSecsS.length;
-		_u = new float[nRefSecondsS];
-		_v = new float[nRefSecondsS];
 		_riverSeqLcr = riverSeqLcr;
 	}
 
 	/** Just used to create something so we can look up by LatLng3. */
 	NetCdfDataPoint(final LatLng3 latLng) {
 		_latLng = latLng;
-		_refSecsS = null;
+		_dataColumns = null;
+		_slot = -1;
 		_defaultDU = _defaultDV = Double.NaN;
 		_altDefaultDU = _defaultDU;
 		_altDefaultDV = _defaultDV;
-		_u = _v = null;
 		_riverSeqLcr = null;
 	}
 
@@ -89,106 +88,68 @@ final public class NetCdfDataPoint {
 		return _riverSeqLcr;
 	}
 
-	public DataForOnePointAndTime getDataForOnePointAndTime(
-			final int timeIdx) {
-		final float[] data = new float[NetCdfUvGetter._NDataComponents];
-		data[NetCdfUvGetter.DataComponent.U.ordinal()] = 0.0f;
-		data[NetCdfUvGetter.DataComponent.V.ordinal()] = 0.0f;
-
-		data[NetCdfUvGetter.DataComponent.DU.ordinal()] = (float) _defaultDU;
-		data[NetCdfUvGetter.DataComponent.DV.ordinal()] = (float) _defaultDV;
-
-		data[NetCdfUvGetter.DataComponent.ALT_DU.ordinal()] =
-				(float) _altDefaultDU;
-		data[NetCdfUvGetter.DataComponent.ALT_DV.ordinal()] =
-				(float) _altDefaultDV;
-
-		if (_u != null) {
-			final int uIndex = Math.max(0, Math.min(_u.length - 1, timeIdx));
-			data[NetCdfUvGetter.DataComponent.U.ordinal()] = _u[uIndex];
-		}
-		if (_v != null) {
-			final int vIndex = Math.max(0, Math.min(_v.length - 1, timeIdx));
-			data[NetCdfUvGetter.DataComponent.V.ordinal()] = _v[vIndex];
-		}
-		if (_dU != null) {
-			final int dUIndex = Math.max(0, Math.min(_dU.length - 1, timeIdx));
-			data[NetCdfUvGetter.DataComponent.DU.ordinal()] = _dU[dUIndex];
-		}
-		if (_dV != null && (0 <= timeIdx && timeIdx < _dV.length)) {
-			final int dVIndex = Math.max(0, Math.min(_dV.length - 1, timeIdx));
-			data[NetCdfUvGetter.DataComponent.DV.ordinal()] = _dV[dVIndex];
-		}
-		if (_altDU != null) {
-			final int altDUIndex =
-					Math.max(0, Math.min(_altDU.length - 1, timeIdx));
-			data[NetCdfUvGetter.DataComponent.ALT_DU.ordinal()] =
-					_altDU[altDUIndex];
-		}
-		if (_altDV != null) {
-			final int altDVIndex =
-					Math.max(0, Math.min(_altDV.length - 1, timeIdx));
-			data[NetCdfUvGetter.DataComponent.ALT_DV.ordinal()] =
-					_altDU[altDVIndex];
-		}
-		return new DataForOnePointAndTime(data);
+	int getSlot() {
+		return _slot;
 	}
 
-	public void setValue(final NetCdfUvGetter.DataComponent dataComponent,
-			final int timeIdx, final float value) {
+	/**
+	 * One component of getDataForOnePointAndTime, without building the
+	 * DataForOnePointAndTime. timeIdx is clamped to the available times,
+	 * except for DV, which goes to its default outside of them. ALT_DV comes
+	 * from the ALT_DU values; that is how it has always been read, and we
+	 * keep it so that the answers do not move.
+	 */
+	public float getValue(final NetCdfUvGetter.DataComponent dataComponent,
+			final int timeIdx) {
+		final int nRefSecsS = _dataColumns.getNRefSecsS();
+		final int clampedIdx = Math.max(0, Math.min(nRefSecsS - 1, timeIdx));
 		switch (dataComponent) {
 		case U:
-			_u[timeIdx] = value;
-			return;
 		case V:
-			_v[timeIdx] = value;
-			return;
+			return _dataColumns.getValue(dataComponent, clampedIdx, _slot);
 		case DU:
-			if (_dU == null) {
-				_dU = new float[_refSecsS.length];
+			if (_dataColumns.hasValues(dataComponent, _slot)) {
+				return _dataColumns.getValue(dataComponent, clampedIdx, _slot);
 			}
-			_dU[timeIdx] = value;
-			return;
+			return (float) _defaultDU;
 		case DV:
-			if (_dV == null) {
-				_dV = new float[_refSecsS.length];
+			if (_dataColumns.hasValues(dataComponent, _slot) &&
+					(0 <= timeIdx && timeIdx < nRefSecsS)) {
+				return _dataColumns.getValue(dataComponent, clampedIdx, _slot);
 			}
-			_dV[timeIdx] = value;
-			return;
+			return (float) _defaultDV;
 		case ALT_DU:
-			if (_altDU == null) {
-				_altDU = new float[_refSecsS.length];
+			if (_dataColumns.hasValues(dataComponent, _slot)) {
+				return _dataColumns.getValue(dataComponent, clampedIdx, _slot);
 			}
-			_altDU[timeIdx] = value;
-			return;
+			return (float) _altDefaultDU;
 		case ALT_DV:
-			if (_altDV == null) {
-				_altDV = new float[_refSecsS.length];
+			if (_dataColumns.hasValues(dataComponent, _slot)) {
+				return _dataColumns.getValue(NetCdfUvGetter.DataComponent.ALT_DU,
+						clampedIdx, _slot);
 			}
-			_altDV[timeIdx] = value;
-			return;
+			return (float) _altDefaultDV;
 		default:
+			return Float.NaN;
 		}
-		return;
 	}
 
-	public void setValues(final NetCdfUvGetter.DataComponent dataComponent,
-			final float[] values) {
-		switch (dataComponent) {
-		case DU:
-			_dU = values;
-			break;
-		case DV:
-			_dV = values;
-			break;
-		case ALT_DU:
-			_altDU = values;
-			break;
-		case ALT_DV:
-			_altDV = values;
-			break;
-		default:
+	public DataForOnePointAndTime getDataForOnePointAndTime(
+			final int timeIdx) {
+		final float[] data = new float[NetCdfUvGetter._NDataComponents];
+		for (final NetCdfUvGetter.DataComponent dataComponent : NetCdfUvGetter._DataComponents) {
+			data[dataComponent.ordinal()] = getValue(dataComponent, timeIdx);
 		}
-		return;
+		return new DataForOnePointAndTime(data);
+	}
+
+	public void setValue(final NetCdfUvGetter.DataComponent dataComponent,
+			final int timeIdx, final float value) {
+		_dataColumns.setValue(dataComponent, timeIdx, _slot, value);
+	}
+
+	/** Sends this point back to its defaults for dataComponent. */
+	public void clearValues(final NetCdfUvGetter.DataComponent dataComponent) {
+		_dataColumns.clearValues(dataComponent, _slot);
 	}
 }
@@ -5,10 +5,8 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Comparator;
-import java.util.Iterator;
 import java.util.List;
 import java.util.TimeZone;
-import java.util.TreeSet;
 
 import com.skagit.sarops.environment.SummaryRefSecs.SummaryBuilder;
 import com.skagit.sarops.environment.riverSeqLcrUvCalculator.RiverSeqLcrUvCalculator;
@@ -115,42 +113,61 @@ public class NetCdfUvGetter implements SummaryBuilder {
 			final double defaultDU, final double defaultDV, //
 			final double defaultAltDU, final double defaultAltDV, //
 			final long halfLifeInSecs, final long preDistressHalfLifeInSecs, final boolean dataIsDownStreamOrDownWind) {
+		/** If we have processed this very file before, skip the parsing. */
+		final EnvSidecarCache envSidecarCache = EnvSidecarCache.getEnvSidecarCache();
+		final String sidecarKey = envSidecarCache == null ? null
+				: EnvSidecarCache.buildKey(filePath, tag, new String[][] {
+						uNames, vNames, speedNames, directionNames, uUncNames, vUncNames, altUUncNames, altVUncNames,
+						riverNames, seqNames, inputLcrNames
+				}, new double[] {
+						defaultDU, defaultDV, defaultAltDU, defaultAltDV
+				}, dataIsDownStreamOrDownWind);
+		final EnvSidecarCache.Contents cached = sidecarKey == null ? null
+				: envSidecarCache.read(simCase, sidecarKey, defaultDU, defaultDV);
 		NetCdfUvGetter netCdfUvGetter = null;
-		try (NetcdfFile netCdfFile = NetcdfFile.open(filePath)) {
-			netCdfUvGetter = new NetCdfUvGetter(simCase, model, tag, filePath, netCdfFile, uNames, vNames, speedNames,
-					directionNames, uUncNames, vUncNames, altUUncNames, altVUncNames, riverNames, seqNames,
-					inputLcrNames, defaultDU, defaultDV, defaultAltDU, defaultAltDV, halfLifeInSecs,
-					preDistressHalfLifeInSecs, dataIsDownStreamOrDownWind);
-		} catch (final Exception e) {
-			MainRunner.HandleFatal(simCase, new RuntimeException(e));
+		if (cached == null) {
+			try (NetcdfFile netCdfFile = NetcdfFile.open(filePath)) {
+				netCdfUvGetter = new NetCdfUvGetter(simCase, model, tag, filePath, netCdfFile, uNames, vNames,
+						speedNames, directionNames, uUncNames, vUncNames, altUUncNames, altVUncNames, riverNames,
+						seqNames, inputLcrNames, defaultDU, defaultDV, defaultAltDU, defaultAltDV, halfLifeInSecs,
+						preDistressHalfLifeInSecs, dataIsDownStreamOrDownWind);
+			} catch (final Exception e) {
+				MainRunner.HandleFatal(simCase, new RuntimeException(e));
+			}
+			if (sidecarKey != null && netCdfUvGetter != null) {
+				envSidecarCache.write(sidecarKey, netCdfUvGetter._refSecsS, netCdfUvGetter._lats,
+						netCdfUvGetter._lngs, netCdfUvGetter._pointCollection);
+			}
 		}
 		_simCase = simCase;
-		_pointCollection = netCdfUvGetter._pointCollection;
-		_uNames = netCdfUvGetter._uNames;
-		_vNames = netCdfUvGetter._vNames;
-		_speedNames = netCdfUvGetter._speedNames;
-		_directionNames = netCdfUvGetter._directionNames;
-		_uUncNames = netCdfUvGetter._uUncNames;
-		_vUncNames = netCdfUvGetter._vUncNames;
-		_altUUncNames = netCdfUvGetter._altUUncNames;
-		_altVUncNames = netCdfUvGetter._altVUncNames;
-		_riverNames = netCdfUvGetter._riverNames;
-		_seqNames = netCdfUvGetter._seqNames;
-		_lcrNames = netCdfUvGetter._lcrNames;
-		_netCdfFile = netCdfUvGetter._netCdfFile;
-		_filePath = netCdfUvGetter._filePath;
-		_model = netCdfUvGetter._model;
-		_tag = netCdfUvGetter._tag;
-		_refSecsS = netCdfUvGetter._refSecsS;
-		_lats = netCdfUvGetter._lats;
-		_lngs = netCdfUvGetter._lngs;
-		_dataIsDownStreamOrDownWind = netCdfUvGetter._dataIsDownStreamOrDownWind;
-		_halfLifeInSecs = netCdfUvGetter._halfLifeInSecs;
-		_preDistressHalfLifeInSecs = netCdfUvGetter._preDistressHalfLifeInSecs;
-		_defaultDU = netCdfUvGetter._defaultDU;
-		_defaultDV = netCdfUvGetter._defaultDV;
-		_defaultAltDU = netCdfUvGetter._defaultAltDU;
-		_defaultAltDV = netCdfUvGetter._defaultAltDV;
+		_pointCollection = cached != null ? cached._pointCollection : netCdfUvGetter._pointCollection;
+		/** The reading ctor keeps all of these as they come in. */
+		_uNames = uNames;
+		_vNames = vNames;
+		_speedNames = speedNames;
+		_directionNames = directionNames;
+		_uUncNames = uUncNames;
+		_vUncNames = vUncNames;
+		_altUUncNames = altUUncNames;
+		_altVUncNames = altVUncNames;
+		_riverNames = riverNames;
+		_seqNames = seqNames;
+		_lcrNames = inputLcrNames;
+		/** It is closed by now in any case. */
+		_netCdfFile = cached != null ? null : netCdfUvGetter._netCdfFile;
+		_filePath = filePath;
+		_model = model;
+		_tag = tag;
+		_refSecsS = cached != null ? cached._refSecsS : netCdfUvGetter._refSecsS;
+		_lats = cached != null ? cached._lats : netCdfUvGetter._lats;
+		_lngs = cached != null ? cached._lngs : netCdfUvGetter._lngs;
+		_dataIsDownStreamOrDownWind = dataIsDownStreamOrDownWind;
+		_halfLifeInSecs = halfLifeInSecs;
+		_preDistressHalfLifeInSecs = preDistressHalfLifeInSecs;
+		_defaultDU = defaultDU;
+		_defaultDV = defaultDV;
+		_defaultAltDU = defaultAltDU;
+		_defaultAltDV = defaultAltDV;
 	}
 
 	/**
@@ -250,9 +267,17 @@ public class NetCdfUvGetter implements SummaryBuilder {
 			} else {
 				riverIndexIterator = seqIndexIterator = inputLcrIndexIterator = null;
 			}
+			/**
+			 * The points' values go into one set of columns, rather than into arrays
+			 * of their own.
+			 */
+			final int maxNPoints = (int) lngs.getSize();
+			final NetCdfDataColumns dataColumns = _pointCollection.createDataColumns(_refSecsS.length, maxNPoints);
+			int nPoints = 0;
 			/** Compute the vectors _lats and _lngs. */
-			final TreeSet<Float> distinctLats = new TreeSet<>();
-			final TreeSet<Float> distinctLngs = new TreeSet<>();
+			final float[] allLats = new float[maxNPoints];
+			final float[] allLngs = new float[maxNPoints];
+			int nLatLngs = 0;
 			double leftLng = Double.NaN, lngRange = 0;
 			/**
 			 * We assume latIndexIterator will run out the same time lngIndexIterator does.
@@ -261,8 +286,9 @@ public class NetCdfUvGetter implements SummaryBuilder {
 			while (lngIndexIterator.hasNext()) {
 				final float lat = (float) LatLng3.roundToLattice180_180I(latIndexIterator.getFloatNext());
 				final float lng = (float) LatLng3.roundToLattice180_180I(lngIndexIterator.getFloatNext());
-				distinctLats.add(lat);
-				distinctLngs.add(lng);
+				allLats[nLatLngs] = lat;
+				allLngs[nLatLngs] = lng;
+				++nLatLngs;
 				if (Double.isNaN(leftLng)) {
 					leftLng = lng;
 					lngRange = 0;
@@ -294,25 +320,32 @@ public class NetCdfUvGetter implements SummaryBuilder {
 							river, seq, lcr
 					};
 				}
-				final NetCdfDataPoint netCdfDataPoint = new NetCdfDataPoint(LatLng3.getLatLngB(lat, lng), _refSecsS,
-						_defaultDU, _defaultDV, riverSeqLcr);
-				_pointCollection.add(_simCase.getLogger(), netCdfDataPoint);
+				final NetCdfDataPoint netCdfDataPoint = new NetCdfDataPoint(LatLng3.getLatLngB(lat, lng), dataColumns,
+						/* slot= */nPoints, _defaultDU, _defaultDV, riverSeqLcr);
+				if (_pointCollection.add(_simCase.getLogger(), netCdfDataPoint)) {
+					++nPoints;
+				}
 			}
 			if (lngIndexIterator.hasNext() != latIndexIterator.hasNext()) {
 				SimCaseManager.err(_simCase, "@@@ LngIndexIterator out of synch with LatIndexIterator!! @@@");
 			}
-			/** Convert distinctLats to an array. */
-			final int nLats = distinctLats.size();
+			/** Convert the distinct lats to an array. */
+			final float[] distinctLats = getSortedDistinct(allLats, nLatLngs);
+			final int nLats = distinctLats.length;
 			_lats = new double[nLats];
-			final Iterator<Float> latIterator = distinctLats.iterator();
 			for (int k = 0; k < nLats; ++k) {
-				_lats[k] = latIterator.next();
+				_lats[k] = distinctLats[k];
 			}
 			/**
-			 * Convert distinctLngs to a sorted array; _lngs[0] will be the "leftLng."
+			 * Convert the distinct lngs to a sorted array; _lngs[0] will be the
+			 * "leftLng."
 			 */
-			final int nLngs = distinctLngs.size();
-			final Float[] sortedLngs = distinctLngs.toArray(new Float[nLngs]);
+			final float[] distinctLngs = getSortedDistinct(allLngs, nLatLngs);
+			final int nLngs = distinctLngs.length;
+			final Float[] sortedLngs = new Float[nLngs];
+			for (int k = 0; k < nLngs; ++k) {
+				sortedLngs[k] = distinctLngs[k];
+			}
 			final double finalLeftLng = leftLng;
 			final Comparator<Float> floatComparator = new Comparator<>() {
 				@Override
@@ -339,7 +372,7 @@ public class NetCdfUvGetter implements SummaryBuilder {
 				for (final NetCdfDataPoint dataPoint : dataPoints) {
 					final DataForOnePointAndTime dataForOnePointAndTime = dataPoint.getDataForOnePointAndTime(0);
 					if (dataForOnePointAndTime.getValue(DataComponent.DU) == missingValue) {
-						dataPoint.setValues(DataComponent.DU, /* values= */null);
+						dataPoint.clearValues(DataComponent.DU);
 					}
 				}
 			}
@@ -349,7 +382,7 @@ public class NetCdfUvGetter implements SummaryBuilder {
 					final DataForOnePointAndTime dataForOnePointAndTime = dataPoint.getDataForOnePointAndTime(0);
 					final float dv = dataForOnePointAndTime.getValue(DataComponent.DV);
 					if (Math.abs(dv) == missingValue) {
-						dataPoint.setValues(DataComponent.DV, /* values= */null);
+						dataPoint.clearValues(DataComponent.DV);
 					}
 				}
 			}
@@ -359,7 +392,7 @@ public class NetCdfUvGetter implements SummaryBuilder {
 					final DataForOnePointAndTime dataForOnePointAndTime = dataPoint.getDataForOnePointAndTime(0);
 					final float altDu = dataForOnePointAndTime.getValue(DataComponent.ALT_DU);
 					if (Math.abs(altDu) == missingValue) {
-						dataPoint.setValues(DataComponent.ALT_DU, /* values= */null);
+						dataPoint.clearValues(DataComponent.ALT_DU);
 					}
 				}
 			}
@@ -369,7 +402,7 @@ public class NetCdfUvGetter implements SummaryBuilder {
 					final DataForOnePointAndTime dataForOnePointAndTime = dataPoint.getDataForOnePointAndTime(0);
 					final float altDv = dataForOnePointAndTime.getValue(DataComponent.ALT_DV);
 					if (Math.abs(altDv) == missingValue) {
-						dataPoint.setValues(DataComponent.ALT_DV, /* values= */null);
+						dataPoint.clearValues(DataComponent.ALT_DV);
 					}
 				}
 			}
@@ -422,9 +455,24 @@ public class NetCdfUvGetter implements SummaryBuilder {
 
 	private void setValue(final DataComponent dataComponent, final int timeIdx, final int pointIndex,
 			final float value) {
-		final List<NetCdfDataPoint> dataPoints = _pointCollection.getDataPoints();
-		final NetCdfDataPoint dataPoint = dataPoints.get(pointIndex);
-		dataPoint.setValue(dataComponent, timeIdx, value);
+		/** pointIndex is the point's slot; see the ctor. */
+		_pointCollection.getDataColumns().setValue(dataComponent, timeIdx, pointIndex, value);
+	}
+
+	/**
+	 * The distinct values of values[0..n), in the order of Float.compare; the
+	 * same as what a TreeSet<Float> would give, without the boxing.
+	 */
+	private static float[] getSortedDistinct(final float[] values, final int n) {
+		final float[] sorted = Arrays.copyOf(values, n);
+		Arrays.sort(sorted);
+		int nDistinct = 0;
+		for (int k = 0; k < n; ++k) {
+			if (nDistinct == 0 || Float.compare(sorted[nDistinct - 1], sorted[k]) != 0) {
+				sorted[nDistinct++] = sorted[k];
+			}
+		}
+		return Arrays.copyOf(sorted, nDistinct);
 	}
 
 	private String findValidVariableName(final String[] names) {
@@ -630,6 +678,7 @@ public class NetCdfUvGetter implements SummaryBuilder {
 			return new DataForOnePointAndTime(0f, 0f, (float) _defaultDU, (float) _defaultDV, (float) _defaultAltDU,
 					(float) _defaultAltDV);
 		}
+		final int timeIdx = Arrays.binarySearch(_refSecsS, refSecs);
 		UvCalculator uvCalculator = null;
 		if (interpolationMode.compareTo(Model._CenterDominated) == 0
 				|| interpolationMode.compareTo(Model._UseAllStrips) == 0) {
@@ -641,9 +690,13 @@ public class NetCdfUvGetter implements SummaryBuilder {
 		}
 		if (interpolationMode.compareTo(Model._2Closest) == 0 || interpolationMode.compareTo(Model._3Closest) == 0) {
 			final int nToInterpolateWith = interpolationMode.compareTo(Model._2Closest) == 0 ? 2 : 3;
+			final DataForOnePointAndTime stencilData = getDataFromStencil(latLng, nToInterpolateWith, refSecs,
+					timeIdx);
+			if (stencilData != null) {
+				return stencilData;
+			}
 			uvCalculator = _pointCollection.getStandardUvCalculator(latLng, nToInterpolateWith);
 		}
-		final int timeIdx = Arrays.binarySearch(_refSecsS, refSecs);
 		if (timeIdx >= 0) {
 			return uvCalculator.getDataForOnePointAndTime(timeIdx);
 		}
@@ -674,6 +727,42 @@ public class NetCdfUvGetter implements SummaryBuilder {
 		return new DataForOnePointAndTime(u, v, dU, dV, altDU, altDV);
 	}
 
+	/**
+	 * The rest of getDataForOnePointAndTime for 2- and 3-closest, through
+	 * _pointCollection's stencils; no UvCalculator and no per-time
+	 * DataForOnePointAndTime. Null if the stencils do not cover latLng.
+	 */
+	private DataForOnePointAndTime getDataFromStencil(final LatLng3 latLng, final int nToInterpolateWith,
+			final long refSecs, final int timeIdx) {
+		final int timeIdx0 = timeIdx >= 0 ? timeIdx : -timeIdx - 2;
+		final int timeIdx1 = timeIdx >= 0 ? timeIdx : timeIdx0 + 1;
+		final PointCollection.StencilScratch scratch = _pointCollection.getStencilValues(latLng,
+				nToInterpolateWith, timeIdx0, timeIdx1);
+		if (scratch == null) {
+			return null;
+		}
+		final float[] values0 = scratch._values0;
+		if (timeIdx >= 0) {
+			return new DataForOnePointAndTime(values0);
+		}
+		final float[] values1 = scratch._values1;
+		final long time0 = _refSecsS[timeIdx0];
+		final long time1 = _refSecsS[timeIdx1];
+		final float u = interpolate(values0[DataComponent.U.ordinal()], values1[DataComponent.U.ordinal()],
+				refSecs, time0, time1);
+		final float v = interpolate(values0[DataComponent.V.ordinal()], values1[DataComponent.V.ordinal()],
+				refSecs, time0, time1);
+		final float dU = interpolate(values0[DataComponent.DU.ordinal()], values1[DataComponent.DU.ordinal()],
+				refSecs, time0, time1);
+		final float dV = interpolate(values0[DataComponent.DV.ordinal()], values1[DataComponent.DV.ordinal()],
+				refSecs, time0, time1);
+		final float altDU = interpolate(values0[DataComponent.ALT_DU.ordinal()],
+				values1[DataComponent.ALT_DU.ordinal()], refSecs, time0, time1);
+		final float altDV = interpolate(values0[DataComponent.ALT_DV.ordinal()],
+				values1[DataComponent.ALT_DV.ordinal()], refSecs, time0, time1);
+		return new DataForOnePointAndTime(u, v, dU, dV, altDU, altDV);
+	}
+
 	/**
 	 * return[0] is the number of seconds per unit in the time values. return[1] is
 	 * the base time in seconds.
@@ -878,7 +967,7 @@ public class NetCdfUvGetter implements SummaryBuilder {
 	}
 
 	protected void closePointCollection(final SimCaseManager.SimCase simCase, final String interpolationMode) {
-		_pointCollection.close(simCase, interpolationMode);
+		_pointCollection.close(simCase, interpolationMode, _lats, _lngs);
 	}
 
 	public class Summary {
@@ -6,6 +6,7 @@ import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import com.skagit.sarops.environment.riverSeqLcrUvCalculator.RiverSeqLcrMachinery;
 import com.skagit.sarops.environment.riverSeqLcrUvCalculator.RiverSeqLcrUvCalculator;
@@ -26,12 +27,77 @@ import com.skagit.util.navigation.LatLng3;
 public class PointCollection {
 	/** The collection of points. We do not allow duplicate LatLngs. */
 	private ArrayList<NetCdfDataPoint> _dataPoints = null;
+	/** Where _dataPoints keep their values. */
+	private NetCdfDataColumns _dataColumns = null;
 	private Set<LatLng3> _distinctLatLngs = null;
 	private NetCdfDataPoint[] _sortedDataPoints = null;
 	private RiverSeqLcrMachinery _riverSeqLcrMachinery = null;
 	private PointFinderData _pointFinderData;
 	private Comparator<NetCdfDataPoint> _netCdfDataPointComparator;
 	private PointFinder _pointFinder;
+	/**
+	 * Stencil machinery for 2- and 3-closest; null unless we are using a standard
+	 * PointFinder and Use.Interpolation.Stencils is on. We cut the data's xy
+	 * bounding box into an _nCellsX by _nCellsY grid of cells of side _cellSize.
+	 * _sortedXs and _sortedYs are the xy's of _sortedDataPoints, and the indices
+	 * (into _sortedDataPoints) of the points in cell c are _bucketed[
+	 * _bucketStarts[c], _bucketStarts[c + 1]). _stencils[c] is built the first
+	 * time that someone asks about a point in cell c.
+	 */
+	final private static int _MaxNForStencils = 3;
+	private double[] _sortedXs = null;
+	private double[] _sortedYs = null;
+	private double _minX = Double.NaN;
+	private double _minY = Double.NaN;
+	private double _cellSize = Double.NaN;
+	private int _nCellsX = 0;
+	private int _nCellsY = 0;
+	private int[] _bucketStarts = null;
+	private int[] _bucketed = null;
+	private AtomicReferenceArray<Stencil> _stencils = null;
+	/** Scratch for the stencil path, one per thread, so that it allocates nothing. */
+	final private static ThreadLocal<StencilScratch> _StencilScratches = new ThreadLocal<>() {
+		@Override
+		protected StencilScratch initialValue() {
+			return new StencilScratch();
+		}
+	};
+
+	/**
+	 * Every point that can be one of the _MaxNForStencils-closest to any point in
+	 * a cell, with the xy's laid out alongside.
+	 */
+	private static class Stencil {
+		final private NetCdfDataPoint[] _points;
+		final private double[] _xs;
+		final private double[] _ys;
+
+		private Stencil(final NetCdfDataPoint[] points, final double[] xs, final double[] ys) {
+			_points = points;
+			_xs = xs;
+			_ys = ys;
+		}
+	}
+
+	/**
+	 * What one query works in. _nReferences of _best (indices into the
+	 * Stencil) and _weights are in use; the values at the two time indices go
+	 * into _values0 and _values1.
+	 */
+	static class StencilScratch {
+		final private int[] _best = new int[_MaxNForStencils];
+		final private double[] _dSquareds = new double[_MaxNForStencils];
+		final private double[] _weights = new double[_MaxNForStencils];
+		private int _nReferences = 0;
+		final float[] _values0 = new float[NetCdfUvGetter._NDataComponents];
+		final float[] _values1 = new float[NetCdfUvGetter._NDataComponents];
+	}
+	/**
+	 * Non-null only if the points form a regular lat/lng grid and
+	 * Use.Regular.Grid.Interpolation is on; then getStandardUvCalculator tries it
+	 * first.
+	 */
+	private RegularGrid _regularGrid = null;
 	public long _totalEstimatorTime = 0;
 	public int _nEstimatesMade = 0;
 	private final boolean _haveClosed = false;
@@ -40,7 +106,21 @@ public class PointCollection {
 	public PointCollection() {
 	}
 
-	public void add(final MyLogger logger, final NetCdfDataPoint dataPoint) {
+	/**
+	 * The values of the points that we will add. A point's slot in them must be
+	 * the number of points that we have accepted before it.
+	 */
+	NetCdfDataColumns createDataColumns(final int nRefSecsS, final int maxNDataPoints) {
+		_dataColumns = new NetCdfDataColumns(nRefSecsS, maxNDataPoints);
+		return _dataColumns;
+	}
+
+	NetCdfDataColumns getDataColumns() {
+		return _dataColumns;
+	}
+
+	/** Returns false if we already have dataPoint's LatLng. */
+	public boolean add(final MyLogger logger, final NetCdfDataPoint dataPoint) {
 		if (_dataPoints == null) {
 			synchronized (this) {
 				if (_dataPoints == null) {
@@ -52,14 +132,20 @@ public class PointCollection {
 		final LatLng3 latLng = dataPoint.getLatLng();
 		if (_distinctLatLngs.add(latLng)) {
 			_dataPoints.add(dataPoint);
-		} else {
-			final String errorMessage = String.format("Duplicate LatLng %s in set of environmental Points.",
-					latLng.getString());
-			MyLogger.err(logger, errorMessage);
+			return true;
 		}
+		final String errorMessage = String.format("Duplicate LatLng %s in set of environmental Points.",
+				latLng.getString());
+		MyLogger.err(logger, errorMessage);
+		return false;
 	}
 
-	public void close(final SimCaseManager.SimCase simCase, final String interpolationMode) {
+	/**
+	 * gridLats and gridLngs are the distinct lats and lngs of the points, sorted
+	 * as in NetCdfUvGetter; they are only used to look for a regular grid.
+	 */
+	public void close(final SimCaseManager.SimCase simCase, final String interpolationMode, final double[] gridLats,
+			final double[] gridLngs) {
 		if (_haveClosed) {
 			return;
 		}
@@ -105,6 +191,164 @@ public class PointCollection {
 		 */
 		final MassFinderPointFinder massFinderPointFinder = new MassFinderPointFinder(_pointFinderData);
 		_pointFinder = massFinderPointFinder;
+		if (SimCaseManager.getSimGlobalStrings(simCase).getUseInterpolationStencils()) {
+			buildStencilMachinery();
+		}
+		if (SimCaseManager.getSimGlobalStrings(simCase).getUseRegularGridInterpolation()) {
+			_regularGrid = RegularGrid.build(gridLats, gridLngs, _dataPoints);
+		}
+	}
+
+	/**
+	 * The data points are static for the whole run, so rather than searching
+	 * _pointFinder for every particle at every time step, we cut the xy plane into
+	 * square cells whose side is roughly the spacing of the data, and for each cell
+	 * that a particle visits, we store the points that could be among the closest
+	 * to anything in that cell. We also bucket the data points by cell, so that
+	 * building a cell's Stencil looks only at nearby cells.
+	 */
+	private void buildStencilMachinery() {
+		final int nDataPoints = _sortedDataPoints.length;
+		if (nDataPoints < _MaxNForStencils) {
+			return;
+		}
+		final double[] sortedXs = new double[nDataPoints];
+		final double[] sortedYs = new double[nDataPoints];
+		double minX = Double.POSITIVE_INFINITY;
+		double maxX = Double.NEGATIVE_INFINITY;
+		double minY = Double.POSITIVE_INFINITY;
+		double maxY = Double.NEGATIVE_INFINITY;
+		for (int k = 0; k < nDataPoints; ++k) {
+			final double[] xy = _pointFinderData.getXy(_sortedDataPoints[k].getLatLng());
+			sortedXs[k] = xy[0];
+			sortedYs[k] = xy[1];
+			minX = Math.min(minX, xy[0]);
+			maxX = Math.max(maxX, xy[0]);
+			minY = Math.min(minY, xy[1]);
+			maxY = Math.max(maxY, xy[1]);
+		}
+		final double cellSize = Math.max(maxX - minX, maxY - minY) / Math.sqrt(nDataPoints);
+		if (!(cellSize > 0d) || Double.isInfinite(cellSize)) {
+			return;
+		}
+		final int nCellsX = (int) Math.floor((maxX - minX) / cellSize) + 1;
+		final int nCellsY = (int) Math.floor((maxY - minY) / cellSize) + 1;
+		final int nCells = nCellsX * nCellsY;
+		/** Counting sort of the points by cell. */
+		final int[] cells = new int[nDataPoints];
+		final int[] bucketStarts = new int[nCells + 1];
+		for (int k = 0; k < nDataPoints; ++k) {
+			final int cellX = Math.min(nCellsX - 1, (int) Math.floor((sortedXs[k] - minX) / cellSize));
+			final int cellY = Math.min(nCellsY - 1, (int) Math.floor((sortedYs[k] - minY) / cellSize));
+			cells[k] = cellY * nCellsX + cellX;
+			++bucketStarts[cells[k] + 1];
+		}
+		for (int c = 0; c < nCells; ++c) {
+			bucketStarts[c + 1] += bucketStarts[c];
+		}
+		final int[] bucketed = new int[nDataPoints];
+		final int[] nextSlots = Arrays.copyOf(bucketStarts, nCells);
+		for (int k = 0; k < nDataPoints; ++k) {
+			bucketed[nextSlots[cells[k]]++] = k;
+		}
+		_sortedXs = sortedXs;
+		_sortedYs = sortedYs;
+		_minX = minX;
+		_minY = minY;
+		_cellSize = cellSize;
+		_nCellsX = nCellsX;
+		_nCellsY = nCellsY;
+		_bucketStarts = bucketStarts;
+		_bucketed = bucketed;
+		_stencils = new AtomicReferenceArray<>(nCells);
+	}
+
+	/**
+	 * The Stencil for the cell that contains xy (which is latLng), or null if
+	 * that is outside the data's bounding box.
+	 */
+	private Stencil getStencil(final LatLng3 latLng, final double[] xy) {
+		final AtomicReferenceArray<Stencil> stencils = _stencils;
+		if (stencils == null) {
+			return null;
+		}
+		final double cellXD = Math.floor((xy[0] - _minX) / _cellSize);
+		final double cellYD = Math.floor((xy[1] - _minY) / _cellSize);
+		if (!(0d <= cellXD && cellXD < _nCellsX && 0d <= cellYD && cellYD < _nCellsY)) {
+			return null;
+		}
+		final int cell = (int) cellYD * _nCellsX + (int) cellXD;
+		final Stencil stencil = stencils.get(cell);
+		if (stencil != null) {
+			return stencil;
+		}
+		final Stencil newStencil = buildStencil(latLng, xy);
+		if (newStencil == null || stencils.compareAndSet(cell, null, newStencil)) {
+			return newStencil;
+		}
+		/** Someone beat us to it; use theirs. */
+		return stencils.get(cell);
+	}
+
+	/**
+	 * p = xy is in the cell, which has diagonal g. _pointFinder gives us
+	 * p's _MaxNForStencils-closest, and hence d, a bound on the distance from
+	 * p to its _MaxNForStencils-th closest. For q in the cell, q's k-th closest
+	 * is within d + |pq| of q, so anything that is one of q's k-closest is within
+	 * d + 2|pq| <= d + 2g of p. We collect those from the buckets.
+	 */
+	private Stencil buildStencil(final LatLng3 latLng, final double[] xy) {
+		final ArrayList<LatLng3> seeds = _pointFinder.getClosestPoints(latLng, _MaxNForStencils);
+		if (seeds == null || seeds.size() < _MaxNForStencils) {
+			return null;
+		}
+		double maxDSquared = 0d;
+		for (final LatLng3 seed : seeds) {
+			final double[] seedXy = _pointFinderData.getXy(seed);
+			final double xDiff = seedXy[0] - xy[0];
+			final double yDiff = seedXy[1] - xy[1];
+			maxDSquared = Math.max(maxDSquared, xDiff * xDiff + yDiff * yDiff);
+		}
+		/** Pad a bit for round-off. */
+		final double radius = (Math.sqrt(maxDSquared) + 2d * _cellSize * Math.sqrt(2d)) * (1d + 1.0e-9);
+		final double radiusSquared = radius * radius;
+		final int cellX0 = Math.max(0, (int) Math.floor((xy[0] - radius - _minX) / _cellSize));
+		final int cellX1 = Math.min(_nCellsX - 1, (int) Math.floor((xy[0] + radius - _minX) / _cellSize));
+		final int cellY0 = Math.max(0, (int) Math.floor((xy[1] - radius - _minY) / _cellSize));
+		final int cellY1 = Math.min(_nCellsY - 1, (int) Math.floor((xy[1] + radius - _minY) / _cellSize));
+		int nCandidates = 0;
+		int[] candidates = new int[4 * _MaxNForStencils];
+		for (int cellY = cellY0; cellY <= cellY1; ++cellY) {
+			for (int cellX = cellX0; cellX <= cellX1; ++cellX) {
+				final int cell = cellY * _nCellsX + cellX;
+				for (int b = _bucketStarts[cell]; b < _bucketStarts[cell + 1]; ++b) {
+					final int k = _bucketed[b];
+					final double xDiff = _sortedXs[k] - xy[0];
+					final double yDiff = _sortedYs[k] - xy[1];
+					if (xDiff * xDiff + yDiff * yDiff <= radiusSquared) {
+						if (nCandidates == candidates.length) {
+							candidates = Arrays.copyOf(candidates, 2 * nCandidates);
+						}
+						candidates[nCandidates++] = k;
+					}
+				}
+			}
+		}
+		if (nCandidates < _MaxNForStencils) {
+			return null;
+		}
+		/** Keep _sortedDataPoints' order, so that ties break as before. */
+		Arrays.sort(candidates, 0, nCandidates);
+		final NetCdfDataPoint[] points = new NetCdfDataPoint[nCandidates];
+		final double[] xs = new double[nCandidates];
+		final double[] ys = new double[nCandidates];
+		for (int i = 0; i < nCandidates; ++i) {
+			final int k = candidates[i];
+			points[i] = _sortedDataPoints[k];
+			xs[i] = _sortedXs[k];
+			ys[i] = _sortedYs[k];
+		}
+		return new Stencil(points, xs, ys);
 	}
 
 	/**
@@ -117,6 +361,20 @@ public class PointCollection {
 	 *                           with.
 	 */
 	public StandardUvCalculator getStandardUvCalculator(final LatLng3 latLng, final int nToInterpolateWith) {
+		if (_regularGrid != null) {
+			/** Bilinear over the enclosing cell, whatever nToInterpolateWith is. */
+			final StandardUvCalculator gridUvCalculator = _regularGrid.getStandardUvCalculator(this, latLng);
+			if (gridUvCalculator != null) {
+				return gridUvCalculator;
+			}
+		}
+		if (_stencils != null && nToInterpolateWith <= _MaxNForStencils) {
+			final StandardUvCalculator stencilUvCalculator = getStandardUvCalculatorFromStencil(latLng,
+					nToInterpolateWith);
+			if (stencilUvCalculator != null) {
+				return stencilUvCalculator;
+			}
+		}
 		final ArrayList<LatLng3> referenceLatLngs = _pointFinder.getClosestPoints(latLng, nToInterpolateWith);
 		final int nReferencePoints = referenceLatLngs.size();
 		final NetCdfDataPoint[] referencePoints = new NetCdfDataPoint[nReferencePoints];
@@ -132,9 +390,131 @@ public class PointCollection {
 			final int glbIndex = CombinatoricTools.getGlbIndex(_sortedDataPoints, lookUp, _netCdfDataPointComparator);
 			referencePoints[k] = _sortedDataPoints[glbIndex];
 		}
-		/**
-		 * We now have reference points and dSquareds for computing the weights.
-		 */
+		return buildStandardUvCalculator(referencePoints, dSquareds);
+	}
+
+	/**
+	 * Same as the _pointFinder search, but only over latLng's Stencil. Null if
+	 * latLng has no Stencil.
+	 */
+	private StandardUvCalculator getStandardUvCalculatorFromStencil(final LatLng3 latLng,
+			final int nToInterpolateWith) {
+		final double[] xy = _pointFinderData.getXy(latLng);
+		final Stencil stencil = getStencil(latLng, xy);
+		if (stencil == null) {
+			return null;
+		}
+		final StencilScratch scratch = _StencilScratches.get();
+		weighStencil(stencil, xy, nToInterpolateWith, scratch);
+		final int nReferences = scratch._nReferences;
+		final NetCdfDataPoint[] referencePoints = new NetCdfDataPoint[nReferences];
+		for (int i = 0; i < nReferences; ++i) {
+			referencePoints[i] = stencil._points[scratch._best[i]];
+		}
+		return new StandardUvCalculator(this, referencePoints, Arrays.copyOf(scratch._weights, nReferences));
+	}
+
+	/**
+	 * For NetCdfUvGetter's 2- and 3-closest: the values at timeIdx0 and timeIdx1
+	 * (the same if they are equal) go into the calling thread's StencilScratch's
+	 * _values0 and _values1, as a StandardUvCalculator from
+	 * getStandardUvCalculator would compute them. The Stencil is found by cell
+	 * index and worked on in place, so nothing is allocated but getXy's pair.
+	 * Returns null if the stencils do not cover this, and the caller should use
+	 * getStandardUvCalculator.
+	 */
+	StencilScratch getStencilValues(final LatLng3 latLng, final int nToInterpolateWith, final int timeIdx0,
+			final int timeIdx1) {
+		if (_stencils == null || _regularGrid != null || nToInterpolateWith > _MaxNForStencils) {
+			return null;
+		}
+		final double[] xy = _pointFinderData.getXy(latLng);
+		final Stencil stencil = getStencil(latLng, xy);
+		if (stencil == null) {
+			return null;
+		}
+		final StencilScratch scratch = _StencilScratches.get();
+		weighStencil(stencil, xy, nToInterpolateWith, scratch);
+		fillValues(stencil, scratch, timeIdx0, scratch._values0);
+		if (timeIdx1 != timeIdx0) {
+			fillValues(stencil, scratch, timeIdx1, scratch._values1);
+		}
+		return scratch;
+	}
+
+	/**
+	 * Picks the nToInterpolateWith closest of stencil's points to xy, and gives
+	 * them inverse-distance weights, as buildStandardUvCalculator does.
+	 */
+	private static void weighStencil(final Stencil stencil, final double[] xy, final int nToInterpolateWith,
+			final StencilScratch scratch) {
+		final int[] best = scratch._best;
+		final double[] dSquareds = scratch._dSquareds;
+		final double[] weights = scratch._weights;
+		Arrays.fill(dSquareds, 0, nToInterpolateWith, Double.POSITIVE_INFINITY);
+		final double[] xs = stencil._xs;
+		final double[] ys = stencil._ys;
+		final int nCandidates = xs.length;
+		for (int k = 0; k < nCandidates; ++k) {
+			final double xDiff = xy[0] - xs[k];
+			final double yDiff = xy[1] - ys[k];
+			final double dSquared = xDiff * xDiff + yDiff * yDiff;
+			for (int i = nToInterpolateWith - 1; i >= 0 && dSquared < dSquareds[i]; --i) {
+				if (i < nToInterpolateWith - 1) {
+					dSquareds[i + 1] = dSquareds[i];
+					best[i + 1] = best[i];
+				}
+				dSquareds[i] = dSquared;
+				best[i] = k;
+			}
+		}
+		/** If some reference point coincides, it gets all the weight. */
+		for (int i = 0; i < nToInterpolateWith; ++i) {
+			if (NumericalRoutines.compare(dSquareds[i], 0d) == 0) {
+				best[0] = best[i];
+				weights[0] = 1d;
+				scratch._nReferences = 1;
+				return;
+			}
+		}
+		double totalWeight = 0d;
+		for (int i = 0; i < nToInterpolateWith; ++i) {
+			weights[i] = 1d / Math.sqrt(dSquareds[i]);
+			totalWeight += weights[i];
+		}
+		for (int i = 0; i < nToInterpolateWith; ++i) {
+			weights[i] /= totalWeight;
+		}
+		scratch._nReferences = nToInterpolateWith;
+	}
+
+	/** StandardUvCalculator.getDataForOnePointAndTime, into values. */
+	private void fillValues(final Stencil stencil, final StencilScratch scratch, final int timeIdx,
+			final float[] values) {
+		final long start = System.currentTimeMillis();
+		Arrays.fill(values, Float.NaN);
+		final int nReferences = scratch._nReferences;
+		final int nDataComponents = values.length;
+		FunctionLoop: for (int iDataComponent = 0; iDataComponent < nDataComponents; ++iDataComponent) {
+			float thisValue = 0.0f;
+			for (int i = 0; i < nReferences; ++i) {
+				final float value = stencil._points[scratch._best[i]]
+						.getValue(NetCdfUvGetter._DataComponents[iDataComponent], timeIdx);
+				if (Float.isNaN(value)) {
+					break FunctionLoop;
+				}
+				thisValue += scratch._weights[i] * value;
+			}
+			values[iDataComponent] = thisValue;
+		}
+		_totalEstimatorTime += System.currentTimeMillis() - start;
+		_nEstimatesMade++;
+	}
+
+	/** Inverse-distance weights from the reference points' dSquareds. */
+	private StandardUvCalculator buildStandardUvCalculator(final NetCdfDataPoint[] referencePoints,
+			final double[] dSquareds) {
+		final int nReferencePoints = referencePoints.length;
 		final double[] weights = new double[nReferencePoints];
 		double totalWeight = 0d;
 		for (int iPass = 0; iPass < 2; ++iPass) {
@@ -191,6 +571,7 @@ public class PointCollection {
 	}
 
 	public void freeMemory() {
+		_stencils = null;
 		if (_pointFinder != null) {
 			_pointFinder.freeMemory();
 		}
@@ -198,5 +579,7 @@ public class PointCollection {
 			_riverSeqLcrMachinery.freeMemory();
 		}
 		StaticUtilities.clearList(_dataPoints);
+		_dataColumns = null;
+		_regularGrid = null;
 	}
 }
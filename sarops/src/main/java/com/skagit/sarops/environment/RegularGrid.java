@@ -0,0 +1,123 @@
+package com.skagit.sarops.environment;
+
+import java.util.List;
+
+import com.skagit.util.navigation.LatLng3;
+
+/**
+ * For a NetCdf source whose points sit on an evenly spaced lat/lng grid, finds
+ * the cell that encloses a position by arithmetic rather than by searching, and
+ * weights the cell's 4 corners bilinearly. build returns null for anything that
+ * is not such a grid, and getStandardUvCalculator returns null off the grid or
+ * next to a missing corner (e.g., a point that had no data); in either case,
+ * PointCollection falls back to its k-closest search.
+ */
+final class RegularGrid {
+	/** How far (as a fraction of a gap) a lat or lng can be off the grid. */
+	final private static double _RelativeTolerance = 1.0e-3;
+	/** Fewer points than this fraction of the grid means "scattered." */
+	final private static double _MinFractionPresent = 0.5;
+
+	final private double _lat0;
+	final private double _latGap;
+	final private int _nLats;
+	final private double _lng0;
+	final private double _lngGap;
+	final private int _nLngs;
+	/** Indexed by iLat * _nLngs + iLng; null where there is no point. */
+	final private NetCdfDataPoint[] _gridPoints;
+
+	private RegularGrid(final double lat0, final double latGap, final int nLats, final double lng0,
+			final double lngGap, final int nLngs, final NetCdfDataPoint[] gridPoints) {
+		_lat0 = lat0;
+		_latGap = latGap;
+		_nLats = nLats;
+		_lng0 = lng0;
+		_lngGap = lngGap;
+		_nLngs = nLngs;
+		_gridPoints = gridPoints;
+	}
+
+	/**
+	 * lats must be increasing, and lngs increasing to the east of lngs[0]; that
+	 * is how NetCdfUvGetter leaves its _lats and _lngs.
+	 */
+	static RegularGrid build(final double[] lats, final double[] lngs, final List<NetCdfDataPoint> dataPoints) {
+		if (lats == null || lngs == null || dataPoints == null) {
+			return null;
+		}
+		final int nLats = lats.length;
+		final int nLngs = lngs.length;
+		if (nLats < 2 || nLngs < 2) {
+			return null;
+		}
+		final int nDataPoints = dataPoints.size();
+		final int nGridPoints = nLats * nLngs;
+		if (nDataPoints < _MinFractionPresent * nGridPoints) {
+			return null;
+		}
+		final double lat0 = lats[0];
+		final double latGap = (lats[nLats - 1] - lat0) / (nLats - 1);
+		final double lng0 = lngs[0];
+		final double lngGap = LatLng3.degsToEast0_360L(lng0, lngs[nLngs - 1]) / (nLngs - 1);
+		if (!(latGap > 0d) || !(lngGap > 0d)) {
+			return null;
+		}
+		for (int k = 0; k < nLats; ++k) {
+			if (Math.abs(lats[k] - (lat0 + k * latGap)) > _RelativeTolerance * latGap) {
+				return null;
+			}
+		}
+		for (int k = 0; k < nLngs; ++k) {
+			if (Math.abs(LatLng3.degsToEast0_360L(lng0, lngs[k]) - k * lngGap) > _RelativeTolerance * lngGap) {
+				return null;
+			}
+		}
+		final NetCdfDataPoint[] gridPoints = new NetCdfDataPoint[nGridPoints];
+		for (final NetCdfDataPoint dataPoint : dataPoints) {
+			final LatLng3 latLng = dataPoint.getLatLng();
+			final double latSteps = (latLng.getLat() - lat0) / latGap;
+			final double lngSteps = LatLng3.degsToEast0_360L(lng0, latLng.getLng()) / lngGap;
+			final int iLat = (int) Math.round(latSteps);
+			final int iLng = (int) Math.round(lngSteps);
+			if (iLat < 0 || iLat >= nLats || iLng < 0 || iLng >= nLngs
+					|| Math.abs(latSteps - iLat) > _RelativeTolerance || Math.abs(lngSteps - iLng) > _RelativeTolerance) {
+				return null;
+			}
+			final int gridIdx = iLat * nLngs + iLng;
+			if (gridPoints[gridIdx] != null) {
+				return null;
+			}
+			gridPoints[gridIdx] = dataPoint;
+		}
+		return new RegularGrid(lat0, latGap, nLats, lng0, lngGap, nLngs, gridPoints);
+	}
+
+	/** Returns null if we cannot do latLng from the grid. */
+	StandardUvCalculator getStandardUvCalculator(final PointCollection pointCollection, final LatLng3 latLng) {
+		final double latSteps = (latLng.getLat() - _lat0) / _latGap;
+		final double lngSteps = LatLng3.degsToEast0_360L(_lng0, latLng.getLng()) / _lngGap;
+		if (!(0d <= latSteps && latSteps <= _nLats - 1) || !(0d <= lngSteps && lngSteps <= _nLngs - 1)) {
+			return null;
+		}
+		final int iLat = Math.min(_nLats - 2, (int) latSteps);
+		final int iLng = Math.min(_nLngs - 2, (int) lngSteps);
+		final NetCdfDataPoint[] corners = new NetCdfDataPoint[] {
+				_gridPoints[iLat * _nLngs + iLng], //
+				_gridPoints[iLat * _nLngs + iLng + 1], //
+				_gridPoints[(iLat + 1) * _nLngs + iLng], //
+				_gridPoints[(iLat + 1) * _nLngs + iLng + 1]
+		};
+		for (final NetCdfDataPoint corner : corners) {
+			if (corner == null) {
+				return null;
+			}
+		}
+		final double a = latSteps - iLat;
+		final double b = lngSteps - iLng;
+		final double[] weights = new double[] {
+				(1d - a) * (1d - b), (1d - a) * b, a * (1d - b), a * b
+		};
+		return new StandardUvCalculator(pointCollection, corners, weights);
+	}
+}
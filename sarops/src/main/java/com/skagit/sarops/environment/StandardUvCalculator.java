@@ -5,7 +5,8 @@ import java.util.Arrays;
 import com.skagit.util.navigation.LatLng3;
 
 /**
- * Implements 2-closest or 3-closest interpolation. The
+ * Implements 2-closest or 3-closest interpolation and, for {@link RegularGrid},
+ * bilinear interpolation over a cell's 4 corners. The
  * {@link #StandardUvGetter(PointCollection, NetCdfDataPoint[], double[])
  * ctor} 's inputs are the reference points and weights for the
  * interpolation. Most of the work to use this is finding the closest
@@ -37,11 +38,10 @@ public class StandardUvCalculator implements UvCalculator {
 				++iDataComponent) {
 			float thisValue = 0.0f;
 			for (int i = 0; i < nReferencePoints; ++i) {
+				/** Straight from the columns; no DataForOnePointAndTime per point. */
 				final NetCdfDataPoint dataPoint = _referencePoints[i];
-				final DataForOnePointAndTime dataForOnePointAndTime =
-						dataPoint.getDataForOnePointAndTime(timeIdx);
-				final float value = dataForOnePointAndTime
-						.getValue(NetCdfUvGetter._DataComponents[iDataComponent]);
+				final float value = dataPoint.getValue(
+						NetCdfUvGetter._DataComponents[iDataComponent], timeIdx);
 				if (Float.isNaN(value)) {
 					break FunctionLoop;
 				}
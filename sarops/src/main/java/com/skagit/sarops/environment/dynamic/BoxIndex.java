@@ -0,0 +1,90 @@
+package com.skagit.sarops.environment.dynamic;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import com.skagit.sarops.environment.BoxDefinition;
+import com.skagit.sarops.environment.NetCdfUvGetter;
+import com.skagit.util.navigation.LatLng3;
+
+/**
+ * An immutable snapshot of a DynamicEnvUvGetter's boxes, for the workers to
+ * search without locks. The boxes' time endpoints cut time into buckets, and
+ * each bucket lists the boxes that touch it, in the order of the original
+ * TreeMap. Hence find returns the same box that a scan of the TreeMap's keys
+ * would have; it just looks at far fewer of them.
+ */
+class BoxIndex {
+	final private BoxDefinition[] _boxDefinitions;
+	final private NetCdfUvGetter[] _uvGetters;
+	/** Sorted and distinct; bucket k is [_boundaries[k], _boundaries[k+1]]. */
+	final private long[] _boundaries;
+	final private int[][] _bucketToOrdinals;
+
+	BoxIndex(final TreeMap<BoxDefinition, NetCdfUvGetter> uvGetters) {
+		final int nBoxes = uvGetters.size();
+		_boxDefinitions = new BoxDefinition[nBoxes];
+		_uvGetters = new NetCdfUvGetter[nBoxes];
+		final TreeSet<Long> boundarySet = new TreeSet<>();
+		int k = 0;
+		for (final Map.Entry<BoxDefinition, NetCdfUvGetter> entry : uvGetters.entrySet()) {
+			final BoxDefinition boxDefinition = entry.getKey();
+			_boxDefinitions[k] = boxDefinition;
+			_uvGetters[k] = entry.getValue();
+			boundarySet.add(boxDefinition.getLowRefSecs());
+			boundarySet.add(boxDefinition.getHighRefSecs());
+			++k;
+		}
+		final int nBoundaries = boundarySet.size();
+		_boundaries = new long[nBoundaries];
+		k = 0;
+		for (final long boundary : boundarySet) {
+			_boundaries[k++] = boundary;
+		}
+		/** A single boundary still makes one (degenerate) bucket. */
+		final int nBuckets = Math.max(nBoundaries - 1, nBoundaries == 0 ? 0 : 1);
+		_bucketToOrdinals = new int[nBuckets][];
+		for (int iBucket = 0; iBucket < nBuckets; ++iBucket) {
+			final long bucketLow = _boundaries[iBucket];
+			final long bucketHigh = _boundaries[Math.min(iBucket + 1, nBoundaries - 1)];
+			final ArrayList<Integer> ordinals = new ArrayList<>();
+			for (int iBox = 0; iBox < nBoxes; ++iBox) {
+				final BoxDefinition boxDefinition = _boxDefinitions[iBox];
+				if (boxDefinition.getLowRefSecs() <= bucketHigh && bucketLow <= boxDefinition.getHighRefSecs()) {
+					ordinals.add(iBox);
+				}
+			}
+			final int nOrdinals = ordinals.size();
+			final int[] ordinalArray = new int[nOrdinals];
+			for (int k1 = 0; k1 < nOrdinals; ++k1) {
+				ordinalArray[k1] = ordinals.get(k1);
+			}
+			_bucketToOrdinals[iBucket] = ordinalArray;
+		}
+	}
+
+	/** Returns null if no box contains (refSecs, latLng). */
+	NetCdfUvGetter find(final long refSecs, final LatLng3 latLng) {
+		final int nBuckets = _bucketToOrdinals.length;
+		if (nBuckets == 0 || refSecs < _boundaries[0] || refSecs > _boundaries[_boundaries.length - 1]) {
+			return null;
+		}
+		final int k = Arrays.binarySearch(_boundaries, refSecs);
+		final int iBucket = Math.min(nBuckets - 1, k >= 0 ? k : -k - 2);
+		for (final int iBox : _bucketToOrdinals[iBucket]) {
+			if (_boxDefinitions[iBox].contains(refSecs, latLng)) {
+				return _uvGetters[iBox];
+			}
+		}
+		return null;
+	}
+
+	/** What the TreeMap's lastEntry would give; null if empty. */
+	NetCdfUvGetter getLast() {
+		final int nBoxes = _uvGetters.length;
+		return nBoxes == 0 ? null : _uvGetters[nBoxes - 1];
+	}
+}
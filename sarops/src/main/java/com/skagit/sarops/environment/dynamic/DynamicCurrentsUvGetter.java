@@ -167,31 +167,15 @@ public class DynamicCurrentsUvGetter extends DynamicEnvUvGetter implements Curre
 	@Override
 	public DataForOnePointAndTime getCurrentData(final MyLogger logger, final long refSecs, final LatLng3 latLng,
 			final String interpolationMode) {
-		NetCdfUvGetter winner = null;
-		for (final BoxDefinition boxDefinition : _uvGetters.keySet()) {
-			if (boxDefinition.contains(refSecs, latLng)) {
-				winner = _uvGetters.get(boxDefinition);
-				break;
-			}
-		}
+		NetCdfUvGetter winner = findUvGetter(refSecs, latLng);
 		/**
-		 * We should only get here when we didn't call prepare. So we better call it
-		 * now. But since this routine is called in parallel, we have to synchronize
-		 * this block of code.
+		 * We should only get here when we didn't call prepare. So we better get a box
+		 * now. Only the workers that need it wait for it.
 		 */
 		if (winner == null) {
-			synchronized (this) {
-				final double nmiBuffer = 45.0;
-				final BoxDefinition newBoxDefinition = new BoxDefinition(_simCase, _model, refSecs, latLng, nmiBuffer);
-				incrementalPrepare(-1L, null, newBoxDefinition);
-				finishPrepare();
-				/** Now try again. */
-				for (final BoxDefinition boxDefinition : _uvGetters.keySet()) {
-					if (boxDefinition.contains(refSecs, latLng)) {
-						winner = _uvGetters.get(boxDefinition);
-						return winner.getDataForOnePointAndTime(_simCase, refSecs, latLng, interpolationMode);
-					}
-				}
+			final NetCdfUvGetter emergencyUvGetter = getEmergencyUvGetter(refSecs, latLng, 45.0);
+			if (emergencyUvGetter != null) {
+				return emergencyUvGetter.getDataForOnePointAndTime(_simCase, refSecs, latLng, interpolationMode);
 			}
 		}
 		/**
@@ -199,7 +183,7 @@ public class DynamicCurrentsUvGetter extends DynamicEnvUvGetter implements Curre
 		 * get a perfect fit.
 		 */
 		if (winner == null) {
-			winner = _uvGetters.lastEntry().getValue();
+			winner = getLastUvGetter();
 		}
 		final NetCdfCurrentsUvGetter netCdfCurrentsUvGetter = (NetCdfCurrentsUvGetter) winner;
 		final DataForOnePointAndTime currentsUv;
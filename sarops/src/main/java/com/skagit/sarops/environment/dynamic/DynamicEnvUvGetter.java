@@ -10,6 +10,11 @@ import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
 import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.Semaphore;
 
 import org.w3c.dom.DOMException;
 import org.w3c.dom.Element;
@@ -75,6 +80,11 @@ abstract public class DynamicEnvUvGetter {
 	 * "Small Rectangles" is smaller than CriticalRatio, do not combine.
 	 */
 	final private static double _CriticalRatio = 1.1;
+	/** After a failed request, we wait _FirstBackOffMs, then twice that, etc. */
+	final private static long _FirstBackOffMs = 250L;
+	final private static long _MaxBackOffMs = 8000L;
+	/** We give up on a box after this many failed requests. */
+	final private static int _MaxNFailedRequests = 20;
 	/** Standard backpointers. */
 	protected final SimCaseManager.SimCase _simCase;
 	protected final Model _model;
@@ -110,6 +120,25 @@ abstract public class DynamicEnvUvGetter {
 	protected final TreeSet<BoxDefinition> _requiredBoxDefinitions;
 	protected final TreeSet<BoxDefinition> _activeBoxDefinitionsByLastAccessTime;
 	protected final TreeMap<BoxDefinition, NetCdfUvGetter> _uvGetters;
+	/**
+	 * Look-ahead: boxes that we expect to need soon. They are queued on the main
+	 * thread by incrementalPrefetch, and fetched in the background, into
+	 * _prefetchedUvGetters, by startPrefetch. finishPrepareXYZ takes what it can
+	 * use from _prefetchedUvGetters. The background fetch never touches
+	 * _uvGetters, which the workers are reading during a time step.
+	 * _prefetchInFlight is what _prefetchFuture was asked to fetch.
+	 */
+	protected final TreeSet<BoxDefinition> _prefetchBoxDefinitions;
+	final private TreeMap<BoxDefinition, NetCdfUvGetter> _prefetchedUvGetters;
+	private Future<?> _prefetchFuture;
+	private BoxDefinition[] _prefetchInFlight;
+	/**
+	 * What the workers search, instead of _uvGetters; rebuilt whenever _uvGetters
+	 * changes.
+	 */
+	private volatile BoxIndex _boxIndex;
+	/** Emergency boxes being fetched, and who is fetching them. */
+	final private HashMap<BoxDefinition, FutureTask<NetCdfUvGetter>> _emergencyFetches;
 
 	protected DynamicEnvUvGetter(final SimCase simCase, final Model model, final String tag,
 			final int maxUvGettersToKeep, final String interpolationMode, final long halfLifeSecs,
@@ -147,6 +176,12 @@ abstract public class DynamicEnvUvGetter {
 		_pendingBoxDefinitions.clear();
 		_requiredBoxDefinitions.clear();
 		_uvGetters = new TreeMap<>(_IgnoreLastAccessTime);
+		_prefetchBoxDefinitions = new TreeSet<>(_IgnoreLastAccessTime);
+		_prefetchedUvGetters = new TreeMap<>(_IgnoreLastAccessTime);
+		_prefetchFuture = null;
+		_prefetchInFlight = null;
+		_boxIndex = new BoxIndex(_uvGetters);
+		_emergencyFetches = new HashMap<>();
 		/** Perhaps run a connection test. */
 		_isValid = true;
 	}
@@ -325,9 +360,18 @@ abstract public class DynamicEnvUvGetter {
 		 * Need a new one. At this point, always appeal to inputBoxDefinition, and union
 		 * it into an existing pending one if advantageous.
 		 */
+		addOrCombine(_pendingBoxDefinitions, inputBoxDefinition, criticalRatio);
+	}
+
+	/**
+	 * Adds inputBoxDefinition to boxDefinitions, or replaces the member that it
+	 * combines with best by their union.
+	 */
+	private void addOrCombine(final TreeSet<BoxDefinition> boxDefinitions, final BoxDefinition inputBoxDefinition,
+			final double criticalRatio) {
 		BoxDefinition winner = null;
 		double bestRatio = criticalRatio;
-		for (final BoxDefinition pendingBoxDefinition : _pendingBoxDefinitions) {
+		for (final BoxDefinition pendingBoxDefinition : boxDefinitions) {
 			final double thisRatio = pendingBoxDefinition.getRatio(inputBoxDefinition);
 			if (thisRatio < bestRatio) {
 				winner = pendingBoxDefinition;
@@ -335,17 +379,173 @@ abstract public class DynamicEnvUvGetter {
 			}
 		}
 		if (winner != null) {
-			_pendingBoxDefinitions.remove(winner);
+			boxDefinitions.remove(winner);
 			final BoxDefinition union = winner.union(inputBoxDefinition);
 			final String winnerString = String.format("Combining:%s with%s to get:%s", winner.getString(false),
 					inputBoxDefinition.getString(false), union.getString(false));
 			SimCaseManager.out(_simCase, winnerString);
-			_pendingBoxDefinitions.add(union);
+			boxDefinitions.add(union);
 		} else {
-			_pendingBoxDefinitions.add(inputBoxDefinition);
+			boxDefinitions.add(inputBoxDefinition);
+		}
+	}
+
+	/**
+	 * Queues inputBoxDefinition for the background fetch unless an active box, or
+	 * one already queued, covers (refSecs, latLng).
+	 */
+	public void incrementalPrefetch(final long refSecs, final LatLng3 latLng, final BoxDefinition inputBoxDefinition) {
+		for (final BoxDefinition boxDefinition : _activeBoxDefinitionsByLastAccessTime) {
+			if (boxDefinition.contains(refSecs, latLng)) {
+				return;
+			}
+		}
+		for (final BoxDefinition boxDefinition : _prefetchBoxDefinitions) {
+			if (boxDefinition.contains(refSecs, latLng)) {
+				return;
+			}
+		}
+		addOrCombine(_prefetchBoxDefinitions, inputBoxDefinition, _CriticalRatio);
+	}
+
+	/**
+	 * Fetches the queued look-ahead boxes on a worker, if one is free and no
+	 * earlier look-ahead is still running, and returns at once. Either way, the
+	 * queue is emptied.
+	 */
+	public void startPrefetch() {
+		final int nToFetch = _prefetchBoxDefinitions.size();
+		if (nToFetch == 0) {
+			return;
+		}
+		final BoxDefinition[] toFetch = _prefetchBoxDefinitions.toArray(new BoxDefinition[nToFetch]);
+		_prefetchBoxDefinitions.clear();
+		if (_prefetchFuture != null && !_prefetchFuture.isDone()) {
+			return;
+		}
+		final Runnable runnable = new Runnable() {
+			@Override
+			public void run() {
+				for (final BoxDefinition boxDefinition : toFetch) {
+					if (!_simCase.getKeepGoing()) {
+						return;
+					}
+					final NetCdfUvGetter uvGetter = createUvGetter(boxDefinition, /* debug= */false,
+							/* fatalOnFailure= */false);
+					if (uvGetter == null) {
+						continue;
+					}
+					final BoxDefinition newBoxDefinition = boxDefinition.union(uvGetter.getInnerEdge());
+					synchronized (_prefetchedUvGetters) {
+						_prefetchedUvGetters.put(newBoxDefinition, uvGetter);
+					}
+				}
+			}
+		};
+		final SimCaseManager simCaseManager = _simCase.getSimCaseManager();
+		synchronized (simCaseManager.getLockOnWorkersThreadPool()) {
+			if (simCaseManager.getNFreeWorkerThreads(_simCase, "DynamicEnvPrefetch") > 0) {
+				_prefetchFuture = simCaseManager.submitToWorkers(_simCase, runnable);
+				_prefetchInFlight = toFetch;
+			}
 		}
 	}
 
+	/**
+	 * Replaces each pending box that a landed look-ahead box covers by that
+	 * look-ahead box. We wait for a look-ahead that is still running only if it
+	 * was asked for a box that covers something pending; otherwise, what it
+	 * has not yet fetched lands for a later step. Once the look-ahead is done,
+	 * the landed boxes that cover nothing pending are dropped.
+	 */
+	private void usePrefetched() {
+		final Future<?> prefetchFuture = _prefetchFuture;
+		if (prefetchFuture == null) {
+			return;
+		}
+		takePrefetched();
+		if (!prefetchFuture.isDone() && inFlightCoversPending()) {
+			try {
+				prefetchFuture.get();
+			} catch (final ExecutionException | InterruptedException e) {
+				SimCaseManager.standardLogError(_simCase, e);
+			}
+			takePrefetched();
+		}
+		if (prefetchFuture.isDone()) {
+			_prefetchFuture = null;
+			_prefetchInFlight = null;
+			synchronized (_prefetchedUvGetters) {
+				_prefetchedUvGetters.clear();
+			}
+		}
+	}
+
+	private static boolean covers(final BoxDefinition boxDefinition, final BoxDefinition pendingBoxDefinition) {
+		return boxDefinition.contains(pendingBoxDefinition.getLowRefSecs())
+				&& boxDefinition.contains(pendingBoxDefinition.getHighRefSecs())
+				&& boxDefinition.contains(pendingBoxDefinition.getExtent());
+	}
+
+	/** Takes the landed look-ahead boxes that cover pending boxes. */
+	private void takePrefetched() {
+		if (_pendingBoxDefinitions.isEmpty()) {
+			return;
+		}
+		final TreeMap<BoxDefinition, NetCdfUvGetter> prefetchedUvGetters;
+		synchronized (_prefetchedUvGetters) {
+			if (_prefetchedUvGetters.isEmpty()) {
+				return;
+			}
+			prefetchedUvGetters = new TreeMap<>(_prefetchedUvGetters);
+		}
+		final BoxDefinition[] pendingBoxDefinitions = _pendingBoxDefinitions
+				.toArray(new BoxDefinition[_pendingBoxDefinitions.size()]);
+		for (final BoxDefinition pendingBoxDefinition : pendingBoxDefinitions) {
+			for (final Map.Entry<BoxDefinition, NetCdfUvGetter> entry : prefetchedUvGetters.entrySet()) {
+				final BoxDefinition prefetchedBoxDefinition = entry.getKey();
+				if (covers(prefetchedBoxDefinition, pendingBoxDefinition)) {
+					_pendingBoxDefinitions.remove(pendingBoxDefinition);
+					if (!_uvGetters.containsKey(prefetchedBoxDefinition)) {
+						installUvGetter(prefetchedBoxDefinition, entry.getValue());
+					}
+					synchronized (_prefetchedUvGetters) {
+						_prefetchedUvGetters.remove(prefetchedBoxDefinition);
+					}
+					_requiredBoxDefinitions.add(prefetchedBoxDefinition);
+					break;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Whether the running look-ahead was asked for a box that covers a pending
+	 * one; what it lands covers at least what it was asked for.
+	 */
+	private boolean inFlightCoversPending() {
+		final BoxDefinition[] inFlight = _prefetchInFlight;
+		if (inFlight == null) {
+			return false;
+		}
+		for (final BoxDefinition pendingBoxDefinition : _pendingBoxDefinitions) {
+			for (final BoxDefinition boxDefinition : inFlight) {
+				if (covers(boxDefinition, pendingBoxDefinition)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	private void installUvGetter(final BoxDefinition newBoxDefinition, final NetCdfUvGetter uvGetter) {
+		_uvGetters.put(newBoxDefinition, uvGetter);
+		newBoxDefinition.setLastAccessTimeInMillis(System.currentTimeMillis());
+		_activeBoxDefinitionsByLastAccessTime.add(newBoxDefinition);
+		_allBoxDefinitions.add(newBoxDefinition);
+		addBoxDefinitionToModel(newBoxDefinition);
+	}
+
 	protected void cacheNecessaryBoxDefinition(final long refSecs, final LatLng3 latLng,
 			final BoxDefinition inputBoxDefinition) {
 		cacheNecessaryBoxDefinition(refSecs, latLng, inputBoxDefinition, _CriticalRatio);
@@ -378,7 +578,12 @@ abstract public class DynamicEnvUvGetter {
 		}
 	}
 
-	private NetCdfUvGetter createUvGetter(final BoxDefinition boxDefinition, final boolean debug) {
+	/**
+	 * If fatalOnFailure is false, a failure is logged and we return null rather
+	 * than crash the case.
+	 */
+	private NetCdfUvGetter createUvGetter(final BoxDefinition boxDefinition, final boolean debug,
+			final boolean fatalOnFailure) {
 		final long lowTimeRefSecs = boxDefinition.getLowRefSecs();
 		final long highTimeRefSecs = boxDefinition.getHighRefSecs();
 		final Extent extent = boxDefinition.getExtent();
@@ -386,21 +591,27 @@ abstract public class DynamicEnvUvGetter {
 		NetCdfUvGetter netCdfUvGetter = null;
 		boolean success = false;
 		Exception e = null;
+		int nFailedRequests = 0;
 		OUTSIDE_LOOP: for (int k = 0; !success; ++k) {
 			final boolean giveDetails = debug || k >= 3;
 			for (int kk = 0; kk < 5 && !success; ++kk) {
+				if (nFailedRequests > 0) {
+					/** Back off rather than hammer the server. */
+					if (nFailedRequests >= _MaxNFailedRequests || !backOff(nFailedRequests)) {
+						break OUTSIDE_LOOP;
+					}
+				}
 				URI uri = null;
 				try {
 					uri = getUriForLastTry(boxDefinition, _zipped, debug, giveDetails);
 				} catch (final URISyntaxException e1) {
 					e1.printStackTrace();
 					e = e1;
+					++nFailedRequests;
 					continue;
 				}
-				try (final NetcdfFile netCdfFile = boxDefinition.getNetCdfFile(uri, _zipped)) {
-					final String uriString = uri.toASCIIString();
-					netCdfUvGetter = buildNetCdfUvGetter(uriString, netCdfFile);
-					closeNetCdfUvGetter(netCdfUvGetter);
+				try {
+					netCdfUvGetter = fetchAndBuildUvGetter(boxDefinition, uri);
 					/**
 					 * How much MORE do we have to push out to cover the original? Note that
 					 * netCdfUvGetter was built with the most recent BoxDefinition.
@@ -447,20 +658,103 @@ abstract public class DynamicEnvUvGetter {
 					oldRequiredBuffers = requiredBuffers;
 				} catch (IOException | DOMException | NetCdfUvGetter.NetCdfUvGetterException e1) {
 					e = e1;
+					++nFailedRequests;
 					SimCaseManager.standardLogError(_simCase, e1);
 				}
 			}
 		}
+		if (!success && !fatalOnFailure) {
+			SimCaseManager.out(_simCase, String.format("Gave up on look-ahead box %s.", boxDefinition.getString(false)));
+			return null;
+		}
 		if (!success) {
 			/** Do something that crashes this case. */
 			final String s = String.format("Failed on Environmental Data Pull.\n" + "Message[%s]:  StackTrace:%s",
-					e.toString(), StringUtilities.getStackTraceString(e));
+					e == null ? "Gave up" : e.toString(), e == null ? "" : StringUtilities.getStackTraceString(e));
 			SimCaseManager.err(_simCase, s);
 			MainRunner.HandleFatal(_simCase, new RuntimeException(s));
 		}
 		return netCdfUvGetter;
 	}
 
+	/**
+	 * Identifies the data source, for EnvBoxDiskCache; it leaves out the
+	 * client key and zipped, which do not change the data.
+	 */
+	private String getSourceKey() {
+		return String.format("%s://%s:%d%s?sourceID=%s&sourceName=%s&outputType=%d", _scheme, _host, _port, _path,
+				_sourceID, _sourceName, _outputType);
+	}
+
+	/**
+	 * Builds the NetCdfUvGetter for boxDefinition's last try, from the disk
+	 * cache if it has something that covers it, and from the EDS (counting
+	 * against _simCase's EnvFetchPermits) otherwise. Fetched bytes go into the disk cache
+	 * only once they have parsed, and a cached entry that does not parse is
+	 * removed, so a bad download is never served again.
+	 */
+	@SuppressWarnings("deprecation")
+	private NetCdfUvGetter fetchAndBuildUvGetter(final BoxDefinition boxDefinition, final URI uri)
+			throws DOMException, IOException, NetCdfUvGetter.NetCdfUvGetterException {
+		final EnvBoxDiskCache envBoxDiskCache = EnvBoxDiskCache.getEnvBoxDiskCache();
+		final BoxDefinition lastTry = boxDefinition.getLastTry();
+		final String sourceKey = getSourceKey();
+		final EnvBoxDiskCache.Hit hit = envBoxDiskCache == null ? null
+				: envBoxDiskCache.get(sourceKey, lastTry.getLowRefSecs(), lastTry.getHighRefSecs(),
+						lastTry.getExtent());
+		final byte[] bytes;
+		if (hit != null) {
+			bytes = hit.getBytes();
+		} else {
+			final Semaphore fetchPermits = _simCase.getEnvFetchPermits();
+			fetchPermits.acquireUninterruptibly();
+			try {
+				bytes = boxDefinition.getNetCdfBytes(uri, _zipped);
+			} finally {
+				fetchPermits.release();
+			}
+		}
+		final String uriString = uri.toASCIIString();
+		final NetCdfUvGetter netCdfUvGetter;
+		try (final NetcdfFile netCdfFile = NetcdfFile.openInMemory(uriString, bytes)) {
+			netCdfUvGetter = buildNetCdfUvGetter(uriString, netCdfFile);
+			closeNetCdfUvGetter(netCdfUvGetter);
+		} catch (final IOException | NetCdfUvGetter.NetCdfUvGetterException | RuntimeException e) {
+			if (hit != null) {
+				envBoxDiskCache.remove(hit);
+			}
+			throw e;
+		}
+		if (hit == null && envBoxDiskCache != null) {
+			/**
+			 * Record what the data covers, not what we asked for, so that a later
+			 * request that this data falls short of goes back to the EDS.
+			 */
+			final BoxDefinition innerEdge = netCdfUvGetter.getInnerEdge();
+			final long coveredLowRefSecs = innerEdge.getLowRefSecs();
+			final long coveredHighRefSecs = innerEdge.getHighRefSecs();
+			if (coveredHighRefSecs != Long.MIN_VALUE && coveredLowRefSecs <= coveredHighRefSecs) {
+				envBoxDiskCache.put(sourceKey, coveredLowRefSecs, coveredHighRefSecs, innerEdge.getExtent(), bytes);
+			}
+		}
+		return netCdfUvGetter;
+	}
+
+	/**
+	 * Sleeps before the nFailedRequests+1st request. Returns false if we should
+	 * stop trying.
+	 */
+	private boolean backOff(final int nFailedRequests) {
+		final long backOffMs = Math.min(_MaxBackOffMs, _FirstBackOffMs << Math.min(nFailedRequests - 1, 16));
+		try {
+			Thread.sleep(backOffMs);
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+		return _simCase.getKeepGoing();
+	}
+
 	/**
 	 * Named with an XYZ to avoid confusing it with the Interface requirements of
 	 * this guy's derived classes.
@@ -542,35 +836,13 @@ abstract public class DynamicEnvUvGetter {
 	 */
 	protected DataForOnePointAndTime getDataForOnePointAndTime(final long refSecs, final LatLng3 latLng,
 			final String interpolationMode) {
-		NetCdfUvGetter winner = null;
-		for (final BoxDefinition boxDefinition : _uvGetters.keySet()) {
-			if (boxDefinition.contains(refSecs, latLng)) {
-				winner = _uvGetters.get(boxDefinition);
-				break;
-			}
-		}
+		NetCdfUvGetter winner = findUvGetter(refSecs, latLng);
 		if (winner == null) {
 			/**
 			 * We get here only if we didn't build sufficient BoxDefinitions, so we have to
-			 * now. But since this routine is called in parallel, we have to synchronize
-			 * this block of code. We make "emergency preparations that are small.
+			 * now. We make "emergency" preparations that are small.
 			 */
-			synchronized (this) {
-				final BoxDefinition newBoxDefinition = new BoxDefinition(_simCase, _model, refSecs, latLng, 15.0);
-				/**
-				 * We want this one for sure, and there should be no pending ones anyway.
-				 */
-				final double criticalRatio = 1.0;
-				cacheNecessaryBoxDefinition(-1L, null, newBoxDefinition, criticalRatio);
-				finishPrepareXYZ();
-				/** Now try again. */
-				for (final BoxDefinition boxDefinition : _uvGetters.keySet()) {
-					if (boxDefinition.contains(refSecs, latLng)) {
-						winner = _uvGetters.get(boxDefinition);
-						break;
-					}
-				}
-			}
+			winner = getEmergencyUvGetter(refSecs, latLng, 15.0);
 		}
 		/**
 		 * Take the last one you see if you can't get a perfect fit. We should get a
@@ -578,15 +850,97 @@ abstract public class DynamicEnvUvGetter {
 		 * on one side of us.
 		 */
 		if (winner == null) {
-			winner = _uvGetters.lastEntry().getValue();
+			winner = getLastUvGetter();
 		}
 		return winner.getDataForOnePointAndTime(_simCase, refSecs, latLng, interpolationMode);
 	}
 
+	/** The first box, in _uvGetters' order, that contains (refSecs, latLng). */
+	protected NetCdfUvGetter findUvGetter(final long refSecs, final LatLng3 latLng) {
+		return _boxIndex.find(refSecs, latLng);
+	}
+
+	/** What _uvGetters.lastEntry() would give. */
+	protected NetCdfUvGetter getLastUvGetter() {
+		return _boxIndex.getLast();
+	}
+
+	/**
+	 * Fetches a small box around (refSecs, latLng), unless another worker is
+	 * already fetching one that contains it, in which case we wait for that one.
+	 * Only the workers that need the box wait; the rest keep going with the boxes
+	 * they have.
+	 */
+	protected NetCdfUvGetter getEmergencyUvGetter(final long refSecs, final LatLng3 latLng,
+			final double nmiBuffer) {
+		FutureTask<NetCdfUvGetter> future = null;
+		boolean mine = false;
+		synchronized (_emergencyFetches) {
+			/** Perhaps it arrived while we waited for the lock. */
+			final NetCdfUvGetter uvGetter = _boxIndex.find(refSecs, latLng);
+			if (uvGetter != null) {
+				return uvGetter;
+			}
+			for (final Map.Entry<BoxDefinition, FutureTask<NetCdfUvGetter>> entry : _emergencyFetches.entrySet()) {
+				if (entry.getKey().contains(refSecs, latLng)) {
+					future = entry.getValue();
+					break;
+				}
+			}
+			if (future == null) {
+				final BoxDefinition newBoxDefinition = new BoxDefinition(_simCase, _model, refSecs, latLng, nmiBuffer);
+				future = new FutureTask<>(new Callable<NetCdfUvGetter>() {
+					@Override
+					public NetCdfUvGetter call() {
+						return fetchEmergencyBox(newBoxDefinition);
+					}
+				});
+				_emergencyFetches.put(newBoxDefinition, future);
+				mine = true;
+			}
+		}
+		if (mine) {
+			future.run();
+		}
+		try {
+			return future.get();
+		} catch (final ExecutionException | InterruptedException e) {
+			SimCaseManager.standardLogError(_simCase, e);
+			return null;
+		}
+	}
+
+	private NetCdfUvGetter fetchEmergencyBox(final BoxDefinition boxDefinition) {
+		try {
+			final NetCdfUvGetter uvGetter = createUvGetter(boxDefinition, /* debug= */false,
+					/* fatalOnFailure= */true);
+			if (uvGetter == null) {
+				return null;
+			}
+			final BoxDefinition newBoxDefinition = boxDefinition.union(uvGetter.getInnerEdge());
+			synchronized (_emergencyFetches) {
+				installUvGetter(newBoxDefinition, uvGetter);
+				rebuildBoxIndex();
+			}
+			return uvGetter;
+		} finally {
+			synchronized (_emergencyFetches) {
+				_emergencyFetches.remove(boxDefinition);
+			}
+		}
+	}
+
+	/** Publishes a fresh snapshot of _uvGetters for the workers. */
+	private void rebuildBoxIndex() {
+		_boxIndex = new BoxIndex(_uvGetters);
+	}
+
 	abstract protected NetCdfUvGetter buildNetCdfUvGetter(String uriString, NetcdfFile netCdfFile)
 			throws NetCdfUvGetter.NetCdfUvGetterException;
 
 	protected void finishPrepareXYZ() {
+		/** Take what we can from the look-ahead. */
+		usePrefetched();
 		/** Delete the oldest ones that are not required. */
 		final int nToDelete = _pendingBoxDefinitions.size() + _uvGetters.size() - _maxUvGettersToKeep;
 		final ArrayList<BoxDefinition> toDelete = new ArrayList<>();
@@ -606,22 +960,49 @@ abstract public class DynamicEnvUvGetter {
 		 * It's ok if we don't get as much deleted as we wanted to. But now it's time to
 		 * go get the data.
 		 */
-		for (final BoxDefinition boxDefinition : _pendingBoxDefinitions) {
-			final boolean debug = false;
-			final NetCdfUvGetter uvGetter = createUvGetter(boxDefinition, debug);
+		final BoxDefinition[] pendingBoxDefinitions = _pendingBoxDefinitions
+				.toArray(new BoxDefinition[_pendingBoxDefinitions.size()]);
+		final int nPending = pendingBoxDefinitions.length;
+		final NetCdfUvGetter[] newUvGetters = new NetCdfUvGetter[nPending];
+		/**
+		 * Fetch and parse the boxes concurrently; _simCase's EnvFetchPermits bounds
+		 * how many requests are in flight. Each box writes only its own slot.
+		 */
+		final SimCaseManager.RangeRunner rangeRunner = new SimCaseManager.RangeRunner() {
+			@Override
+			public void runRange(final int k0, final int k1) {
+				for (int k = k0; k < k1; ++k) {
+					final boolean debug = false;
+					newUvGetters[k] = createUvGetter(pendingBoxDefinitions[k], debug, /* fatalOnFailure= */true);
+				}
+			}
+		};
+		_simCase.getSimCaseManager().parallelFor(_simCase, "DynamicEnvFetch", nPending, /* chunkSize= */1,
+				rangeRunner);
+		/**
+		 * If the case was stopped, parallelFor returned without filling every slot;
+		 * leave the pending boxes alone.
+		 */
+		if (!_simCase.getKeepGoing()) {
+			return;
+		}
+		/** Record them serially, in the same order as before. */
+		for (int k = 0; k < nPending; ++k) {
+			final BoxDefinition boxDefinition = pendingBoxDefinitions[k];
+			final NetCdfUvGetter uvGetter = newUvGetters[k];
+			if (uvGetter == null) {
+				continue;
+			}
 			/**
 			 * Get the best that we can do with this NetCdfUvGetter; it's the union of
 			 * boxDefinition and the "innerEdge" of the uvGetter.
 			 */
 			final BoxDefinition newBoxDefinition = boxDefinition.union(uvGetter.getInnerEdge());
-			_uvGetters.put(newBoxDefinition, uvGetter);
-			newBoxDefinition.setLastAccessTimeInMillis(System.currentTimeMillis());
-			_activeBoxDefinitionsByLastAccessTime.add(newBoxDefinition);
-			_allBoxDefinitions.add(newBoxDefinition);
-			addBoxDefinitionToModel(newBoxDefinition);
+			installUvGetter(newBoxDefinition, uvGetter);
 		}
 		_pendingBoxDefinitions.clear();
 		_requiredBoxDefinitions.clear();
+		rebuildBoxIndex();
 	}
 
 	abstract void addBoxDefinitionToModel(BoxDefinition boxDefinition);
@@ -638,6 +1019,10 @@ abstract public class DynamicEnvUvGetter {
 	}
 
 	public void freeDynamicEnvGetterMemory() {
+		_prefetchBoxDefinitions.clear();
+		synchronized (_prefetchedUvGetters) {
+			_prefetchedUvGetters.clear();
+		}
 		_allBoxDefinitions.clear();
 		_pendingBoxDefinitions.clear();
 		_requiredBoxDefinitions.clear();
@@ -646,6 +1031,7 @@ abstract public class DynamicEnvUvGetter {
 		if (nLittleOnes > 0) {
 			final NetCdfUvGetter[] littleOnes = _uvGetters.values().toArray(new NetCdfUvGetter[nLittleOnes]);
 			_uvGetters.clear();
+			rebuildBoxIndex();
 			for (int k = 0; k < nLittleOnes; ++k) {
 				littleOnes[k].freePointCollectionMemory();
 			}
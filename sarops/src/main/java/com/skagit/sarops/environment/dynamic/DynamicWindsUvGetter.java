@@ -145,33 +145,18 @@ public class DynamicWindsUvGetter extends DynamicEnvUvGetter implements WindsUvG
 	@Override
 	public DataForOnePointAndTime getDownWindData(final long refSecs, final LatLng3 latLng,
 			final String interpolationMode) {
-		NetCdfUvGetter winner = null;
-		for (final BoxDefinition boxDefinition : _uvGetters.keySet()) {
-			if (boxDefinition.contains(refSecs, latLng)) {
-				winner = _uvGetters.get(boxDefinition);
-				break;
-			}
-		}
+		NetCdfUvGetter winner = findUvGetter(refSecs, latLng);
 		/**
-		 * We should only get here when we didn't call prepare. So we better call it
-		 * now. But since this routine is called in parallel, we have to synchronize
-		 * this block of code. Also, chances are that we don't want a lot of time and we
-		 * do want a lot of breadth. We also assume we wish to go forward.
+		 * We should only get here when we didn't call prepare. So we better get a box
+		 * now. Only the workers that need it wait for it. Also, chances are that we
+		 * don't want a lot of time and we do want a lot of breadth. We also assume we
+		 * wish to go forward.
 		 */
 		final MyLogger logger = _simCase.getLogger();
 		if (winner == null) {
-			synchronized (this) {
-				final double nmiBuffer = 60d;
-				final BoxDefinition newBoxDefinition = new BoxDefinition(_simCase, _model, refSecs, latLng, nmiBuffer);
-				incrementalPrepare(-1L, null, newBoxDefinition);
-				finishPrepare();
-				/** Now try again. */
-				for (final BoxDefinition boxDefinition : _uvGetters.keySet()) {
-					if (boxDefinition.contains(refSecs, latLng)) {
-						winner = _uvGetters.get(boxDefinition);
-						return winner.getDataForOnePointAndTime(_simCase, refSecs, latLng, interpolationMode);
-					}
-				}
+			final NetCdfUvGetter emergencyUvGetter = getEmergencyUvGetter(refSecs, latLng, 60d);
+			if (emergencyUvGetter != null) {
+				return emergencyUvGetter.getDataForOnePointAndTime(_simCase, refSecs, latLng, interpolationMode);
 			}
 		}
 		/**
@@ -179,7 +164,7 @@ public class DynamicWindsUvGetter extends DynamicEnvUvGetter implements WindsUvG
 		 * get a perfect fit.
 		 */
 		if (winner == null) {
-			winner = _uvGetters.lastEntry().getValue();
+			winner = getLastUvGetter();
 		}
 		final NetCdfWindsUvGetter netCdfWindsUvGetter = (NetCdfWindsUvGetter) winner;
 		if (netCdfWindsUvGetter.isEmpty(logger)) {
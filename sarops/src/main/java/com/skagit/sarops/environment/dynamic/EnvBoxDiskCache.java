@@ -0,0 +1,340 @@
+package com.skagit.sarops.environment.dynamic;
+
+import java.io.File;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import com.skagit.sarops.util.SimGlobalStrings;
+import com.skagit.util.navigation.Extent;
+
+/**
+ * A disk cache of the (decoded, unzipped) NetCDF bytes that the dynamic
+ * getters pull from the EDS. It is shared by every case in this JVM, and can
+ * be shared by several JVMs, since an entry only appears once its files have
+ * been moved into place, and a reader that loses a race simply misses.
+ * <p>
+ * An entry is a pair of files named by the SHA-256 of its key (source, time
+ * range, and extent): the bytes, and a small properties file that describes
+ * them. An entry's time range and extent are what its bytes actually cover,
+ * i.e., the inner edge of the parsed data, not what was asked for; the EDS can
+ * send less than that. A look-up is satisfied by any entry from the same
+ * source whose time range and extent contain the request's; we take the
+ * smallest. Entries older
+ * than _maxAgeMillis are ignored and deleted, since the EDS's forecasts get
+ * revised. Once the entries take up more than _maxNBytes, we delete the least
+ * recently used ones.
+ */
+class EnvBoxDiskCache {
+	final private static String _DataSuffix = ".nc";
+	final private static String _MetaSuffix = ".meta";
+	/**
+	 * Marks meta files whose ranges are the parsed data's coverage; earlier ones
+	 * recorded the request, and we leave those alone.
+	 */
+	final private static String _CoverageKey = "coverage";
+	final private static String _CoverageValue = "innerEdge";
+	/** We look for other JVMs' entries at most this often. */
+	final private static long _RescanMillis = 60000L;
+	private static EnvBoxDiskCache _EnvBoxDiskCache = null;
+	private static boolean _HaveTriedToBuild = false;
+
+	private static class Entry {
+		final private String _hash;
+		final private String _sourceKey;
+		final private long _lowRefSecs;
+		final private long _highRefSecs;
+		final private Extent _extent;
+		final private long _nBytes;
+		final private long _createdMillis;
+		private long _lastAccessMillis;
+
+		private Entry(final String hash, final String sourceKey, final long lowRefSecs, final long highRefSecs,
+				final Extent extent, final long nBytes, final long createdMillis, final long lastAccessMillis) {
+			_hash = hash;
+			_sourceKey = sourceKey;
+			_lowRefSecs = lowRefSecs;
+			_highRefSecs = highRefSecs;
+			_extent = extent;
+			_nBytes = nBytes;
+			_createdMillis = createdMillis;
+			_lastAccessMillis = lastAccessMillis;
+		}
+
+		/** Against what the bytes cover; see put. */
+		private boolean covers(final String sourceKey, final long lowRefSecs, final long highRefSecs,
+				final Extent extent) {
+			final boolean mustBeClean = false;
+			return _sourceKey.equals(sourceKey) && _lowRefSecs <= lowRefSecs && highRefSecs <= _highRefSecs
+					&& _extent.surrounds(extent, mustBeClean);
+		}
+	}
+
+	/** What get returns; hand it back to remove if its bytes will not parse. */
+	static class Hit {
+		final private Entry _entry;
+		final private byte[] _bytes;
+
+		private Hit(final Entry entry, final byte[] bytes) {
+			_entry = entry;
+			_bytes = bytes;
+		}
+
+		byte[] getBytes() {
+			return _bytes;
+		}
+	}
+
+	final private File _dir;
+	final private long _maxNBytes;
+	final private long _maxAgeMillis;
+	final private Map<String, Entry> _entries;
+	private long _ttlNBytes;
+	private long _lastScanMillis;
+
+	private EnvBoxDiskCache(final File dir, final long maxNBytes, final long maxAgeMillis) {
+		_dir = dir;
+		_maxNBytes = maxNBytes;
+		_maxAgeMillis = maxAgeMillis;
+		_entries = new HashMap<>();
+		_ttlNBytes = 0L;
+		_lastScanMillis = Long.MIN_VALUE / 2;
+	}
+
+	/** Returns null if there is no cache directory or we cannot use it. */
+	static synchronized EnvBoxDiskCache getEnvBoxDiskCache() {
+		if (!_HaveTriedToBuild) {
+			_HaveTriedToBuild = true;
+			final SimGlobalStrings simGlobalStrings = SimGlobalStrings.getStaticSimGlobalStrings();
+			final String dirName = simGlobalStrings.getEnvBoxDiskCacheDirName();
+			if (dirName != null && dirName.trim().length() > 0) {
+				final File dir = new File(dirName.trim());
+				if (dir.isDirectory() || dir.mkdirs()) {
+					final long maxNBytes = simGlobalStrings.getEnvBoxDiskCacheMBs() * 1024L * 1024L;
+					final long maxAgeMillis = simGlobalStrings.getEnvBoxDiskCacheMaxAgeHours() * 3600L * 1000L;
+					_EnvBoxDiskCache = new EnvBoxDiskCache(dir, maxNBytes, maxAgeMillis);
+				}
+			}
+		}
+		return _EnvBoxDiskCache;
+	}
+
+	/** Returns null if no live entry covers the request. */
+	Hit get(final String sourceKey, final long lowRefSecs, final long highRefSecs, final Extent extent) {
+		for (int iPass = 0; iPass < 2; ++iPass) {
+			final Entry entry;
+			synchronized (this) {
+				final long nowMillis = System.currentTimeMillis();
+				if (iPass == 1) {
+					/** Perhaps another JVM has it. */
+					if (nowMillis - _lastScanMillis < _RescanMillis) {
+						return null;
+					}
+					scan(nowMillis);
+				}
+				entry = findSmallestCover(sourceKey, lowRefSecs, highRefSecs, extent, nowMillis);
+				if (entry != null) {
+					entry._lastAccessMillis = nowMillis;
+				}
+			}
+			if (entry != null) {
+				try {
+					final Path dataPath = getDataFile(entry._hash).toPath();
+					final byte[] bytes = Files.readAllBytes(dataPath);
+					Files.setLastModifiedTime(dataPath, FileTime.fromMillis(System.currentTimeMillis()));
+					return new Hit(entry, bytes);
+				} catch (final IOException e) {
+					/** Somebody else deleted it. */
+					synchronized (this) {
+						removeEntry(entry);
+					}
+					return null;
+				}
+			}
+		}
+		return null;
+	}
+
+	/** For an entry whose bytes turned out to be bad. */
+	void remove(final Hit hit) {
+		synchronized (this) {
+			removeEntry(hit._entry);
+		}
+	}
+
+	/**
+	 * The caller should put only bytes that it has parsed, and give the time
+	 * range and extent that the parsed data covers.
+	 */
+	void put(final String sourceKey, final long lowRefSecs, final long highRefSecs, final Extent extent,
+			final byte[] bytes) {
+		final String hash = getHash(sourceKey, lowRefSecs, highRefSecs, extent);
+		synchronized (this) {
+			if (_entries.containsKey(hash)) {
+				return;
+			}
+		}
+		final long nowMillis = System.currentTimeMillis();
+		final Properties properties = new Properties();
+		properties.setProperty("sourceKey", sourceKey);
+		properties.setProperty("lowRefSecs", Long.toString(lowRefSecs));
+		properties.setProperty("highRefSecs", Long.toString(highRefSecs));
+		properties.setProperty("w", Double.toString(extent.getLeftLng()));
+		properties.setProperty("s", Double.toString(extent.getMinLat()));
+		properties.setProperty("e", Double.toString(extent.getRightLng()));
+		properties.setProperty("n", Double.toString(extent.getMaxLat()));
+		properties.setProperty("createdMillis", Long.toString(nowMillis));
+		properties.setProperty(_CoverageKey, _CoverageValue);
+		/** Data first, then meta; an entry exists only once its meta does. */
+		try {
+			final Path tmpData = Files.createTempFile(_dir.toPath(), hash, ".tmp");
+			Files.write(tmpData, bytes);
+			Files.move(tmpData, getDataFile(hash).toPath(), StandardCopyOption.REPLACE_EXISTING,
+					StandardCopyOption.ATOMIC_MOVE);
+			final Path tmpMeta = Files.createTempFile(_dir.toPath(), hash, ".tmp");
+			try (final OutputStream outputStream = Files.newOutputStream(tmpMeta)) {
+				properties.store(outputStream, null);
+			}
+			Files.move(tmpMeta, getMetaFile(hash).toPath(), StandardCopyOption.REPLACE_EXISTING,
+					StandardCopyOption.ATOMIC_MOVE);
+		} catch (final IOException e) {
+			/** It's only a cache. */
+			return;
+		}
+		synchronized (this) {
+			if (!_entries.containsKey(hash)) {
+				addEntry(new Entry(hash, sourceKey, lowRefSecs, highRefSecs, extent, bytes.length, nowMillis,
+						nowMillis));
+			}
+			evict();
+		}
+	}
+
+	private Entry findSmallestCover(final String sourceKey, final long lowRefSecs, final long highRefSecs,
+			final Extent extent, final long nowMillis) {
+		Entry winner = null;
+		Entry expired = null;
+		for (final Entry entry : _entries.values()) {
+			if (nowMillis - entry._createdMillis > _maxAgeMillis) {
+				expired = entry;
+				continue;
+			}
+			if (entry.covers(sourceKey, lowRefSecs, highRefSecs, extent)
+					&& (winner == null || entry._nBytes < winner._nBytes)) {
+				winner = entry;
+			}
+		}
+		if (expired != null) {
+			/** One per look-up is plenty; the rest will go soon enough. */
+			removeEntry(expired);
+		}
+		return winner;
+	}
+
+	/** Picks up entries that other JVMs have written. */
+	private void scan(final long nowMillis) {
+		_lastScanMillis = nowMillis;
+		final File[] metaFiles = _dir.listFiles(new FilenameFilter() {
+			@Override
+			public boolean accept(final File dir, final String name) {
+				return name.endsWith(_MetaSuffix);
+			}
+		});
+		if (metaFiles == null) {
+			return;
+		}
+		for (final File metaFile : metaFiles) {
+			final String name = metaFile.getName();
+			final String hash = name.substring(0, name.length() - _MetaSuffix.length());
+			if (_entries.containsKey(hash)) {
+				continue;
+			}
+			final File dataFile = getDataFile(hash);
+			final Properties properties = new Properties();
+			try (final InputStream inputStream = Files.newInputStream(metaFile.toPath())) {
+				properties.load(inputStream);
+				final String sourceKey = properties.getProperty("sourceKey");
+				final long lowRefSecs = Long.parseLong(properties.getProperty("lowRefSecs"));
+				final long highRefSecs = Long.parseLong(properties.getProperty("highRefSecs"));
+				final double w = Double.parseDouble(properties.getProperty("w"));
+				final double s = Double.parseDouble(properties.getProperty("s"));
+				final double e = Double.parseDouble(properties.getProperty("e"));
+				final double n = Double.parseDouble(properties.getProperty("n"));
+				final long createdMillis = Long.parseLong(properties.getProperty("createdMillis"));
+				if (sourceKey == null || !dataFile.isFile()
+						|| !_CoverageValue.equals(properties.getProperty(_CoverageKey))) {
+					continue;
+				}
+				addEntry(new Entry(hash, sourceKey, lowRefSecs, highRefSecs, new Extent(w, s, e, n),
+						dataFile.length(), createdMillis, dataFile.lastModified()));
+			} catch (final IOException | RuntimeException e) {
+				/** Half-written or foreign; leave it. */
+			}
+		}
+		evict();
+	}
+
+	private void addEntry(final Entry entry) {
+		_entries.put(entry._hash, entry);
+		_ttlNBytes += entry._nBytes;
+	}
+
+	private void removeEntry(final Entry entry) {
+		if (_entries.remove(entry._hash) == null) {
+			return;
+		}
+		_ttlNBytes -= entry._nBytes;
+		/** Meta first, so nobody picks up a data file that is going away. */
+		getMetaFile(entry._hash).delete();
+		getDataFile(entry._hash).delete();
+	}
+
+	private void evict() {
+		while (_ttlNBytes > _maxNBytes && !_entries.isEmpty()) {
+			Entry lru = null;
+			for (final Entry entry : _entries.values()) {
+				if (lru == null || entry._lastAccessMillis < lru._lastAccessMillis) {
+					lru = entry;
+				}
+			}
+			removeEntry(lru);
+		}
+	}
+
+	private File getDataFile(final String hash) {
+		return new File(_dir, hash + _DataSuffix);
+	}
+
+	private File getMetaFile(final String hash) {
+		return new File(_dir, hash + _MetaSuffix);
+	}
+
+	private static String getHash(final String sourceKey, final long lowRefSecs, final long highRefSecs,
+			final Extent extent) {
+		final String key = String.format("%s|%d|%d|%.6f|%.6f|%.6f|%.6f", sourceKey, lowRefSecs, highRefSecs,
+				extent.getLeftLng(), extent.getMinLat(), extent.getRightLng(), extent.getMaxLat());
+		try {
+			final MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+			final byte[] digest = messageDigest.digest(key.getBytes(StandardCharsets.UTF_8));
+			final StringBuilder sb = new StringBuilder(2 * digest.length);
+			for (final byte b : digest) {
+				sb.append(String.format("%02x", b & 0xff));
+			}
+			return sb.toString();
+		} catch (final NoSuchAlgorithmException e) {
+			/** Every JVM has SHA-256. */
+			throw new RuntimeException(e);
+		}
+	}
+}
@@ -111,12 +111,11 @@ public class RiverSeqLcrUvCalculator implements UvCalculator {
 		 * We combine the upstream and downstream data. The direction of what
 		 * our "downstream" depends exclusively on the upstream datum.
 		 */
-		final DataForOnePointAndTime upstreamData =
-				_interpolationPot2._upstream.getDataForOnePointAndTime(timeIdx);
+		final NetCdfDataPoint upstreamDataPoint = _interpolationPot2._upstream;
 		final double upstreamUInKts =
-				upstreamData.getValue(NetCdfUvGetter.DataComponent.U);
+				upstreamDataPoint.getValue(NetCdfUvGetter.DataComponent.U, timeIdx);
 		final double upstreamVInKts =
-				upstreamData.getValue(NetCdfUvGetter.DataComponent.V);
+				upstreamDataPoint.getValue(NetCdfUvGetter.DataComponent.V, timeIdx);
 		/**
 		 * Create a vector of what "downstream means." We create a unit vector
 		 * and get its magnitude.
@@ -125,12 +124,11 @@ public class RiverSeqLcrUvCalculator implements UvCalculator {
 				new double[] { upstreamUInKts, upstreamVInKts };
 		final double uvSpeedFromUpstream =
 				NumericalRoutines.convertToUnitLength(unitUv1);
-		final DataForOnePointAndTime downstreamData =
-				_interpolationPot2._downstream.getDataForOnePointAndTime(timeIdx);
+		final NetCdfDataPoint downstreamDataPoint = _interpolationPot2._downstream;
 		final double downstreamU =
-				downstreamData.getValue(NetCdfUvGetter.DataComponent.U);
+				downstreamDataPoint.getValue(NetCdfUvGetter.DataComponent.U, timeIdx);
 		final double downstreamV =
-				downstreamData.getValue(NetCdfUvGetter.DataComponent.V);
+				downstreamDataPoint.getValue(NetCdfUvGetter.DataComponent.V, timeIdx);
 		/** We'll ignore unitUv2 and be interested only in its magnitude. */
 		final double[] unitUv2 = new double[] { downstreamU, downstreamV };
 		final double uvSpeedFromDownstream =
@@ -144,22 +142,22 @@ public class RiverSeqLcrUvCalculator implements UvCalculator {
 		 * is in kts.
 		 */
 		final double sdDnStreamFactor =
-				(upstreamData.getValue(NetCdfUvGetter.DataComponent.DU) +
-						downstreamData.getValue(NetCdfUvGetter.DataComponent.DU)) /
+				(upstreamDataPoint.getValue(NetCdfUvGetter.DataComponent.DU, timeIdx) +
+						downstreamDataPoint.getValue(NetCdfUvGetter.DataComponent.DU, timeIdx)) /
 						100d / 2d;
 		final double sdCrossStreamFactor =
-				(upstreamData.getValue(NetCdfUvGetter.DataComponent.DV) +
-						downstreamData.getValue(NetCdfUvGetter.DataComponent.DV)) / 2d;
+				(upstreamDataPoint.getValue(NetCdfUvGetter.DataComponent.DV, timeIdx) +
+						downstreamDataPoint.getValue(NetCdfUvGetter.DataComponent.DV, timeIdx)) / 2d;
 		final double sdDnStream = speed * sdDnStreamFactor;
 		final double sdCrossStream = sdDnStream * sdCrossStreamFactor;
 		/** For the alternates. */
 		final double altStdDevDownstreamFactor =
-				(upstreamData.getValue(NetCdfUvGetter.DataComponent.ALT_DU) +
-						downstreamData.getValue(NetCdfUvGetter.DataComponent.ALT_DU)) /
+				(upstreamDataPoint.getValue(NetCdfUvGetter.DataComponent.ALT_DU, timeIdx) +
+						downstreamDataPoint.getValue(NetCdfUvGetter.DataComponent.ALT_DU, timeIdx)) /
 						100d / 2d;
 		final double altStdDevCrossStreamFactor =
-				(upstreamData.getValue(NetCdfUvGetter.DataComponent.ALT_DV) +
-						downstreamData.getValue(NetCdfUvGetter.DataComponent.ALT_DV)) /
+				(upstreamDataPoint.getValue(NetCdfUvGetter.DataComponent.ALT_DV, timeIdx) +
+						downstreamDataPoint.getValue(NetCdfUvGetter.DataComponent.ALT_DV, timeIdx)) /
 						2d;
 		final double altStdDevDownStream = speed * altStdDevDownstreamFactor;
 		final double altStdDevCrossStream =
@@ -0,0 +1,240 @@
+package com.skagit.sarops.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.skagit.util.greatCircleArc.GreatCircleArc;
+import com.skagit.util.navigation.Extent;
+import com.skagit.util.navigation.LatLng3;
+
+/**
+ * A uniform lat/lng grid over a Sortie's legs' jackets, so that a particle is
+ * tested only against the legs it can plausibly reach. A leg's jacket is the
+ * leg's extent, widened by twice the largest buffer that its twisted extents
+ * use. Longitudes are relative to the Sortie's first point, so nothing here
+ * wraps. Anything near a pole, or a sortie that is too wide, gets no index;
+ * Sortie.getLegIndex then returns null, and every leg is a candidate.
+ * <p>
+ * The test is conservative. Leg.closeEnoughToCompute compares the twisted
+ * extents of a particle's segment and of a leg. If those overlap, some point of
+ * the segment is within about sqrt(2) times (the buffer plus the segment's
+ * length) of the leg. The caller (ComputePFail.getCandidateLegs) bounds the
+ * particle's stored positions by a box with diagonal diagD. Every segment that
+ * it tests joins two points of that box, so its length is at most diagD, and it
+ * strays from the box by no more than the bulge of a great circle over diagD,
+ * which is far less than diagD. The caller widens its box by 3*diagD (plus a
+ * hair for round-off), which is more than sqrt(2)*diagD plus that bulge, and
+ * we widen the leg's extent by twice the buffer, which is more than
+ * sqrt(2)*buffer. So a leg whose extents could overlap a segment's, and hence
+ * any leg that could detect the particle, always touches a cell of the box.
+ */
+public class LegIndex {
+	final private static double _MaxAbsLat = 80d;
+	final private static double _MaxLngSpan = 90d;
+	final private static int _MaxNCellsPerSide = 64;
+
+	final private int _nLegs;
+	final private double _refLng;
+	final private double _minLat;
+	final private double _minRelLng;
+	final private double _cellLat;
+	final private double _cellLng;
+	final private int _nLatCells;
+	final private int _nLngCells;
+	/** For each cell, the ordinals of the legs whose jackets touch it. */
+	final private int[][] _cellToLegOrdinals;
+	/** For the stats. */
+	final private AtomicLong _nQueries;
+	final private AtomicLong _nLegsOffered;
+	final private AtomicLong _nLegsPruned;
+
+	private LegIndex(final int nLegs, final double refLng,
+			final double[] minLats, final double[] maxLats,
+			final double[] minRelLngs, final double[] maxRelLngs) {
+		_nLegs = nLegs;
+		_refLng = refLng;
+		double minLat = Double.POSITIVE_INFINITY;
+		double maxLat = Double.NEGATIVE_INFINITY;
+		double minRelLng = Double.POSITIVE_INFINITY;
+		double maxRelLng = Double.NEGATIVE_INFINITY;
+		for (int k = 0; k < nLegs; ++k) {
+			minLat = Math.min(minLat, minLats[k]);
+			maxLat = Math.max(maxLat, maxLats[k]);
+			minRelLng = Math.min(minRelLng, minRelLngs[k]);
+			maxRelLng = Math.max(maxRelLng, maxRelLngs[k]);
+		}
+		_minLat = minLat;
+		_minRelLng = minRelLng;
+		/** About one leg per cell along each side. */
+		final int nPerSide = Math.max(1,
+				Math.min(_MaxNCellsPerSide, (int) Math.ceil(Math.sqrt(nLegs))));
+		_nLatCells = nPerSide;
+		_nLngCells = nPerSide;
+		_cellLat = Math.max(1.0e-9, (maxLat - minLat) / _nLatCells);
+		_cellLng = Math.max(1.0e-9, (maxRelLng - minRelLng) / _nLngCells);
+		final List<List<Integer>> cellLists =
+				new ArrayList<>(_nLatCells * _nLngCells);
+		for (int k = 0; k < _nLatCells * _nLngCells; ++k) {
+			cellLists.add(new ArrayList<>());
+		}
+		for (int k = 0; k < nLegs; ++k) {
+			final int iLat0 = getLatCell(minLats[k]);
+			final int iLat1 = getLatCell(maxLats[k]);
+			final int iLng0 = getLngCell(minRelLngs[k]);
+			final int iLng1 = getLngCell(maxRelLngs[k]);
+			for (int iLat = iLat0; iLat <= iLat1; ++iLat) {
+				for (int iLng = iLng0; iLng <= iLng1; ++iLng) {
+					cellLists.get(iLat * _nLngCells + iLng).add(k);
+				}
+			}
+		}
+		_cellToLegOrdinals = new int[_nLatCells * _nLngCells][];
+		for (int k = 0; k < _nLatCells * _nLngCells; ++k) {
+			final List<Integer> cellList = cellLists.get(k);
+			final int nInCell = cellList.size();
+			final int[] legOrdinals = new int[nInCell];
+			for (int k1 = 0; k1 < nInCell; ++k1) {
+				legOrdinals[k1] = cellList.get(k1);
+			}
+			_cellToLegOrdinals[k] = legOrdinals;
+		}
+		_nQueries = new AtomicLong(0L);
+		_nLegsOffered = new AtomicLong(0L);
+		_nLegsPruned = new AtomicLong(0L);
+	}
+
+	/**
+	 * Returns null if the legs are not suitable for an index. bufferD is the
+	 * largest (over object types) of the buffers of the legs' twisted extents.
+	 */
+	static LegIndex build(final List<Sortie.Leg> legs, final double bufferD) {
+		final int nLegs = legs.size();
+		if (nLegs == 0 || !(bufferD >= 0d)) {
+			return null;
+		}
+		final double marginD = 2d * bufferD;
+		final Extent[] extents = new Extent[nLegs];
+		double refLng = Double.NaN;
+		for (int k = 0; k < nLegs; ++k) {
+			final GreatCircleArc gca = legs.get(k).getGca();
+			extents[k] = gca.createExtent();
+			if (k == 0) {
+				refLng = gca.getLatLng0().getLng();
+			}
+		}
+		final double[] minLats = new double[nLegs];
+		final double[] maxLats = new double[nLegs];
+		final double[] minRelLngs = new double[nLegs];
+		final double[] maxRelLngs = new double[nLegs];
+		for (int k = 0; k < nLegs; ++k) {
+			final Extent extent = extents[k];
+			minLats[k] = extent.getMinLat() - marginD;
+			maxLats[k] = extent.getMaxLat() + marginD;
+			if (Math.abs(minLats[k]) > _MaxAbsLat ||
+					Math.abs(maxLats[k]) > _MaxAbsLat) {
+				return null;
+			}
+			final double maxAbsLat =
+					Math.max(Math.abs(minLats[k]), Math.abs(maxLats[k]));
+			final double lngMarginD =
+					marginD / Math.cos(Math.toRadians(maxAbsLat));
+			final double relLeftLng =
+					LatLng3.getInRange180_180(extent.getLeftLng() - refLng);
+			final double lngWidth0 = LatLng3
+					.getInRange180_180(extent.getRightLng() - extent.getLeftLng());
+			final double lngWidth = lngWidth0 < 0d ? lngWidth0 + 360d : lngWidth0;
+			minRelLngs[k] = relLeftLng - lngMarginD;
+			maxRelLngs[k] = relLeftLng + lngWidth + lngMarginD;
+			if (minRelLngs[k] < -_MaxLngSpan || maxRelLngs[k] > _MaxLngSpan) {
+				return null;
+			}
+		}
+		return new LegIndex(nLegs, refLng, minLats, maxLats, minRelLngs,
+				maxRelLngs);
+	}
+
+	private int getLatCell(final double lat) {
+		final int iLat = (int) Math.floor((lat - _minLat) / _cellLat);
+		return Math.max(0, Math.min(_nLatCells - 1, iLat));
+	}
+
+	private int getLngCell(final double relLng) {
+		final int iLng = (int) Math.floor((relLng - _minRelLng) / _cellLng);
+		return Math.max(0, Math.min(_nLngCells - 1, iLng));
+	}
+
+	/**
+	 * The longitude that the caller should subtract (and then bring into
+	 * [-180,180)) before calling getCandidates.
+	 */
+	public double getRefLng() {
+		return _refLng;
+	}
+
+	/**
+	 * Returns, indexed by Leg.getEdgeNumber, which legs might be reached by a
+	 * particle that stays within the given box. The box must already be widened
+	 * as in the class comment (getCandidateLegs uses 3*diagD). Returns null
+	 * (meaning "all of them") if the box is unusable.
+	 */
+	public boolean[] getCandidates(final double minLat, final double maxLat,
+			final double minRelLng, final double maxRelLng) {
+		_nQueries.incrementAndGet();
+		_nLegsOffered.addAndGet(_nLegs);
+		if (!(minLat <= maxLat) || !(minRelLng <= maxRelLng) ||
+				Math.abs(minLat) > _MaxAbsLat || Math.abs(maxLat) > _MaxAbsLat ||
+				minRelLng < -_MaxLngSpan || maxRelLng > _MaxLngSpan) {
+			return null;
+		}
+		final boolean[] candidates = new boolean[_nLegs];
+		final double topLat = _minLat + _nLatCells * _cellLat;
+		final double topRelLng = _minRelLng + _nLngCells * _cellLng;
+		if (maxLat < _minLat || minLat > topLat || maxRelLng < _minRelLng ||
+				minRelLng > topRelLng) {
+			_nLegsPruned.addAndGet(_nLegs);
+			return candidates;
+		}
+		final int iLat0 = getLatCell(minLat);
+		final int iLat1 = getLatCell(maxLat);
+		final int iLng0 = getLngCell(minRelLng);
+		final int iLng1 = getLngCell(maxRelLng);
+		int nCandidates = 0;
+		for (int iLat = iLat0; iLat <= iLat1; ++iLat) {
+			for (int iLng = iLng0; iLng <= iLng1; ++iLng) {
+				for (final int legOrdinal : _cellToLegOrdinals[iLat * _nLngCells +
+						iLng]) {
+					if (!candidates[legOrdinal]) {
+						candidates[legOrdinal] = true;
+						++nCandidates;
+					}
+				}
+			}
+		}
+		_nLegsPruned.addAndGet(_nLegs - nCandidates);
+		return candidates;
+	}
+
+	public long getNQueries() {
+		return _nQueries.get();
+	}
+
+	public long getNLegsOffered() {
+		return _nLegsOffered.get();
+	}
+
+	public long getNLegsPruned() {
+		return _nLegsPruned.get();
+	}
+
+	public String getStatsString() {
+		final long nLegsOffered = _nLegsOffered.get();
+		final long nLegsPruned = _nLegsPruned.get();
+		final double prunedRate =
+				nLegsOffered == 0 ? 0d : (double) nLegsPruned / nLegsOffered;
+		return String.format(
+				"LegIndex: nLegs[%d] Cells[%dx%d] nQueries[%d] nLegsOffered[%d] nLegsPruned[%d] PrunedRate[%.3f]",
+				_nLegs, _nLatCells, _nLngCells, _nQueries.get(), nLegsOffered,
+				nLegsPruned, prunedRate);
+	}
+}
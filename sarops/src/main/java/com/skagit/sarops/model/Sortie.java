@@ -14,6 +14,7 @@ import org.apache.poi.ss.usermodel.Workbook;
 
 import com.skagit.sarops.computePFail.DetectValues;
 import com.skagit.sarops.model.io.ModelReader;
+import com.skagit.sarops.simCaseManager.SimCaseManager;
 import com.skagit.sarops.tracker.lrcSet.LateralRangeCurve;
 import com.skagit.sarops.tracker.lrcSet.Logit;
 import com.skagit.sarops.tracker.lrcSet.LrcSet;
@@ -55,6 +56,8 @@ public class Sortie implements Comparable<Sortie> {
 	private PsCsInfo _psCsInfo;
 	private VsInfo _vsInfo;
 	private SsInfo _ssInfo;
+	/** Null if there are no legs or they are not suitable for an index. */
+	private LegIndex _legIndex;
 
 	public Sortie(final Model model, final String id, final String name, final MotionType motionType,
 			final double creepHdgIn, final double tsNmiIn, final double tsNmiForSingleLeg) {
@@ -72,6 +75,7 @@ public class Sortie implements Comparable<Sortie> {
 		_psCsInfo = null;
 		_vsInfo = null;
 		_ssInfo = null;
+		_legIndex = null;
 		_pFailTypeToLegList = new TreeMap<>();
 	}
 
@@ -315,16 +319,17 @@ public class Sortie implements Comparable<Sortie> {
 			return _legType;
 		}
 
-		public Object getEdgeNumber() {
+		public int getEdgeNumber() {
 			return _edgeNumber;
 		}
 	}
 
 	/**
 	 * Fills in sortie's start and end, as well as its legs' twisted extents and its
-	 * legs' LegTypes.
+	 * legs' LegTypes. simCase may be null, in which case we use the global
+	 * settings.
 	 */
-	public void fillInSortieDataFromDistinctInputLegs() {
+	public void fillInSortieDataFromDistinctInputLegs(final SimCaseManager.SimCase simCase) {
 		if (isAreaSortie()) {
 			return;
 		}
@@ -370,6 +375,7 @@ public class Sortie implements Comparable<Sortie> {
 						}
 					}
 					/** This sortie's legs will have extents for each LrcSet. */
+					double maxBufferD = 0d;
 					for (final Leg leg : _distinctInputLegs) {
 						leg._twExtents.clear();
 						for (final Map.Entry<Integer, LrcSet> entry : _viz1LrcSets.entrySet()) {
@@ -382,6 +388,7 @@ public class Sortie implements Comparable<Sortie> {
 							final double bufferNmi = lrcSet.getSweepWidth() * _LegJacketSweepWidthMultiplier;
 							final double bufferR = bufferNmi * _NmiToR;
 							final double bufferD = Math.toDegrees(bufferR);
+							maxBufferD = Math.max(maxBufferD, bufferD);
 							final double w = -bufferD;
 							final double e = leg._lengthD + bufferD;
 							final double s = -bufferD;
@@ -402,6 +409,9 @@ public class Sortie implements Comparable<Sortie> {
 							leg._legType = LegType.GENERIC;
 						}
 					}
+					if (SimCaseManager.getSimGlobalStrings(simCase).getUseLegIndex()) {
+						_legIndex = LegIndex.build(_distinctInputLegs, maxBufferD);
+					}
 				}
 			}
 		}
@@ -410,6 +420,13 @@ public class Sortie implements Comparable<Sortie> {
 		}
 	}
 
+	/**
+	 * Null means that there is no index, and every leg must be considered.
+	 */
+	public LegIndex getLegIndex() {
+		return _legIndex;
+	}
+
 	public Extent getBoundingExtent() {
 		Extent extent = Extent.getUnsetExtent();
 		for (final Leg leg : _distinctInputLegs) {
@@ -1239,7 +1239,7 @@ public class ModelReader {
 				AnnounceIgnoreTag(simCase, childTag);
 			}
 		}
-		sortie.fillInSortieDataFromDistinctInputLegs();
+		sortie.fillInSortieDataFromDistinctInputLegs(simCase);
 		if (addToModel) {
 			model.add(sortie);
 		}
@@ -281,7 +281,14 @@ public class ParticlesManager {
 
 	public ParticleIndexes.ParticleIndexesState computePrtclIndxsState(final ParticleIndexes prtclIndxs,
 			final long refSecs) {
-		final LatLng3 latLng = _particlesFile.getLatLng(refSecs, prtclIndxs);
+		return computePrtclIndxsState(prtclIndxs, _particlesFile.getTimeBracket(refSecs));
+	}
+
+	/** For loops over many particles at one time; build timeBracket once. */
+	public ParticleIndexes.ParticleIndexesState computePrtclIndxsState(final ParticleIndexes prtclIndxs,
+			final ParticlesFile.TimeBracket timeBracket) {
+		final long refSecs = timeBracket.getRefSecs();
+		final LatLng3 latLng = _particlesFile.getLatLng(timeBracket, prtclIndxs);
 		if (latLng == null) {
 			return null;
 		}
@@ -902,10 +909,14 @@ public class ParticlesManager {
 	}
 
 	public LatLng3 getPosition(final long refSecs, final ParticleIndexes prtclIndxs) {
-		final LatLng3 latLng = _particlesFile.getLatLng(refSecs, prtclIndxs);
+		final LatLng3 latLng = _particlesFile.getLatLng(_particlesFile.getTimeBracket(refSecs), prtclIndxs);
 		return latLng;
 	}
 
+	public ParticlesFile.TimeBracket getTimeBracket(final long refSecs) {
+		return _particlesFile.getTimeBracket(refSecs);
+	}
+
 	public int getObjectType(final long refSecs, final ParticleIndexes prtclIndxs) {
 		return _particlesFile.getSotId(refSecs, prtclIndxs);
 	}
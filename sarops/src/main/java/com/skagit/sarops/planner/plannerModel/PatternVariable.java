@@ -670,7 +670,7 @@ public class PatternVariable {
 			sortie.setViz1LrcSets(_viz1LrcSets);
 			sortie.setViz2LrcSets(_viz2LrcSets);
 		}
-		sortie.fillInSortieDataFromDistinctInputLegs();
+		sortie.fillInSortieDataFromDistinctInputLegs(_plannerModel.getSimCase());
 		return sortie;
 	}
 }
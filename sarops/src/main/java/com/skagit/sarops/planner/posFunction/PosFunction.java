@@ -1,5 +1,6 @@
 package com.skagit.sarops.planner.posFunction;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.TreeMap;
@@ -223,13 +224,158 @@ public class PosFunction {
 		return _evalType.toString();
 	}
 
+	/** For PosDelta.getChangedGrandOrd. */
+	final private static int _NoChange = -1;
+	final private static int _TooManyChanges = -2;
+
+	/**
+	 * What it takes to score a perturbation of basePlus that changes a single
+	 * PatternVariable without going back to the PFailsCache for the others:
+	 * for each of the particles that basePlus's evaluation used, each
+	 * contributing PatternVariable's pFail and (built on demand) the product
+	 * of the other ones' pFails. Immutable but for that on-demand part, so it
+	 * can be shared by the workers.
+	 */
+	public static class PosDelta {
+		final private PosFunction _posFunction;
+		/** By grandOrd; null for those that contribute nothing. */
+		final private PvValue[] _basePvValues;
+		/** By grandOrd, then particle; null for those that contribute nothing. */
+		final private double[][] _basePFails;
+		/** By particle; the product of all of them, in grandOrd order. */
+		final private double[] _baseProducts;
+		final private double[][] _othersProducts;
+		final private int _nBase;
+
+		private PosDelta(final PosFunction posFunction,
+				final PvValue[] basePvValues, final double[][] basePFails,
+				final double[] baseProducts, final int nBase) {
+			_posFunction = posFunction;
+			_basePvValues = basePvValues;
+			_basePFails = basePFails;
+			_baseProducts = baseProducts;
+			_othersProducts = new double[basePvValues.length][];
+			_nBase = nBase;
+		}
+
+		public PosFunction getPosFunction() {
+			return _posFunction;
+		}
+
+		/**
+		 * The grandOrd in which plus differs from the base, _NoChange if it
+		 * does not, and _TooManyChanges if it differs in more than one.
+		 */
+		private int getChangedGrandOrd(final PvValueArrayPlus plus) {
+			final int nPttrnVbls = _basePvValues.length;
+			int changedGrandOrd = _NoChange;
+			for (int grandOrd = 0; grandOrd < nPttrnVbls; ++grandOrd) {
+				final PvValue pvValue = plus.getPvValue(grandOrd);
+				final PvValue myPvValue =
+						_posFunction.contributesNothing(pvValue) ? null : pvValue;
+				if (myPvValue == _basePvValues[grandOrd]) {
+					continue;
+				}
+				if (changedGrandOrd != _NoChange) {
+					return _TooManyChanges;
+				}
+				changedGrandOrd = grandOrd;
+			}
+			return changedGrandOrd;
+		}
+
+		/** The product, over all but grandOrd, of the base's pFails. */
+		private synchronized double[] getOthersProducts(final int grandOrd) {
+			if (_basePFails[grandOrd] == null) {
+				return _baseProducts;
+			}
+			double[] othersProducts = _othersProducts[grandOrd];
+			if (othersProducts == null) {
+				othersProducts = new double[_nBase];
+				Arrays.fill(othersProducts, 1d);
+				final int nPttrnVbls = _basePFails.length;
+				for (int grandOrd1 = 0; grandOrd1 < nPttrnVbls; ++grandOrd1) {
+					final double[] pFails1 = _basePFails[grandOrd1];
+					if (grandOrd1 == grandOrd || pFails1 == null) {
+						continue;
+					}
+					for (int k = 0; k < _nBase; ++k) {
+						othersProducts[k] *= pFails1[k];
+					}
+				}
+				_othersProducts[grandOrd] = othersProducts;
+			}
+			return othersProducts;
+		}
+	}
+
+	/**
+	 * Returns null if we're being shut down or basePlus has no evaluation.
+	 * Costs about as much as evaluating basePlus afresh, so it pays only if
+	 * several perturbations of basePlus are to be scored.
+	 */
+	public PosDelta buildPosDelta(final PvValueArrayPlus basePlus) {
+		final PosEvaluation baseEval = basePlus.getPosEval(this);
+		if (baseEval == null) {
+			return null;
+		}
+		final PlannerModel plannerModel = _planner.getPlannerModel();
+		final int nPttrnVbls = plannerModel.getNPttrnVbls();
+		final DetectValues.PFailType pFailType = _evalType._pFailType;
+		final int nBase = baseEval._nUsedOfArray;
+		final PvValue[] basePvValues = new PvValue[nPttrnVbls];
+		final double[][] basePFails = new double[nPttrnVbls][];
+		final double[] baseProducts = new double[nBase];
+		Arrays.fill(baseProducts, 1d);
+		final PFailsCache pFailsCache = _planner.getPFailsCache();
+		for (int grandOrd = 0; grandOrd < nPttrnVbls; ++grandOrd) {
+			final PvValue pvValue = basePlus.getPvValue(grandOrd);
+			if (contributesNothing(pvValue)) {
+				continue;
+			}
+			final DetectValues[] detectValuesArray =
+					pFailsCache.getDetectValuesArray(_planner, _evalType._useViz2,
+							pFailType, _prtclIndxsS, 0, nBase, pvValue);
+			if (detectValuesArray == null) {
+				return null;
+			}
+			final double[] pFails = new double[nBase];
+			for (int k = 0; k < nBase; ++k) {
+				final DetectValues detectValues = detectValuesArray[k];
+				pFails[k] =
+						detectValues == null ? 1d : detectValues.getPFail(pFailType);
+				baseProducts[k] *= pFails[k];
+			}
+			basePvValues[grandOrd] = pvValue;
+			basePFails[grandOrd] = pFails;
+		}
+		return new PosDelta(this, basePvValues, basePFails, baseProducts,
+				nBase);
+	}
+
 	public PosEvaluation computeEvaluation(final PvValueArrayPlus plus) {
+		return computeEvaluation(plus, /* posDelta= */null);
+	}
+
+	/**
+	 * If posDelta is not null and plus differs from posDelta's base in at
+	 * most one PatternVariable, the particles that the base used get their
+	 * pFails from posDelta, which costs one PFailsCache lookup and one
+	 * multiply per particle. Those pFails can differ from the ones we'd
+	 * compute afresh in the last bit, since the factors are multiplied in a
+	 * different order. Sampling proceeds exactly as it would otherwise.
+	 */
+	public PosEvaluation computeEvaluation(final PvValueArrayPlus plus,
+			final PosDelta posDelta) {
 		final PlannerModel plannerModel = _planner.getPlannerModel();
 		final int nPttrnVbls = plannerModel.getNPttrnVbls();
 		final SimCaseManager.SimCase simCase = _planner.getSimCase();
 		if (!simCase.getKeepGoing()) {
 			return null;
 		}
+		final int changedGrandOrd = posDelta == null ||
+				posDelta._posFunction != this ? _TooManyChanges :
+						posDelta.getChangedGrandOrd(plus);
 		final ParticlesManager particlesManager =
 				_planner.getParticlesManager();
 
@@ -279,39 +425,16 @@ public class PosFunction {
 			 * Update the pFail computations to newN. The only time we're
 			 * interested in all of the LRCs is CompleteFlyThroughAll.
 			 */
-			final DetectValues[][] detectValuesArrays =
-					getDetectValuesArrays(nDone, nToDo, _prtclIndxsS, plus);
+			final double[] pFails = new double[nToDo - nDone];
+			if (changedGrandOrd == _TooManyChanges) {
+				multiplyInPFails(nDone, nToDo, plus, pFails);
+			} else {
+				fillInPFails(nDone, nToDo, plus, posDelta, changedGrandOrd,
+						pFails);
+			}
 			/** Add in the new pos values and their squares. */
 			for (int k = nDone; k < nToDo; ++k) {
-				double pFail = 1d;
-				for (int grandOrd = 0; grandOrd < nPttrnVbls; ++grandOrd) {
-					final DetectValues detectValues;
-					if (detectValuesArrays == null) {
-						detectValues = null;
-					} else if (detectValuesArrays[grandOrd] == null) {
-						detectValues = null;
-					} else if (detectValuesArrays[grandOrd][k - nDone] == null) {
-						detectValues = null;
-					} else {
-						detectValues = detectValuesArrays[grandOrd][k - nDone];
-					}
-					final double thisPFail;
-					if (detectValues == null) {
-						if (simCase.getKeepGoing()) {
-							final String message = String.format(
-									"Null detectValues: k[%d] nDone[%d] " +
-											"nToDo[%d] iPv[%d] nPttrnVbls[%d]",
-									k, nDone, nToDo, grandOrd, nPttrnVbls);
-							SimCaseManager.err(simCase, message);
-							new Exception().printStackTrace();
-						}
-						thisPFail = 1d;
-					} else {
-						thisPFail = detectValues.getPFail(_evalType._pFailType);
-					}
-					pFail *= thisPFail;
-				}
-				final double thisPos = 1d - pFail;
+				final double thisPos = 1d - pFails[k - nDone];
 				final double thisWt = _priors[k];
 				weightedPairReDataAcc.add(/* u= */thisPos, /* v= */0d, thisWt);
 			}
@@ -329,6 +452,122 @@ public class PosFunction {
 		return evaluation;
 	}
 
+	/**
+	 * Sets pFails[k - currentN], for k in [currentN, newN), to the product of
+	 * particle k's pFails over the PatternVariables, working one
+	 * PatternVariable at a time over a flat array. The factors are multiplied in
+	 * grandOrd order, as they always have been. PatternVariables that contribute
+	 * nothing would only contribute DetectValues.getEmpty(), whose pFails are
+	 * exactly 1, so we skip them instead of building arrays of empties.
+	 */
+	private void multiplyInPFails(final int currentN, final int newN,
+			final PvValueArrayPlus plus, final double[] pFails) {
+		final PlannerModel plannerModel = _planner.getPlannerModel();
+		final int nPttrnVbls = plannerModel.getNPttrnVbls();
+		final SimCaseManager.SimCase simCase = _planner.getSimCase();
+		final DetectValues.PFailType pFailType = _evalType._pFailType;
+		final int nOfInterest = newN - currentN;
+		Arrays.fill(pFails, 0, nOfInterest, 1d);
+		final PFailsCache pFailsCache = _planner.getPFailsCache();
+		for (int grandOrd = 0; grandOrd < nPttrnVbls; ++grandOrd) {
+			final PvValue pvValue = plus.getPvValue(grandOrd);
+			if (contributesNothing(pvValue)) {
+				continue;
+			}
+			final DetectValues[] detectValuesArray =
+					pFailsCache.getDetectValuesArray(_planner, _evalType._useViz2,
+							pFailType, _prtclIndxsS, currentN, newN, pvValue);
+			if (detectValuesArray == null) {
+				/** We're being shut down; treat it all as pFail = 1. */
+				if (simCase.getKeepGoing()) {
+					final String message = String.format(
+							"Null detectValues: nDone[%d] nToDo[%d] iPv[%d] nPttrnVbls[%d]",
+							currentN, newN, grandOrd, nPttrnVbls);
+					SimCaseManager.err(simCase, message);
+					new Exception().printStackTrace();
+				}
+				Arrays.fill(pFails, 0, nOfInterest, 1d);
+				return;
+			}
+			for (int k = 0; k < nOfInterest; ++k) {
+				final DetectValues detectValues = detectValuesArray[k];
+				if (detectValues != null) {
+					pFails[k] *= detectValues.getPFail(pFailType);
+				} else if (simCase.getKeepGoing()) {
+					final String message = String.format(
+							"Null detectValues: k[%d] nDone[%d] " +
+									"nToDo[%d] iPv[%d] nPttrnVbls[%d]",
+							currentN + k, currentN, newN, grandOrd, nPttrnVbls);
+					SimCaseManager.err(simCase, message);
+				}
+			}
+		}
+	}
+
+	/**
+	 * multiplyInPFails, but for the particles below posDelta._nBase, taking
+	 * the other PatternVariables' product from posDelta.
+	 */
+	private void fillInPFails(final int currentN, final int newN,
+			final PvValueArrayPlus plus, final PosDelta posDelta,
+			final int changedGrandOrd, final double[] pFails) {
+		final int nFromDelta =
+				Math.max(0, Math.min(newN, posDelta._nBase) - currentN);
+		if (nFromDelta < newN - currentN) {
+			/** Particles that the base never got to. */
+			final int fullN0 = currentN + nFromDelta;
+			final double[] fullPFails = new double[newN - fullN0];
+			multiplyInPFails(fullN0, newN, plus, fullPFails);
+			System.arraycopy(fullPFails, 0, pFails, nFromDelta,
+					fullPFails.length);
+		}
+		if (nFromDelta == 0) {
+			return;
+		}
+		final int deltaN = currentN + nFromDelta;
+		if (changedGrandOrd == _NoChange) {
+			System.arraycopy(posDelta._baseProducts, currentN, pFails, 0,
+					nFromDelta);
+			return;
+		}
+		final double[] othersProducts =
+				posDelta.getOthersProducts(changedGrandOrd);
+		System.arraycopy(othersProducts, currentN, pFails, 0, nFromDelta);
+		final PvValue pvValue = plus.getPvValue(changedGrandOrd);
+		if (contributesNothing(pvValue)) {
+			return;
+		}
+		final SimCaseManager.SimCase simCase = _planner.getSimCase();
+		final DetectValues.PFailType pFailType = _evalType._pFailType;
+		final PFailsCache pFailsCache = _planner.getPFailsCache();
+		final DetectValues[] detectValuesArray =
+				pFailsCache.getDetectValuesArray(_planner, _evalType._useViz2,
+						pFailType, _prtclIndxsS, currentN, deltaN, pvValue);
+		if (detectValuesArray == null) {
+			/** We're being shut down; treat it all as pFail = 1. */
+			Arrays.fill(pFails, 0, newN - currentN, 1d);
+			return;
+		}
+		for (int k = 0; k < nFromDelta; ++k) {
+			final DetectValues detectValues = detectValuesArray[k];
+			if (detectValues != null) {
+				pFails[k] *= detectValues.getPFail(pFailType);
+			} else if (simCase.getKeepGoing()) {
+				final String message = String.format(
+						"Null detectValues: k[%d] nDone[%d] nToDo[%d] iPv[%d]",
+						currentN + k, currentN, newN, changedGrandOrd);
+				SimCaseManager.err(simCase, message);
+			}
+		}
+	}
+
+	private boolean contributesNothing(final PvValue pvValue) {
+		final PatternVariable pv = pvValue == null ? null : pvValue.getPv();
+		return pv == null ||
+				(_evalType._useViz2 && pv.getPermanentFrozenPvValue() != null) ||
+				pvValue.onMars() || !pv.isActive();
+	}
+
 	public DetectValues[][] getDetectValuesArrays(final int currentN,
 			final int newN, final ParticleIndexes[] particleIndexesWeUse,
 			final PvValueArrayPlus plus) {
@@ -340,15 +579,9 @@ public class PosFunction {
 		for (int grandOrd = 0; grandOrd < nPttrnVbls; ++grandOrd) {
 			/** Fill in emptyArray if it's null and we need it. */
 			final PvValue pvValue = plus.getPvValue(grandOrd);
-			final PatternVariable pv = pvValue == null ? null : pvValue.getPv();
-			final boolean useEmptyArray = pv == null ||
-					(_evalType._useViz2 && pv.getPermanentFrozenPvValue() != null) ||
-					pvValue.onMars() || !pv.isActive();
-			if (useEmptyArray) {
+			if (contributesNothing(pvValue)) {
 				final DetectValues[] emptyArray = new DetectValues[nOfInterest];
-				for (int k1 = currentN; k1 < newN; ++k1) {
-					emptyArray[k1 - currentN] = DetectValues.getEmpty();
-				}
+				Arrays.fill(emptyArray, DetectValues.getEmpty());
 				detectValuesArrays[grandOrd] = emptyArray;
 				continue;
 			}
@@ -363,7 +363,7 @@ public class PvValue implements Comparable<PvValue> {
 			 */
 			_sortie.setViz1LrcSets(_pv.getViz1LrcSets());
 			_sortie.setViz2LrcSets(_pv.getViz2LrcSets());
-			_sortie.fillInSortieDataFromDistinctInputLegs();
+			_sortie.fillInSortieDataFromDistinctInputLegs(simCase);
 			final PsCsInfo psCsInfo = _sortie.getPsCsInfo();
 			final SsInfo ssInfo = _sortie.getSsInfo();
 			final VsInfo vsInfo = _sortie.getVsInfo();
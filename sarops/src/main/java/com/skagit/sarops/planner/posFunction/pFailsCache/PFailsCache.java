@@ -1,23 +1,58 @@
 package com.skagit.sarops.planner.posFunction.pFailsCache;
 
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
 import com.skagit.sarops.computePFail.DetectValues;
 import com.skagit.sarops.planner.ParticlesManager;
 import com.skagit.sarops.planner.Planner;
 import com.skagit.sarops.planner.posFunction.PvValue;
 import com.skagit.sarops.simCaseManager.SimCaseManager;
 import com.skagit.sarops.tracker.ParticleIndexes;
-import com.skagit.util.Cache;
 
+/**
+ * Maps PvValues (by deepCompareTo) to the PvValueBoxes that hold their
+ * DetectValues. Nothing here takes a lock. A miss puts a FutureTask for its box
+ * into the ConcurrentSkipListMap with putIfAbsent; only the winner runs it, so
+ * each box is built once, and anyone else who wants it waits on that task.
+ * Eviction is approximately LRU, by the clock (second chance) rule: a hit
+ * marks its box, and a marked box is passed over once before it goes. Several
+ * callers can fill in the same PvValueBox at once; see
+ * PvValueBox.getDetectValuesArray. The counters are per PFailsCache, and hence
+ * per Planner.
+ */
 public class PFailsCache {
-	public static int _NRealBuildsCalled = 0;
-	public static int _NSuccessfulLookups = 0;
 	final private ParticlesManager _particlesManager;
-	final private Cache<PvValueBox> _cache;
+	final private SimCaseManager.SimCase _simCase;
+	final private int _cacheSize;
+	final private ConcurrentSkipListMap<PvValueBox, FutureTask<PvValueBox>> _cache;
+	/** The built boxes, oldest first, for the clock. */
+	final private ConcurrentLinkedQueue<PvValueBox> _clock;
+	/** _cache's size; ConcurrentSkipListMap.size() walks the map. */
+	final private AtomicInteger _nBoxes;
+	final private AtomicLong _nHits;
+	final private AtomicLong _nMisses;
+	final private AtomicLong _nEvictions;
+	/** Time spent filling in DetectValues. */
+	final private AtomicLong _fillNanos;
 
 	public PFailsCache(final ParticlesManager particlesManager,
 			final SimCaseManager.SimCase simCase, final int cacheSize) {
 		_particlesManager = particlesManager;
-		_cache = new Cache<>(PvValueBox._PvValueBoxComparator, cacheSize);
+		_simCase = simCase;
+		_cacheSize = Math.max(1, cacheSize);
+		_cache = new ConcurrentSkipListMap<>(PvValueBox._PvValueBoxComparator);
+		_clock = new ConcurrentLinkedQueue<>();
+		_nBoxes = new AtomicInteger(0);
+		_nHits = new AtomicLong(0L);
+		_nMisses = new AtomicLong(0L);
+		_nEvictions = new AtomicLong(0L);
+		_fillNanos = new AtomicLong(0L);
 	}
 
 	public DetectValues[] getDetectValuesArray(final Planner planner,
@@ -30,34 +65,113 @@ public class PFailsCache {
 		 */
 		final PvValueBox forLookUp =
 				new PvValueBox(planner, pvValue, /* forLookUpOnly= */true);
-		PvValueBox pvValueBox = null;
-		synchronized (_cache) {
-			pvValueBox = _cache.get(forLookUp);
-			if (pvValueBox == null) {
-				pvValueBox =
-						new PvValueBox(planner, pvValue, /* forLookUpOnly= */false);
-				_cache.put(pvValueBox);
-				if (++_NRealBuildsCalled % 100 == 0) {
-					SimCaseManager.out(simCase, "Built " + _NRealBuildsCalled + ".");
+		final PvValueBox pvValueBox;
+		final FutureTask<PvValueBox> task = _cache.get(forLookUp);
+		if (task != null) {
+			pvValueBox = getBox(task);
+			_nHits.incrementAndGet();
+		} else {
+			final FutureTask<PvValueBox> newTask =
+					new FutureTask<>(new Callable<PvValueBox>() {
+						@Override
+						public PvValueBox call() {
+							return new PvValueBox(planner, pvValue,
+									/* forLookUpOnly= */false);
+						}
+					});
+			final FutureTask<PvValueBox> incumbent =
+					_cache.putIfAbsent(forLookUp, newTask);
+			if (incumbent == null) {
+				newTask.run();
+				pvValueBox = getBox(newTask);
+				_clock.add(pvValueBox);
+				_nBoxes.incrementAndGet();
+				final long nMisses = _nMisses.incrementAndGet();
+				if (nMisses % 100 == 0) {
+					SimCaseManager.out(simCase, getStatsString());
 				}
+				evictIfNecessary();
 			} else {
-				if (++_NSuccessfulLookups % 10000 == 0) {
-					SimCaseManager.out(simCase,
-							"Looked up " + _NSuccessfulLookups + ".");
-				}
+				/** Someone beat us to it; use theirs. */
+				pvValueBox = getBox(incumbent);
+				_nHits.incrementAndGet();
 			}
 		}
-		synchronized (pvValueBox) {
-			final DetectValues[] returnValue =
-					pvValueBox.getDetectValuesArray(_particlesManager, forOptnOnly,
-							pFailType, prtclIndxsS, currentN, newN);
-			return returnValue;
+		pvValueBox.markReferenced();
+		final long startNanos = System.nanoTime();
+		/**
+		 * No lock on the box here; it hands out its particles to its callers
+		 * itself, and callers wait on each other rather than recompute.
+		 */
+		final DetectValues[] returnValue =
+				pvValueBox.getDetectValuesArray(_particlesManager, forOptnOnly,
+						pFailType, prtclIndxsS, currentN, newN);
+		_fillNanos.addAndGet(System.nanoTime() - startNanos);
+		return returnValue;
+	}
+
+	private static PvValueBox getBox(final FutureTask<PvValueBox> task) {
+		try {
+			return task.get();
+		} catch (final InterruptedException | ExecutionException e) {
+			throw new RuntimeException(e);
 		}
 	}
 
-	public void clear() {
-		synchronized (_cache) {
-			_cache.clear();
+	/**
+	 * Drops boxes until we are back to _cacheSize, passing over (and unmarking)
+	 * the ones that have been used since we last came around to them. Anyone
+	 * still holding a dropped box can finish with it; it simply won't be found
+	 * again. We give up after two trips around, in case hits keep re-marking.
+	 */
+	private void evictIfNecessary() {
+		int nTries = 2 * _cacheSize + 2;
+		while (_nBoxes.get() > _cacheSize && nTries-- > 0) {
+			final PvValueBox victim = _clock.poll();
+			if (victim == null) {
+				return;
+			}
+			if (victim.clearReferenced()) {
+				_clock.add(victim);
+				continue;
+			}
+			if (_cache.remove(victim) != null) {
+				_nBoxes.decrementAndGet();
+				_nEvictions.incrementAndGet();
+			}
 		}
 	}
+
+	public long getNHits() {
+		return _nHits.get();
+	}
+
+	public long getNMisses() {
+		return _nMisses.get();
+	}
+
+	public long getNEvictions() {
+		return _nEvictions.get();
+	}
+
+	public long getFillMs() {
+		return _fillNanos.get() / 1000000L;
+	}
+
+	public String getStatsString() {
+		final long nHits = _nHits.get();
+		final long nMisses = _nMisses.get();
+		final long nLookUps = nHits + nMisses;
+		final double hitRate = nLookUps == 0 ? 0d : (double) nHits / nLookUps;
+		return String.format(
+				"PFailsCache: nHits[%d] nMisses[%d] HitRate[%.3f] nEvictions[%d] FillMs[%d]",
+				nHits, nMisses, hitRate, _nEvictions.get(), getFillMs());
+	}
+
+	public void clear() {
+		SimCaseManager.out(_simCase, getStatsString());
+		_cache.clear();
+		_clock.clear();
+		_nBoxes.set(0);
+	}
 }
@@ -1,12 +1,12 @@
 package com.skagit.sarops.planner.posFunction.pFailsCache;
 
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicReference;
 
 import com.skagit.sarops.computePFail.ComputePFail;
 import com.skagit.sarops.computePFail.DetectValues;
@@ -36,7 +36,16 @@ class PvValueBox {
 
 	final private Planner _planner;
 	final private PvValue _pvValue;
-	final private HashMap<ParticleIndexes, DetectValues> _particleIndexesToDetectValues;
+	/**
+	 * A published DetectValues is never changed; a computation builds a new one
+	 * and sets it into the slot. So a reader who gets a DetectValues from its
+	 * slot sees all of it, with or without our lock. The map is guarded by this.
+	 */
+	final private HashMap<ParticleIndexes, AtomicReference<DetectValues>> _particleIndexesToDetectValues;
+	/** Who is computing which particles' DetectValues; guarded by this. */
+	final private HashMap<ParticleIndexes, FutureTask<Void>> _claims;
+	/** For PFailsCache's clock; set by a hit, cleared as the clock passes. */
+	private volatile boolean _referenced;
 
 	PvValueBox(final Planner planner, final PvValue pvValue,
 			final boolean forLookUpOnly) {
@@ -44,11 +53,26 @@ class PvValueBox {
 		_pvValue = pvValue;
 		if (forLookUpOnly) {
 			_particleIndexesToDetectValues = null;
+			_claims = null;
 		} else {
 			_particleIndexesToDetectValues = new HashMap<>();
+			_claims = new HashMap<>();
 		}
 	}
 
+	void markReferenced() {
+		if (!_referenced) {
+			_referenced = true;
+		}
+	}
+
+	/** Returns whether it was marked. */
+	boolean clearReferenced() {
+		final boolean referenced = _referenced;
+		_referenced = false;
+		return referenced;
+	}
+
 	PvValue getPvValue() {
 		return _pvValue;
 	}
@@ -83,6 +107,13 @@ class PvValueBox {
 		return getString();
 	}
 
+	/**
+	 * Returns the DetectValues for prtclIndxsS[currentN..newN), computing any
+	 * whose pFail of pFailType is not yet known. Several callers may be in here at
+	 * once. Each claims the particles that no one else is computing, computes
+	 * them across the workers, and waits on the claims of others for the rest,
+	 * rather than computing them again.
+	 */
 	DetectValues[] getDetectValuesArray(
 			final ParticlesManager particlesManager, final boolean forOptnOnly,
 			final DetectValues.PFailType pFailType,
@@ -101,109 +132,140 @@ class PvValueBox {
 			Arrays.fill(detectValuesArray, DetectValues.getEmpty());
 			return detectValuesArray;
 		}
-
-		/** Build a HashSet of things to compute. */
-		final HashSet<ParticleIndexes> toComputeHashSet = new HashSet<>();
-		for (int k = currentN; k < newN; ++k) {
-			final ParticleIndexes prtclIndxs = prtclIndxsS[k];
-			DetectValues detectValues =
-					_particleIndexesToDetectValues.get(prtclIndxs);
-			if (detectValues == null) {
-				detectValues = new DetectValues();
-				_particleIndexesToDetectValues.put(prtclIndxs, detectValues);
-			}
-			detectValuesArray[k - currentN] = detectValues;
-			final double d = detectValues.getPFail(pFailType);
-			if (Double.isNaN(d)) {
-				toComputeHashSet.add(prtclIndxs);
-			}
-		}
-		final int nToCompute = toComputeHashSet.size();
-		if (nToCompute == 0) {
-			return detectValuesArray;
-		}
-		final ParticleIndexes[] toCompute =
-				toComputeHashSet.toArray(new ParticleIndexes[nToCompute]);
-		/**
-		 * To make it easier to watch the debugging, sort them by overallIndex.
-		 * ParticleIndexes has a default comparator which sorts them by
-		 * overallIndex.
-		 */
-		Arrays.sort(toCompute);
-
 		final ParticlesFile particlesFile = particlesManager.getParticlesFile();
 		final SimCaseManager simCaseManager = simCase.getSimCaseManager();
-
-		/** Compute them. */
-		/** Boilerplate for multithreading... */
-		Future<?>[] futures = null;
-		final ArrayList<Integer> notTaskedISlices = new ArrayList<>();
-		int nSlices = (nToCompute + (_MinNPerSlice - 1)) / _MinNPerSlice;
-		int nWorkers = 0;
-		if (nSlices > 1) {
-			final Object lockOnWorkersThreadPool =
-					simCaseManager.getLockOnWorkersThreadPool();
-			synchronized (lockOnWorkersThreadPool) {
-				final int nFreeWorkers = simCaseManager
-						.getNFreeWorkerThreads(simCase, "DetectValuesArray2Getter");
-				nWorkers = Math.max(0, Math.min(nSlices - 1, nFreeWorkers));
-				if (nWorkers < 2) {
-					nWorkers = 0;
-					nSlices = 1;
+		/** The ones we have tried; we never try one twice in one call. */
+		final HashSet<ParticleIndexes> tried = new HashSet<>();
+		while (true) {
+			/** Build a HashSet of things to compute, and a list of claims to wait on. */
+			final HashSet<ParticleIndexes> toComputeHashSet = new HashSet<>();
+			final HashSet<FutureTask<Void>> othersClaims = new HashSet<>();
+			final FutureTask<Void> myClaim;
+			final ParticleIndexes[] toCompute;
+			final AtomicReference<DetectValues>[] toComputeSlots;
+			synchronized (this) {
+				for (int k = currentN; k < newN; ++k) {
+					final ParticleIndexes prtclIndxs = prtclIndxsS[k];
+					AtomicReference<DetectValues> slot =
+							_particleIndexesToDetectValues.get(prtclIndxs);
+					if (slot == null) {
+						slot = new AtomicReference<>(new DetectValues());
+						_particleIndexesToDetectValues.put(prtclIndxs, slot);
+					}
+					final DetectValues detectValues = slot.get();
+					detectValuesArray[k - currentN] = detectValues;
+					final double d = detectValues.getPFail(pFailType);
+					if (Double.isNaN(d) && !tried.contains(prtclIndxs)) {
+						final FutureTask<Void> othersClaim = _claims.get(prtclIndxs);
+						if (othersClaim != null) {
+							othersClaims.add(othersClaim);
+						} else {
+							toComputeHashSet.add(prtclIndxs);
+						}
+					}
+				}
+				final int nToCompute = toComputeHashSet.size();
+				toCompute = toComputeHashSet.toArray(new ParticleIndexes[nToCompute]);
+				/**
+				 * To make it easier to watch the debugging, sort them by overallIndex.
+				 * ParticleIndexes has a default comparator which sorts them by
+				 * overallIndex.
+				 */
+				Arrays.sort(toCompute);
+				@SuppressWarnings("unchecked")
+				final AtomicReference<DetectValues>[] slots =
+						new AtomicReference[nToCompute];
+				for (int k = 0; k < nToCompute; ++k) {
+					slots[k] = _particleIndexesToDetectValues.get(toCompute[k]);
+				}
+				toComputeSlots = slots;
+				if (nToCompute > 0) {
+					myClaim = new FutureTask<>(new Runnable() {
+						@Override
+						public void run() {
+							computeDetectValues(simCase, simCaseManager, particlesFile,
+									toCompute, toComputeSlots, forOptnOnly, pFailType);
+						}
+					}, null);
+					for (final ParticleIndexes prtclIndxs : toCompute) {
+						_claims.put(prtclIndxs, myClaim);
+					}
 				} else {
-					final int finalNSlices = nSlices = nWorkers + 1;
-					futures = new Future<?>[nWorkers];
-					for (int iWorker = 0; iWorker < nWorkers; ++iWorker) {
-						final int finalIWorker = iWorker;
-						final Runnable runnable = new Runnable() {
-							@Override
-							public void run() {
-								/** ... to here. */
-								runSliceForDetectVals(simCase, particlesFile, toCompute,
-										forOptnOnly, pFailType, finalIWorker, finalNSlices);
-							}
-						};
-						futures[iWorker] =
-								simCaseManager.submitToWorkers(simCase, runnable);
-						if (futures[iWorker] == null) {
-							notTaskedISlices.add(iWorker);
+					myClaim = null;
+				}
+			}
+			if (myClaim == null && othersClaims.isEmpty()) {
+				return detectValuesArray;
+			}
+			if (myClaim != null) {
+				try {
+					myClaim.run();
+				} finally {
+					synchronized (this) {
+						for (final ParticleIndexes prtclIndxs : toCompute) {
+							_claims.remove(prtclIndxs);
 						}
 					}
 				}
+				tried.addAll(toComputeHashSet);
 			}
-		}
-		for (int iSlice = nWorkers; iSlice < nSlices; ++iSlice) {
-			notTaskedISlices.add(iSlice);
-		}
-		for (final int iSlice : notTaskedISlices) {
-			runSliceForDetectVals(simCase, particlesFile, toCompute, forOptnOnly,
-					pFailType, iSlice, nSlices);
-		}
-		try {
-			for (int iWorker = 0; iWorker < nWorkers; ++iWorker) {
-				if (futures[iWorker] != null) {
-					futures[iWorker].get();
+			for (final FutureTask<Void> othersClaim : othersClaims) {
+				try {
+					othersClaim.get();
+				} catch (final ExecutionException e) {
+				} catch (final InterruptedException e) {
 				}
 			}
-		} catch (final ExecutionException e) {
-		} catch (final InterruptedException e) {
+			if (!simCase.getKeepGoing()) {
+				return null;
+			}
+			/**
+			 * Others might have been computing a different PFailType for some of
+			 * ours, and detectValuesArray may hold versions from before the
+			 * computations. Go around again; we won't retry the ones that we tried,
+			 * and the last pass refills detectValuesArray from the slots.
+			 */
+		}
+	}
+
+	/**
+	 * Computes toCompute's DetectValues, in contiguous chunks, on the workers,
+	 * and publishes each into its slot.
+	 */
+	private void computeDetectValues(final SimCaseManager.SimCase simCase,
+			final SimCaseManager simCaseManager, final ParticlesFile particlesFile,
+			final ParticleIndexes[] toCompute,
+			final AtomicReference<DetectValues>[] toComputeSlots, final boolean forOptnOnly,
+			final DetectValues.PFailType pFailType) {
+		final SimCaseManager.RangeRunner rangeRunner =
+				new SimCaseManager.RangeRunner() {
+					@Override
+					public void runRange(final int k0, final int k1) {
+						runRangeForDetectVals(simCase, particlesFile, toCompute,
+								toComputeSlots, forOptnOnly, pFailType, k0, k1);
+					}
+				};
+		try {
+			simCaseManager.parallelFor(simCase, "DetectValuesArray2Getter",
+					toCompute.length, _MinNPerSlice, rangeRunner);
+		} catch (final RuntimeException e) {
+			SimCaseManager.standardLogError(simCase, e);
 		}
-		return detectValuesArray;
 	}
 
-	private void runSliceForDetectVals(final SimCaseManager.SimCase simCase,
+	private void runRangeForDetectVals(final SimCaseManager.SimCase simCase,
 			final ParticlesFile particlesFile, final ParticleIndexes[] toCompute,
-			final boolean forOptnOnly, final DetectValues.PFailType pFailType,
-			final int firstIndex, final int nSlices) {
-		final int nToCompute = toCompute.length;
-		for (int k = firstIndex; k < nToCompute; k += nSlices) {
+			final AtomicReference<DetectValues>[] toComputeSlots, final boolean forOptnOnly,
+			final DetectValues.PFailType pFailType, final int k0, final int k1) {
+		for (int k = k0; k < k1; ++k) {
 			final ParticleIndexes prtclIndxs = toCompute[k];
-			final DetectValues detectValues =
-					_particleIndexesToDetectValues.get(prtclIndxs);
 			if (_pvValue == null || _pvValue.onMars()) {
 				/** Never update for onMars PvValues. */
 				continue;
 			}
+			/** Our claim makes us this slot's only writer until we publish. */
+			final AtomicReference<DetectValues> slot = toComputeSlots[k];
+			final DetectValues detectValues = new DetectValues(slot.get());
 			/** We always want proportionIn and nft. */
 			final double nftPFail =
 					detectValues.getPFail(DetectValues.PFailType.NFT);
@@ -223,6 +285,7 @@ class PvValueBox {
 					detectValues.setPFail(pFailType, thisPFail);
 				}
 			}
+			slot.set(detectValues);
 		}
 	}
 }
@@ -13,9 +13,23 @@ public class PvAndPvSeqTrnstConstraintArray {
 
 	public final double[][] _pvToOptnAndReports;
 	public final double[][] _pvSeqToOptnAndReports;
+	/** What we were computed from; for deriving a child. */
+	final private PvValue[] _pvValues;
 
 	public PvAndPvSeqTrnstConstraintArray(final Planner planner,
 			final PvValue[] pvValues) {
+		this(planner, pvValues, /* parent= */null);
+	}
+
+	/**
+	 * A pvSeq's values depend only on its own PvValues. So a pvSeq none of
+	 * whose PvValues differs (as an object) from parent's simply copies
+	 * parent's values. parent may be null.
+	 */
+	public PvAndPvSeqTrnstConstraintArray(final Planner planner,
+			final PvValue[] pvValues,
+			final PvAndPvSeqTrnstConstraintArray parent) {
+		_pvValues = pvValues;
 		final PlannerModel plannerModel = planner.getPlannerModel();
 		final int nPttrnVbls = plannerModel.getNPttrnVbls();
 		_pvToOptnAndReports = new double[nPttrnVbls][];
@@ -31,65 +45,98 @@ public class PvAndPvSeqTrnstConstraintArray {
 		/** Set these values pvSeq by pvSeq. */
 		for (int pvSeqOrd = 0; pvSeqOrd < nPvSeqs; ++pvSeqOrd) {
 			final PvSeq pvSeq = plannerModel.getPvSeq(pvSeqOrd);
-			/**
-			 * Collect the ones for pvSeq, are not onMars, and have
-			 * isActive==true.
-			 */
-			final PvValue[] myPvValues = pvSeq.gatherMine(pvValues);
-			final int nMyPvValues = myPvValues.length;
-			LatLng3 pvsExit = pvSeq._launchLatLng;
-			long launchRefSecs = pvSeq._launchRefSecs;
-			long pvsRefSecs = launchRefSecs;
-			for (int k1 = 0; k1 < nMyPvValues; ++k1) {
-				final PvValue pvValue1 = myPvValues[k1];
-				final LatLng3 csp = pvValue1.getCsp();
-				final PatternVariable pv1 = pvValue1.getPv();
-				final GreatCircleArc transitGca =
-						GreatCircleArc.CreateGca(pvsExit, csp);
-				final double transitNmi = transitGca.getTtlNmi();
-				final double transitKts = pv1.getTransitKts();
-				final long transitSecs =
-						Math.round(3600d * transitNmi / transitKts);
-				/** Set launchRefSecs if it isn't already. */
-				if (k1 == 0 && launchRefSecs == ModelReader._UnsetTime) {
-					pvsRefSecs =
-							launchRefSecs = pvValue1.getCstRefSecs() - transitSecs;
+			if (parent != null &&
+					isUnchanged(pvSeq, pvValues, parent._pvValues)) {
+				final int nMine = pvSeq.getNMyPttrnVbls();
+				for (int k = 0; k < nMine; ++k) {
+					final int grandOrd = pvSeq.getPttrnVbl(k).getGrandOrd();
+					_pvToOptnAndReports[grandOrd] =
+							parent._pvToOptnAndReports[grandOrd];
 				}
-				final long arrivalRefSecs = pvsRefSecs + transitSecs;
-				final long targetRefSecs = pvValue1.getCstRefSecs();
-				final int grandOrd1 = pv1.getGrandOrd();
-				final double raw = arrivalRefSecs - targetRefSecs;
-				final double duration = targetRefSecs - launchRefSecs;
-				_pvToOptnAndReports[grandOrd1] =
-						new double[] { raw / duration, raw };
-				pvsExit = csp;
-				pvsRefSecs = pvValue1.getEstRefSecs();
-			}
-			/** Now for pvSeq itself. */
-			final long arrivalRefSecs;
-			if (pvSeq.hasRecoveryTransit()) {
-				final double transitKts = pvSeq._recoveryKts;
-				final GreatCircleArc transitGca =
-						GreatCircleArc.CreateGca(pvsExit, pvSeq._recoveryLatLng);
-				final double transitNmi = transitGca.getTtlNmi();
-				final long transitSecs =
-						Math.round(3600d * transitNmi / transitKts);
-				arrivalRefSecs = pvsRefSecs + transitSecs;
-			} else if (pvsRefSecs != ModelReader._UnsetTime) {
-				arrivalRefSecs = pvsRefSecs;
-			} else {
-				/**
-				 * Nothing to do; there are no pvSeq Pv's here. This ct was already
-				 * set to {0,0}.
-				 */
+				_pvSeqToOptnAndReports[pvSeqOrd] =
+						parent._pvSeqToOptnAndReports[pvSeqOrd];
 				continue;
 			}
-			final long targetRefSecs = launchRefSecs + pvSeq._totalDurationSecs;
+			setValues(pvSeqOrd, pvSeq, pvValues);
+		}
+	}
+
+	private static boolean isUnchanged(final PvSeq pvSeq,
+			final PvValue[] pvValues, final PvValue[] parentPvValues) {
+		if (pvValues == null || parentPvValues == null ||
+				parentPvValues.length != pvValues.length) {
+			return false;
+		}
+		final int nMine = pvSeq.getNMyPttrnVbls();
+		for (int k = 0; k < nMine; ++k) {
+			final int grandOrd = pvSeq.getPttrnVbl(k).getGrandOrd();
+			if (pvValues[grandOrd] != parentPvValues[grandOrd]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private void setValues(final int pvSeqOrd, final PvSeq pvSeq,
+			final PvValue[] pvValues) {
+		/**
+		 * Collect the ones for pvSeq, are not onMars, and have
+		 * isActive==true.
+		 */
+		final PvValue[] myPvValues = pvSeq.gatherMine(pvValues);
+		final int nMyPvValues = myPvValues.length;
+		LatLng3 pvsExit = pvSeq._launchLatLng;
+		long launchRefSecs = pvSeq._launchRefSecs;
+		long pvsRefSecs = launchRefSecs;
+		for (int k1 = 0; k1 < nMyPvValues; ++k1) {
+			final PvValue pvValue1 = myPvValues[k1];
+			final LatLng3 csp = pvValue1.getCsp();
+			final PatternVariable pv1 = pvValue1.getPv();
+			final GreatCircleArc transitGca =
+					GreatCircleArc.CreateGca(pvsExit, csp);
+			final double transitNmi = transitGca.getTtlNmi();
+			final double transitKts = pv1.getTransitKts();
+			final long transitSecs =
+					Math.round(3600d * transitNmi / transitKts);
+			/** Set launchRefSecs if it isn't already. */
+			if (k1 == 0 && launchRefSecs == ModelReader._UnsetTime) {
+				pvsRefSecs =
+						launchRefSecs = pvValue1.getCstRefSecs() - transitSecs;
+			}
+			final long arrivalRefSecs = pvsRefSecs + transitSecs;
+			final long targetRefSecs = pvValue1.getCstRefSecs();
+			final int grandOrd1 = pv1.getGrandOrd();
 			final double raw = arrivalRefSecs - targetRefSecs;
-			final double duration = pvSeq._totalDurationSecs;
-			_pvSeqToOptnAndReports[pvSeqOrd] =
+			final double duration = targetRefSecs - launchRefSecs;
+			_pvToOptnAndReports[grandOrd1] =
 					new double[] { raw / duration, raw };
+			pvsExit = csp;
+			pvsRefSecs = pvValue1.getEstRefSecs();
+		}
+		/** Now for pvSeq itself. */
+		final long arrivalRefSecs;
+		if (pvSeq.hasRecoveryTransit()) {
+			final double transitKts = pvSeq._recoveryKts;
+			final GreatCircleArc transitGca =
+					GreatCircleArc.CreateGca(pvsExit, pvSeq._recoveryLatLng);
+			final double transitNmi = transitGca.getTtlNmi();
+			final long transitSecs =
+					Math.round(3600d * transitNmi / transitKts);
+			arrivalRefSecs = pvsRefSecs + transitSecs;
+		} else if (pvsRefSecs != ModelReader._UnsetTime) {
+			arrivalRefSecs = pvsRefSecs;
+		} else {
+			/**
+			 * Nothing to do; there are no pvSeq Pv's here. This ct was already
+			 * set to {0,0}.
+			 */
+			return;
 		}
+		final long targetRefSecs = launchRefSecs + pvSeq._totalDurationSecs;
+		final double raw = arrivalRefSecs - targetRefSecs;
+		final double duration = pvSeq._totalDurationSecs;
+		_pvSeqToOptnAndReports[pvSeqOrd] =
+				new double[] { raw / duration, raw };
 	}
 
 }
@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.BitSet;
 import java.util.Comparator;
+import java.util.HashMap;
 
 import com.skagit.sarops.model.Model;
 import com.skagit.sarops.planner.Planner;
@@ -95,6 +96,11 @@ public class PvValueArrayPlus implements Cloneable {
 	final CtV[] _descendingForOptnCtVs;
 	final PvTrnstCtV[] _descendingForOptnPvTrnstCtVs;
 	final PvSeqTrnstCtV[] _descendingForOptnPvSeqTrnstCtVs;
+	/**
+	 * The transit values of _pvValues, computed once and shared by the
+	 * forOptn and forReports transit CtVs, and by any child built from us.
+	 */
+	final private PvAndPvSeqTrnstConstraintArray _trnstConstraintArray;
 
 	public Planner getPlanner() {
 		return _planner;
@@ -102,6 +108,22 @@ public class PvValueArrayPlus implements Cloneable {
 
 	/** pvValues might have nulls, but it must be canonical-full. */
 	public PvValueArrayPlus(final Planner planner, final PvValue[] pvValues) {
+		this(planner, pvValues, /* parent= */null);
+	}
+
+	/**
+	 * For a perturbation of parent; the result is identical to that of the
+	 * other public constructor. Only the parts that depend on a PvValue that
+	 * is not (as an object) in parent are recomputed: the overlaps involving
+	 * it, and the transits of its PvSeq. The rest come from parent.
+	 */
+	public PvValueArrayPlus(final PvValueArrayPlus parent,
+			final PvValue[] pvValues) {
+		this(parent._planner, pvValues, parent);
+	}
+
+	private PvValueArrayPlus(final Planner planner, final PvValue[] pvValues,
+			final PvValueArrayPlus parentIn) {
 		_planner = planner;
 		final int nPttrnVbls = pvValues == null ? 0 : pvValues.length;
 		_equalToInitial = new BitSet(nPttrnVbls);
@@ -116,8 +138,11 @@ public class PvValueArrayPlus implements Cloneable {
 			_descendingForOptnCtVs = null;
 			_descendingForOptnPvTrnstCtVs = null;
 			_descendingForOptnPvSeqTrnstCtVs = null;
+			_trnstConstraintArray = null;
 			return;
 		}
+		final PvValueArrayPlus parent =
+				parentIn == null || parentIn._pvValues == null ? null : parentIn;
 		/**
 		 * Eliminate ones that are not isActive, make sure userFrozens are
 		 * there, and eliminate onMars. _pvValues will end up a full array,
@@ -137,10 +162,12 @@ public class PvValueArrayPlus implements Cloneable {
 
 		/** Gather the forOptn CtVs. */
 		final ArrayList<CtV> ctVList = new ArrayList<>();
-		final OvlCtV[] ovlCtVsArray = computeForOptnOvlCtVs();
+		final OvlCtV[] ovlCtVsArray = computeForOptnOvlCtVs(parent);
 		ctVList.addAll(Arrays.asList(ovlCtVsArray));
 		_descendingForOptnCtVs = ctVList.toArray(new CtV[ctVList.size()]);
 		Arrays.sort(_descendingForOptnCtVs, _ForOptnCompare);
+		_trnstConstraintArray = new PvAndPvSeqTrnstConstraintArray(_planner,
+				_pvValues, parent == null ? null : parent._trnstConstraintArray);
 		_descendingForOptnPvTrnstCtVs = computeForOptnPvTrnstCtVs();
 		Arrays.sort(_descendingForOptnPvTrnstCtVs, _ForOptnCompare);
 		_descendingForOptnPvSeqTrnstCtVs = computeForOptnPvSeqTrnstCtVs();
@@ -158,8 +185,10 @@ public class PvValueArrayPlus implements Cloneable {
 			_descendingForOptnCtVs = null;
 			_descendingForOptnPvTrnstCtVs = null;
 			_descendingForOptnPvSeqTrnstCtVs = null;
+			_trnstConstraintArray = null;
 			return;
 		}
+		_trnstConstraintArray = plus._trnstConstraintArray;
 		_posEvals = plus._posEvals.clone();
 		_descendingForOptnCtVs = plus._descendingForOptnCtVs.clone();
 		_descendingForOptnPvTrnstCtVs =
@@ -193,8 +222,10 @@ public class PvValueArrayPlus implements Cloneable {
 			_descendingForOptnCtVs = null;
 			_descendingForOptnPvTrnstCtVs = null;
 			_descendingForOptnPvSeqTrnstCtVs = null;
+			_trnstConstraintArray = null;
 			return;
 		}
+		_trnstConstraintArray = plus._trnstConstraintArray;
 		_posEvals = plus._posEvals.clone();
 		_descendingForOptnCtVs = plus._descendingForOptnCtVs.clone();
 		_descendingForOptnPvTrnstCtVs =
@@ -346,13 +377,19 @@ public class PvValueArrayPlus implements Cloneable {
 	}
 
 	public PosEvaluation getPosEval(final PosFunction posFunction) {
+		return getPosEval(posFunction, /* posDelta= */null);
+	}
+
+	/** posDelta, if not null, is a shortcut for a perturbation of its base. */
+	public PosEvaluation getPosEval(final PosFunction posFunction,
+			final PosFunction.PosDelta posDelta) {
 		final EvalType evalType = posFunction._evalType;
 		PosEvaluation posEval = _posEvals[evalType.ordinal()];
 		if (posEval == null) {
 			synchronized (_posEvals) {
 				posEval = _posEvals[evalType.ordinal()];
 				if (posEval == null) {
-					posEval = posFunction.computeEvaluation(this);
+					posEval = posFunction.computeEvaluation(this, posDelta);
 					_posEvals[evalType.ordinal()] = posEval;
 				}
 			}
@@ -369,6 +406,12 @@ public class PvValueArrayPlus implements Cloneable {
 		return eval == null ? Double.NaN : eval._pos;
 	}
 
+	public double getPos(final PosFunction posFunction,
+			final PosFunction.PosDelta posDelta) {
+		final PosEvaluation eval = getPosEval(posFunction, posDelta);
+		return eval == null ? Double.NaN : eval._pos;
+	}
+
 	public CtV getWorstForOptnCtV() {
 		final int n =
 				_descendingForOptnCtVs == null ? 0 : _descendingForOptnCtVs.length;
@@ -464,10 +507,22 @@ public class PvValueArrayPlus implements Cloneable {
 		return ttlV;
 	}
 
-	private OvlCtV[] computeForOptnOvlCtVs() {
+	/**
+	 * If parent is not null, a pair whose PvValues are both (as objects)
+	 * parent's takes parent's OvlCtV instead of recomputing it.
+	 */
+	private OvlCtV[] computeForOptnOvlCtVs(final PvValueArrayPlus parent) {
 		final PlannerModel plannerModel = _planner.getPlannerModel();
 		final int nPttrnVbls = plannerModel.getNPttrnVbls();
 		final ArrayList<OvlCtV> ovlCtVList = new ArrayList<>();
+		final HashMap<Integer, OvlCtV> parentOvlCtVs = new HashMap<>();
+		if (parent != null) {
+			for (final CtV ctV : parent._descendingForOptnCtVs) {
+				if (ctV instanceof OvlCtV) {
+					parentOvlCtVs.put(ctV.getIndexWithinType(), (OvlCtV) ctV);
+				}
+			}
+		}
 		for (int grandOrd0 = 0; grandOrd0 < nPttrnVbls; ++grandOrd0) {
 			final PvValue pvValue0 = _pvValues[grandOrd0];
 			if (pvValue0 == null || pvValue0.onMars()) {
@@ -492,6 +547,16 @@ public class PvValueArrayPlus implements Cloneable {
 				if ((isFrozen0 && isFrozen1) || plannerModel.mayOverlap(pv0, pv1, /* forOptn= */true)) {
 					continue;
 				}
+				final OvlCtV parentOvlCtV =
+						parentOvlCtVs.get(grandOrd0 * nPttrnVbls + grandOrd1);
+				if (parentOvlCtV != null &&
+						((parentOvlCtV._pvValue0 == pvValue0 &&
+								parentOvlCtV._pvValue1 == pvValue1) ||
+								(parentOvlCtV._pvValue0 == pvValue1 &&
+										parentOvlCtV._pvValue1 == pvValue0))) {
+					ovlCtVList.add(parentOvlCtV);
+					continue;
+				}
 				final OvlCtV ovlCtV = new OvlCtV(pvValue0, pvValue1);
 				if (!Double.isNaN(ovlCtV._forOptnV)) {
 					ovlCtVList.add(ovlCtV);
@@ -617,6 +682,14 @@ public class PvValueArrayPlus implements Cloneable {
 		return new double[] { posPvSeq, negPvSeq };
 	}
 
+	/** _trnstConstraintArray is null only for a stop event. */
+	private PvAndPvSeqTrnstConstraintArray getTrnstConstraintArray() {
+		if (_trnstConstraintArray != null) {
+			return _trnstConstraintArray;
+		}
+		return new PvAndPvSeqTrnstConstraintArray(_planner, _pvValues);
+	}
+
 	final PvTrnstCtV[] computeForOptnPvTrnstCtVs() {
 		return computePvTrnstCtVs(/* forOptn= */true);
 	}
@@ -630,7 +703,7 @@ public class PvValueArrayPlus implements Cloneable {
 		final int nPttrnVbls = plannerModel.getNPttrnVbls();
 		final ArrayList<PvTrnstCtV> pvTrnstCtVList = new ArrayList<>();
 		final PvAndPvSeqTrnstConstraintArray pvAndPvSeqTrnstConstraintArray =
-				new PvAndPvSeqTrnstConstraintArray(_planner, _pvValues);
+				getTrnstConstraintArray();
 		GRAND_ORD_LOOP: for (int grandOrd = 0; grandOrd < nPttrnVbls;
 				++grandOrd) {
 			final PvValue pvValue = _pvValues[grandOrd];
@@ -711,7 +784,7 @@ public class PvValueArrayPlus implements Cloneable {
 	private PvSeqTrnstCtV[] computePvSeqTrnstCtVs(final boolean forOptn) {
 		final ArrayList<PvSeqTrnstCtV> pvSeqTrnstCtVList = new ArrayList<>();
 		final PvAndPvSeqTrnstConstraintArray pvSeqConstraintArray =
-				new PvAndPvSeqTrnstConstraintArray(_planner, _pvValues);
+				getTrnstConstraintArray();
 		final PlannerModel plannerModel = _planner.getPlannerModel();
 		final int nPvSeqs = plannerModel.getNPvSeqs();
 		for (int pvSeqOrd = 0; pvSeqOrd < nPvSeqs; ++pvSeqOrd) {
@@ -540,8 +540,19 @@ abstract public class Solver extends WorkStopper.Standard
 	public static PvValueArrayPlus computeBestPlus(final Planner planner,
 			final PosFunction posFunction, final PvValueArrayPlus plus,
 			final int grandOrd) {
+		return computeBestPlus(planner, posFunction, plus, grandOrd,
+				/* posDelta= */null);
+	}
+
+	/**
+	 * posDelta, if not null, must be for posFunction, and its base should
+	 * differ from plus in grandOrd at most.
+	 */
+	public static PvValueArrayPlus computeBestPlus(final Planner planner,
+			final PosFunction posFunction, final PvValueArrayPlus plus,
+			final int grandOrd, final PosFunction.PosDelta posDelta) {
 		PvValueArrayPlus bestPlus = plus;
-		double bestPos = bestPlus.getPos(posFunction);
+		double bestPos = bestPlus.getPos(posFunction, posDelta);
 		final PvValue[] sandbox = bestPlus.getCopyOfPvValues();
 		/** For Nft evaluations, it doesn't matter. */
 		if (sandbox[grandOrd] == null || sandbox[grandOrd].onMars() || (posFunction._evalType == EvalType.GROWING_SAMPLE_NFT) ||
@@ -569,9 +580,9 @@ abstract public class Solver extends WorkStopper.Standard
 				break;
 			}
 			sandbox[grandOrd] = newPvValue;
-			final PvValueArrayPlus thisPlus =
-					new PvValueArrayPlus(planner, sandbox);
-			final double thisPos = thisPlus.getPos(posFunction);
+			/** Only grandOrd differs from plus. */
+			final PvValueArrayPlus thisPlus = new PvValueArrayPlus(plus, sandbox);
+			final double thisPos = thisPlus.getPos(posFunction, posDelta);
 			if (thisPos > bestPos) {
 				bestPos = thisPos;
 				bestPlus = thisPlus;
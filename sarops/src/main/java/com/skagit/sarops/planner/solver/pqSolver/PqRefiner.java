@@ -17,6 +17,7 @@ import com.skagit.sarops.planner.solver.Solver;
 import com.skagit.sarops.planner.solver.SolversManager;
 import com.skagit.sarops.planner.solver.pqSolver.PvValuePerturber.PertType;
 import com.skagit.sarops.simCaseManager.SimCaseManager;
+import com.skagit.sarops.util.SimGlobalStrings;
 import com.skagit.util.CombinatoricTools;
 import com.skagit.util.Constants;
 
@@ -335,6 +336,32 @@ public class PqRefiner {
 					return lastPlus;
 				}
 				final int repeatCount = Math.max(nextFib0, nextFib1);
+				if (stage._forPos) {
+					/**
+					 * The first improvement, in our order, wins. We are not rough
+					 * and ready if this is a zeroing in stage.
+					 */
+					final PosCandidate winner = findFirstPosWinner(solver, planner,
+							posFunction, stage, lastPlus, perturbableGrandOrds,
+							shiftsAndTwistsOnly, haveFeasibleNow, haveCleanClrOvl,
+							roughAndReady && !stage.forZeroingIn(), repeatCount);
+					if (solver != null && !solver.getKeepRefining()) {
+						return lastPlus;
+					}
+					if (winner == null) {
+						continue;
+					}
+					if (winner._mustReturn) {
+						return lastPlus;
+					}
+					/** We have an improvement and wish to run with it. */
+					lastPv = winner._pv;
+					lastPertType = winner._pertType;
+					lastPlus = winner._winner;
+					lastWinningIdx = winner._idx;
+					haveNewCurrentPlus = true;
+					continue HAVE_NEW_PLUS;
+				}
 				/**
 				 * If we don't have an automatic win, we'll settle for the
 				 * following.
@@ -419,30 +446,7 @@ public class PqRefiner {
 						}
 
 						final PvValueArrayPlus sandboxPlus =
-								new PvValueArrayPlus(planner, sandbox);
-						if (stage._forPos) {
-							final PvValueArrayPlus bestPlus = Solver.computeBestPlus(
-									planner, posFunction, sandboxPlus, grandOrd0);
-							/**
-							 * For PRELIM, it is allowable to introduce constraint
-							 * violation. Not so when zeroing in.
-							 */
-							if (stage.forZeroingIn() && !bestPlus.isFeasible()) {
-								continue NEXT_PERTTYPE;
-							}
-							final double newPos = bestPlus.getPos(posFunction);
-							final double lastPos = lastPlus.getPos(posFunction);
-							if (newPos <= lastPos) {
-								continue NEXT_PERTTYPE;
-							}
-							/** We have an improvement and wish to run with it. */
-							lastPv = pv0;
-							lastPertType = pertType;
-							lastPlus = bestPlus;
-							lastWinningIdx = idx;
-							haveNewCurrentPlus = true;
-							continue HAVE_NEW_PLUS;
-						}
+								new PvValueArrayPlus(lastPlus, sandbox);
 
 						/** Compare constraints. */
 						final CtV[] lastCriticalForOptnCtVs =
@@ -538,6 +542,164 @@ public class PqRefiner {
 		}
 	}
 
+	/** One (grandOrd, PertType) move of a _forPos stage, and what it came to. */
+	private static class PosCandidate {
+		final private int _idx;
+		final private int _grandOrd;
+		final private PatternVariable _pv;
+		final private PvValuePerturber.PertType _pertType;
+		private boolean _evaluated;
+		/** Null unless this move improves on lastPlus. */
+		private PvValueArrayPlus _winner;
+		/** The active set changed under us; doStage must return. */
+		private boolean _mustReturn;
+
+		private PosCandidate(final int idx, final int grandOrd,
+				final PatternVariable pv, final PvValuePerturber.PertType pertType) {
+			_idx = idx;
+			_grandOrd = grandOrd;
+			_pv = pv;
+			_pertType = pertType;
+			_evaluated = false;
+			_winner = null;
+			_mustReturn = false;
+		}
+
+		/** Reads lastPlus but changes nothing shared; safe on the workers. */
+		private void evaluate(final Planner planner,
+				final PosFunction posFunction, final PosFunction.PosDelta posDelta,
+				final RefinementStage stage, final PvValueArrayPlus lastPlus,
+				final boolean roughAndReady, final int repeatCount) {
+			_evaluated = true;
+			final SolversManager solversManager = planner.getSolversManager();
+			final int nPttrnVbls = planner.getPlannerModel().getNPttrnVbls();
+			/** Perturb a PvValue and create a new PvValueArrayPlus. */
+			final PvValue oldPvValue = lastPlus.getPvValue(_grandOrd);
+			final PvValue newPvValue = PvValuePerturber.perturbPvValue(oldPvValue,
+					_pertType, roughAndReady, repeatCount);
+			if (newPvValue == oldPvValue) {
+				return;
+			}
+			/** Build a PvValueArrayPlus. */
+			final PvValue[] sandboxOrig = lastPlus.getCopyOfPvValues();
+			final PvValue[] sandboxMod = PvValuesFitter.fitPvValues(sandboxOrig,
+					newPvValue, PvValuesFitter.FitType.SCALE_BOXES);
+			if (sandboxMod == sandboxOrig) {
+				/** Couldn't make the change, so there's nothing to do. */
+				return;
+			}
+			final PvValue[] sandbox =
+					solversManager.convertToIsActiveAndFrozens(sandboxMod);
+			/**
+			 * sandboxMod and sandbox should be the same unless something has
+			 * changed. If that's the case, get the heck out of Dodge.
+			 */
+			for (int grandOrd1 = 0; grandOrd1 < nPttrnVbls; ++grandOrd1) {
+				if (sandbox[grandOrd1] != sandboxMod[grandOrd1]) {
+					_mustReturn = true;
+					return;
+				}
+			}
+			final PvValueArrayPlus sandboxPlus =
+					new PvValueArrayPlus(lastPlus, sandbox);
+			final PvValueArrayPlus bestPlus = Solver.computeBestPlus(planner,
+					posFunction, sandboxPlus, _grandOrd, posDelta);
+			/**
+			 * For PRELIM, it is allowable to introduce constraint violation. Not
+			 * so when zeroing in.
+			 */
+			if (stage.forZeroingIn() && !bestPlus.isFeasible()) {
+				return;
+			}
+			final double newPos = bestPlus.getPos(posFunction, posDelta);
+			final double lastPos = lastPlus.getPos(posFunction);
+			if (newPos <= lastPos) {
+				return;
+			}
+			_winner = bestPlus;
+		}
+	}
+
+	/**
+	 * Walks this pass's (grandOrd, PertType) moves in order and returns the
+	 * first that improves on lastPlus or that makes us return; null if none
+	 * does (or we were told to stop). With a Pq.Refiner.Window of w > 1, we
+	 * score the next w moves at once on the workers and then take the earliest
+	 * winner among them, so we return the same move as the one-at-a-time walk,
+	 * having spent some work on moves beyond it.
+	 */
+	private static PosCandidate findFirstPosWinner(final Solver solver,
+			final Planner planner, final PosFunction posFunction,
+			final RefinementStage stage, final PvValueArrayPlus lastPlus,
+			final int[] perturbableGrandOrds, final boolean shiftsAndTwistsOnly,
+			final boolean haveFeasibleNow, final boolean haveCleanClrOvl,
+			final boolean roughAndReady, final int repeatCount) {
+		final ArrayList<PosCandidate> candidates = new ArrayList<>();
+		final int nPerturbables = perturbableGrandOrds.length;
+		for (int idx = 0; idx < nPerturbables; ++idx) {
+			final int grandOrd0 = perturbableGrandOrds[idx];
+			final PvValue pvValue0 = lastPlus.getPvValue(grandOrd0);
+			final PatternVariable pv0 = pvValue0.getPv();
+			/** Never move an initial one. */
+			if (pvValue0 == pv0.getInitialPvValue()) {
+				continue;
+			}
+			final PvValuePerturber.PertType[] pertTypes = getPertTypes(pvValue0,
+					stage, shiftsAndTwistsOnly, haveFeasibleNow, haveCleanClrOvl);
+			for (final PvValuePerturber.PertType pertType : pertTypes) {
+				candidates.add(new PosCandidate(idx, grandOrd0, pv0, pertType));
+			}
+		}
+		final SimCaseManager.SimCase simCase = planner.getSimCase();
+		final SimGlobalStrings simGlobalStrings = simCase.getSimGlobalStrings();
+		final int window = Math.max(1, simGlobalStrings.getPqRefinerWindow());
+		final int nCandidates = candidates.size();
+		/**
+		 * Every candidate perturbs lastPlus, so with Use.Delta.Pos, each is
+		 * scored from lastPlus's other PatternVariables' pFails.
+		 */
+		final PosFunction.PosDelta posDelta =
+				nCandidates > 1 && simGlobalStrings.getUseDeltaPos() ?
+						posFunction.buildPosDelta(lastPlus) : null;
+		for (int k0 = 0; k0 < nCandidates; k0 += window) {
+			if (solver != null && !solver.getKeepRefining()) {
+				return null;
+			}
+			final int k0Final = k0;
+			final int k1 = Math.min(nCandidates, k0 + window);
+			if (k1 - k0 > 1) {
+				final SimCaseManager.RangeRunner rangeRunner =
+						new SimCaseManager.RangeRunner() {
+							@Override
+							public void runRange(final int j0, final int j1) {
+								for (int j = j0; j < j1; ++j) {
+									candidates.get(k0Final + j).evaluate(planner,
+											posFunction, posDelta, stage, lastPlus,
+											roughAndReady, repeatCount);
+								}
+							}
+						};
+				simCase.getSimCaseManager().parallelFor(simCase, "PqRefiner",
+						k1 - k0, /* chunkSize= */1, rangeRunner);
+			}
+			for (int k = k0; k < k1; ++k) {
+				final PosCandidate candidate = candidates.get(k);
+				if (!candidate._evaluated) {
+					/** Serial, or parallelFor stopped early. */
+					if (solver != null && !solver.getKeepRefining()) {
+						return null;
+					}
+					candidate.evaluate(planner, posFunction, posDelta, stage,
+							lastPlus, roughAndReady, repeatCount);
+				}
+				if (candidate._mustReturn || candidate._winner != null) {
+					return candidate;
+				}
+			}
+		}
+		return null;
+	}
+
 	private static PvValuePerturber.PertType[] getPertTypes(
 			final PvValue oldPvValue, final RefinementStage stage,
 			final boolean shiftsAndTwistsOnly, final boolean haveFeasible,
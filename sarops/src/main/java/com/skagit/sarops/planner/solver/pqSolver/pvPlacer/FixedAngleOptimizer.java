@@ -49,6 +49,8 @@ public class FixedAngleOptimizer {
 	final private double _firstLegHdg;
 	final private double _c, _s;
 	final private MassFinder _massFinder;
+	/** If non-null, getScore uses it, and the winners are rescored exactly. */
+	final private MassGrid _massGrid;
 	final private double _allMass;
 	/** Output. */
 	final public PvValue _bestPvValue;
@@ -152,6 +154,7 @@ public class FixedAngleOptimizer {
 		_c = MathX.cosX(radsCcwFromE);
 		_s = MathX.sinX(radsCcwFromE);
 		_massFinder = new MassFinder(new ArrayList<MassFinder.Item>());
+		_massGrid = null;
 		_allMass = 0d;
 		final Model simModel = pv.getPlannerModel().getSimModel();
 		final Extent modelExtent = simModel.getExtent();
@@ -163,9 +166,14 @@ public class FixedAngleOptimizer {
 		return;
 	}
 
+	/**
+	 * massGridNCells > 0 scores the candidate rectangles with a MassGrid of that
+	 * resolution; 0 scores them all with the MassFinder.
+	 */
 	public FixedAngleOptimizer(final PatternVariable pv, final long cstRefSecs, final int searchDurationSecs,
 			final PvValue[] knowns, final List<ParticlePlus> prtclPlusS,
-			final HashMap<IntDouble, IntDouble> objTpToSweepWidth, final double firstLegHdg, final double avgSw) {
+			final HashMap<IntDouble, IntDouble> objTpToSweepWidth, final double firstLegHdg, final double avgSw,
+			final int massGridNCells) {
 		/** Unpack the simple inputs. */
 		_pv = pv;
 		_cstRefSecs = cstRefSecs;
@@ -231,6 +239,7 @@ public class FixedAngleOptimizer {
 		final int nDistinctLatLngs = latLngToWt.size();
 		if (nDistinctLatLngs < 1) {
 			_massFinder = new MassFinder(new ArrayList<MassFinder.Item>());
+			_massGrid = null;
 			_tangentCylinder = null;
 			final Extent modelExtent = simModel.getExtent();
 			final MyStyle onMarsMyStyle = new MyStyle(modelExtent, pv);
@@ -255,6 +264,10 @@ public class FixedAngleOptimizer {
 		/** Set MassFinder in rotated coordinates. */
 		final Iterator<Map.Entry<ParticlePlus, double[]>> it1 = prtclPluSToWt.entrySet().iterator();
 		final ArrayList<MassFinder.Item> items = new ArrayList<>(nDistinctPrtclPlusS);
+		final double[] itemXs = new double[nDistinctPrtclPlusS];
+		final double[] itemYs = new double[nDistinctPrtclPlusS];
+		final double[] itemWts = new double[nDistinctPrtclPlusS];
+		final int[] itemObjTps = new int[nDistinctPrtclPlusS];
 		for (int k = 0; k < nDistinctPrtclPlusS; ++k) {
 			final Map.Entry<ParticlePlus, double[]> entry = it1.next();
 			final ParticlePlus prtclPlus = entry.getKey();
@@ -263,9 +276,19 @@ public class FixedAngleOptimizer {
 			final double[] xy = getTwistedXy(latLng);
 			final double wt = entry.getValue()[0];
 			items.add(new MassFinder.Item(xy, wt, objTp, /* referenceObject= */null));
+			itemXs[k] = xy[0];
+			itemYs[k] = xy[1];
+			itemWts[k] = wt;
+			itemObjTps[k] = objTp;
 			assert _objTpToSweepWidth.get(new IntDouble(objTp)) != null : "FixedAngleOptProblem1";
 		}
 		_massFinder = new MassFinder(items);
+		if (massGridNCells > 0) {
+			_massGrid = new MassGrid(_massFinder.getMinX(), _massFinder.getMinY(), _massFinder.getMaxX(),
+					_massFinder.getMaxY(), massGridNCells, itemXs, itemYs, itemWts, itemObjTps);
+		} else {
+			_massGrid = null;
+		}
 
 		final PatternKind patternKind = pv.getPatternKind();
 		final double rawSearchKts = _pv.getRawSearchKts();
@@ -295,7 +318,7 @@ public class FixedAngleOptimizer {
 			final int nCellsForBig = 1;
 			IndexFinder bestXIndexFinder = new IndexFinder(bigMidX, bigXWidth, nCellsForBig);
 			IndexFinder bestYIndexFinder = new IndexFinder(bigMidY, bigYWidth, nCellsForBig);
-			double bestScore = getScore(bestLlrh);
+			double bestScore = getExactScore(bestLlrh);
 
 			for (int k = 0; k < PvPlacer._NTimesToSplit; ++k) {
 				final double minX = bestLlrh[0];
@@ -351,6 +374,10 @@ public class FixedAngleOptimizer {
 						}
 					}
 				}
+				if (_massGrid != null && myBestLlrh != null) {
+					/** bestScore is exact; so must this be, to compete with it. */
+					myBestScore = getExactScore(myBestLlrh);
+				}
 				/** If someone beat it, reset bestLlrh. */
 				if (myBestScore > bestScore) {
 					bestScore = myBestScore;
@@ -465,10 +492,22 @@ public class FixedAngleOptimizer {
 				}
 			}
 		}
+		if (_massGrid != null) {
+			bestLlrhAndScore[4] = getExactScore(bestLlrhAndScore);
+		}
 		return bestLlrhAndScore;
 	}
 
+	/** From _massGrid if we have one. */
 	private double getScore(final double[] llrh) {
+		return getScore(llrh, _massGrid);
+	}
+
+	private double getExactScore(final double[] llrh) {
+		return getScore(llrh, /* massGrid= */null);
+	}
+
+	private double getScore(final double[] llrh, final MassGrid massGrid) {
 		final double left = llrh[0];
 		final double low = llrh[1];
 		final double right = llrh[2];
@@ -484,8 +523,9 @@ public class FixedAngleOptimizer {
 		for (final IntDouble objTpSw : _objTpToSweepWidth.keySet()) {
 			final int objTp = objTpSw._i;
 			final double sw = objTpSw._d;
-			final double mass = _massFinder.getMass(left, low, right, high, includeLeft, includeLow, includeRight,
-					includeHigh, objTp);
+			final double mass = massGrid != null ? massGrid.getMass(left, low, right, high, objTp)
+					: _massFinder.getMass(left, low, right, high, includeLeft, includeLow, includeRight, includeHigh,
+							objTp);
 			weightedSw += mass * sw;
 			totalMass += mass;
 		}
@@ -607,6 +647,10 @@ public class FixedAngleOptimizer {
 		};
 	}
 
+	public double getFirstLegHdg() {
+		return _firstLegHdg;
+	}
+
 	public ArrayList<CornersAndWeights> getCornersAndWeights() {
 		final ArrayList<CornersAndWeights> cornersAndWeightsS = new ArrayList<>();
 		final int ixLow = _bestXIndexFinder.coordToIndex(_massFinder.getMinX());
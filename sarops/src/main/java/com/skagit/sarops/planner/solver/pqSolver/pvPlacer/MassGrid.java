@@ -0,0 +1,97 @@
+package com.skagit.sarops.planner.solver.pqSolver.pvPlacer;
+
+import java.util.HashMap;
+
+/**
+ * An approximate stand-in for FixedAngleOptimizer's MassFinder. The twisted
+ * (x,y) plane between the MassFinder's extremes is cut into nCells by nCells
+ * cells, and each object type's mass is dropped into the cell that contains
+ * it. We keep, for each object type, the summed-area table of those cells,
+ * and treat each cell's mass as spread evenly over it. Hence a rectangle's
+ * mass is 4 bilinear lookups in that table, however many particles there are.
+ * The error is at most the mass of the cells that the rectangle's edges cut
+ * through, so it shrinks as nCells grows; FixedAngleOptimizer still rescores
+ * its winners with the MassFinder.
+ */
+class MassGrid {
+	final private double _minX;
+	final private double _minY;
+	final private double _cellWidthX;
+	final private double _cellWidthY;
+	final private int _nCells;
+	/**
+	 * For each object type, (nCells+1) by (nCells+1), x-major; entry (i,j) is
+	 * the mass of the cells with x-index < i and y-index < j.
+	 */
+	final private HashMap<Integer, double[]> _objTpToSums;
+
+	MassGrid(final double minX, final double minY, final double maxX, final double maxY, final int nCells,
+			final double[] xs, final double[] ys, final double[] wts, final int[] objTps) {
+		_nCells = Math.max(1, nCells);
+		_minX = minX;
+		_minY = minY;
+		/** A degenerate extent still gets cells of positive width. */
+		_cellWidthX = Math.max(maxX - minX, Double.MIN_NORMAL) / _nCells;
+		_cellWidthY = Math.max(maxY - minY, Double.MIN_NORMAL) / _nCells;
+		final int nP1 = _nCells + 1;
+		_objTpToSums = new HashMap<>();
+		final int nItems = xs.length;
+		for (int k = 0; k < nItems; ++k) {
+			double[] sums = _objTpToSums.get(objTps[k]);
+			if (sums == null) {
+				sums = new double[nP1 * nP1];
+				_objTpToSums.put(objTps[k], sums);
+			}
+			final int i = toCellIdx(xs[k], _minX, _cellWidthX);
+			final int j = toCellIdx(ys[k], _minY, _cellWidthY);
+			/** Cell (i,j)'s mass goes at (i+1,j+1) until we accumulate. */
+			sums[(i + 1) * nP1 + (j + 1)] += wts[k];
+		}
+		for (final double[] sums : _objTpToSums.values()) {
+			for (int i = 1; i < nP1; ++i) {
+				for (int j = 1; j < nP1; ++j) {
+					sums[i * nP1 + j] += sums[(i - 1) * nP1 + j] + sums[i * nP1 + j - 1]
+							- sums[(i - 1) * nP1 + j - 1];
+				}
+			}
+		}
+	}
+
+	private int toCellIdx(final double d, final double min, final double cellWidth) {
+		final int idx = (int) Math.floor((d - min) / cellWidth);
+		return Math.max(0, Math.min(_nCells - 1, idx));
+	}
+
+	/** The mass of objTp in [left,right] x [low,high]; 0 for an unknown objTp. */
+	double getMass(final double left, final double low, final double right, final double high, final int objTp) {
+		final double[] sums = _objTpToSums.get(objTp);
+		if (sums == null || !(left < right) || !(low < high)) {
+			return 0d;
+		}
+		final double u0 = toGridCoord(left, _minX, _cellWidthX);
+		final double u1 = toGridCoord(right, _minX, _cellWidthX);
+		final double v0 = toGridCoord(low, _minY, _cellWidthY);
+		final double v1 = toGridCoord(high, _minY, _cellWidthY);
+		final double mass = getCumMass(sums, u1, v1) - getCumMass(sums, u0, v1) - getCumMass(sums, u1, v0)
+				+ getCumMass(sums, u0, v0);
+		return Math.max(0d, mass);
+	}
+
+	private double toGridCoord(final double d, final double min, final double cellWidth) {
+		return Math.max(0d, Math.min(_nCells, (d - min) / cellWidth));
+	}
+
+	/** The table, bilinearly interpolated at grid coordinates (u,v). */
+	private double getCumMass(final double[] sums, final double u, final double v) {
+		final int nP1 = _nCells + 1;
+		final int i = Math.min(_nCells - 1, (int) u);
+		final int j = Math.min(_nCells - 1, (int) v);
+		final double a = u - i;
+		final double b = v - j;
+		final double s00 = sums[i * nP1 + j];
+		final double s01 = sums[i * nP1 + j + 1];
+		final double s10 = sums[(i + 1) * nP1 + j];
+		final double s11 = sums[(i + 1) * nP1 + j + 1];
+		return (1d - a) * ((1d - b) * s00 + b * s01) + a * ((1d - b) * s10 + b * s11);
+	}
+}
@@ -12,9 +12,12 @@ import com.skagit.sarops.planner.plannerModel.PlannerModel;
 import com.skagit.sarops.planner.posFunction.PosFunction;
 import com.skagit.sarops.planner.posFunction.PvValue;
 import com.skagit.sarops.planner.posFunction.pFailsCache.PFailsCache;
+import com.skagit.sarops.simCaseManager.SimCaseManager;
 import com.skagit.sarops.tracker.ParticleIndexes;
 import com.skagit.sarops.tracker.ParticleIndexes.ParticleIndexesState;
+import com.skagit.sarops.tracker.ParticlesFile;
 import com.skagit.sarops.tracker.lrcSet.LrcSet;
+import com.skagit.sarops.util.SimGlobalStrings;
 import com.skagit.util.IntDouble;
 import com.skagit.util.NumericalRoutines;
 import com.skagit.util.navigation.LatLng3;
@@ -95,10 +98,12 @@ public class PvPlacer {
 		final ArrayList<Integer> objTpsOfToComputeList = new ArrayList<>();
 		final ArrayList<LatLng3> midLatLngOfToComputeList = new ArrayList<>();
 		final ArrayList<Double> postKnownPriorsList = new ArrayList<>();
+		final ParticlesFile.TimeBracket midTimeBracket =
+				particlesManager.getTimeBracket(midRefSecs);
 		for (int k = 0; k < nFtPosFnPrtclsS; ++k) {
 			final ParticleIndexes prtclIndxs = ftPosFnPrtclsS[k];
 			final ParticleIndexesState prtclIndxsMidState =
-					particlesManager.computePrtclIndxsState(prtclIndxs, midRefSecs);
+					particlesManager.computePrtclIndxsState(prtclIndxs, midTimeBracket);
 			final LatLng3 midLatLng = prtclIndxsMidState.getLatLng();
 			final int objTp = prtclIndxsMidState.getObjectType();
 			if (sweepWidthMap.get(new IntDouble(objTp)) != null) {
@@ -173,18 +178,76 @@ public class PvPlacer {
 		}
 
 		/** Do the optimization. */
+		final SimCaseManager.SimCase simCase = planner.getSimCase();
+		final SimGlobalStrings simGlobalStrings = simCase.getSimGlobalStrings();
+		final int massGridNCells = simGlobalStrings.getPvPlacerMassGridNCells();
+		final long startMs = System.currentTimeMillis();
+		_bestFixedAngleOptimizer = sweepHeadings(simCase, prtclPlusS,
+				sweepWidthMap, avgSw, massGridNCells);
+		if (massGridNCells > 0 && simGlobalStrings.getPvPlacerMassGridBenchmark()) {
+			/** Do it again with the MassFinder alone, and report both. */
+			final long midMs = System.currentTimeMillis();
+			final FixedAngleOptimizer exactBest = sweepHeadings(simCase,
+					prtclPlusS, sweepWidthMap, avgSw, /* massGridNCells= */0);
+			final long endMs = System.currentTimeMillis();
+			SimCaseManager.out(simCase, String.format(
+					"PvPlacer[%s] MassGrid[%d]: %d ms, Hdg[%.1f] Score[%.6f]. "
+							+ "Exact: %d ms, Hdg[%.1f] Score[%.6f].",
+					_pv.getId(), massGridNCells, midMs - startMs,
+					_bestFixedAngleOptimizer.getFirstLegHdg(),
+					_bestFixedAngleOptimizer._score, endMs - midMs,
+					exactBest.getFirstLegHdg(), exactBest._score));
+		}
+	}
+
+	/**
+	 * The headings are independent, so the workers build their
+	 * FixedAngleOptimizers, and we pick the best in heading order, just as a
+	 * serial loop would; ties go to the first.
+	 */
+	private FixedAngleOptimizer sweepHeadings(
+			final SimCaseManager.SimCase simCase,
+			final ArrayList<ParticlePlus> prtclPlusS,
+			final HashMap<IntDouble, IntDouble> sweepWidthMap, final double avgSw,
+			final int massGridNCells) {
+		final FixedAngleOptimizer[] fixedAngleOptimizers =
+				new FixedAngleOptimizer[_NFixedAnglesToTry];
+		final SimCaseManager.RangeRunner rangeRunner =
+				new SimCaseManager.RangeRunner() {
+					@Override
+					public void runRange(final int k0, final int k1) {
+						for (int k = k0; k < k1; ++k) {
+							fixedAngleOptimizers[k] = buildFixedAngleOptimizer(k,
+									prtclPlusS, sweepWidthMap, avgSw, massGridNCells);
+						}
+					}
+				};
+		simCase.getSimCaseManager().parallelFor(simCase, "PvPlacer",
+				_NFixedAnglesToTry, /* chunkSize= */1, rangeRunner);
 		FixedAngleOptimizer bestFixedAngleOptimizer = null;
 		for (int k = 0; k < _NFixedAnglesToTry; ++k) {
-			final double firstLegHdg = k * (180d / (_NFixedAnglesToTry - 1d));
-			final FixedAngleOptimizer fixedAngleOptimizer =
-					new FixedAngleOptimizer(pv, _cstRefSecs, _searchDurationSecs,
-							_knowns, prtclPlusS, sweepWidthMap, firstLegHdg, avgSw);
+			if (fixedAngleOptimizers[k] == null) {
+				/** parallelFor stopped early; finish here, as before. */
+				fixedAngleOptimizers[k] = buildFixedAngleOptimizer(k, prtclPlusS,
+						sweepWidthMap, avgSw, massGridNCells);
+			}
+			final FixedAngleOptimizer fixedAngleOptimizer = fixedAngleOptimizers[k];
 			final double score = fixedAngleOptimizer._score;
 			if (bestFixedAngleOptimizer == null ||
 					score > bestFixedAngleOptimizer._score) {
 				bestFixedAngleOptimizer = fixedAngleOptimizer;
 			}
 		}
-		_bestFixedAngleOptimizer = bestFixedAngleOptimizer;
+		return bestFixedAngleOptimizer;
+	}
+
+	private FixedAngleOptimizer buildFixedAngleOptimizer(final int k,
+			final ArrayList<ParticlePlus> prtclPlusS,
+			final HashMap<IntDouble, IntDouble> sweepWidthMap, final double avgSw,
+			final int massGridNCells) {
+		final double firstLegHdg = k * (180d / (_NFixedAnglesToTry - 1d));
+		return new FixedAngleOptimizer(_pv, _cstRefSecs, _searchDurationSecs,
+				_knowns, prtclPlusS, sweepWidthMap, firstLegHdg, avgSw,
+				massGridNCells);
 	}
 }
@@ -12,17 +12,24 @@ import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.FutureTask;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.RunnableFuture;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
@@ -96,6 +103,7 @@ public class SimCaseManager {
 	private static int _MaxNProcessorsToUse;
 	private static int _NEngines;
 	private static int _MaxNParticlesFiles;
+	private static long _MaxParticlesFilesNBytes;
 	private static int _MaxNWorkerThreadsInOneCall;
 
 	private static class ThreadLoggerInfo {
@@ -125,13 +133,13 @@ public class SimCaseManager {
 		final String _key;
 		final long _fileTimeSecs;
 		final ParticlesFile _particlesFile;
-		long _lastAccessSecs;
+		final long _nBytes;
 
 		private ParticlesFilePlus(final String key, final ParticlesFile particlesFile, final long fileTimeSecs) {
 			_key = key;
 			_fileTimeSecs = fileTimeSecs;
 			_particlesFile = particlesFile;
-			_lastAccessSecs = System.currentTimeMillis() / 1000L;
+			_nBytes = particlesFile.estimateNBytes();
 		}
 	}
 
@@ -160,6 +168,11 @@ public class SimCaseManager {
 		private MainSaropsObject _mainSaropsObject;
 		/** For interruptions. */
 		public boolean _interrupted = false;
+		/**
+		 * Bounds this case's environmental box requests in flight at once; its
+		 * currents and winds fetch side by side and share it.
+		 */
+		private Semaphore _envFetchPermits = null;
 
 		private SimCase(final String rawClassName, final String[] runnerArgs) {
 			super(getReadableSimCaseName(rawClassName, runnerArgs));
@@ -183,6 +196,14 @@ public class SimCaseManager {
 			return _xmlSimPropertiesFilePath;
 		}
 
+		public synchronized Semaphore getEnvFetchPermits() {
+			if (_envFetchPermits == null) {
+				final int maxNInFlight = SimCaseManager.getSimGlobalStrings(this).getMaxNEnvFetchesInFlight();
+				_envFetchPermits = new Semaphore(Math.max(1, maxNInFlight), /* fair= */true);
+			}
+			return _envFetchPermits;
+		}
+
 		private SimCase(final MyLogger logger, final String engnName) {
 			super(engnName);
 			_logger = logger;
@@ -603,7 +624,17 @@ public class SimCaseManager {
 	final private QueueOfSimCases _queueOfSimCases;
 	private volatile boolean _mayProceed;
 	/** Miscellaneous duties. */
-	final private ArrayList<ParticlesFilePlus> _particlesFilePluses;
+	/**
+	 * The cache of ParticlesFiles, in least-recently-used-first order, and the
+	 * reads that are under way, so that two cases that want the same file share
+	 * one read. Both are guarded by _particlesFilePluses.
+	 */
+	final private LinkedHashMap<String, ParticlesFilePlus> _particlesFilePluses;
+	final private HashMap<String, FutureTask<ParticlesFile>> _particlesFileReads;
+	private long _particlesFilesNBytes;
+	private long _nParticlesFileHits;
+	private long _nParticlesFileMisses;
+	private long _nParticlesFileEvictions;
 	public Object _umbrellaObject;
 	final public MyLogger _globalLogger;
 
@@ -753,6 +784,9 @@ public class SimCaseManager {
 				final String s2 = _SimCaseManagerProperties.getProperty("SimCaseManager.MaxNParticlesFiles");
 				_MaxNParticlesFiles = Integer.parseInt(s2);
 				_SimCaseManagerProperties.setProperty("SimCaseManager.MaxNParticlesFiles", "" + _MaxNParticlesFiles);
+				final String s2a = _SimCaseManagerProperties.getProperty("SimCaseManager.MaxParticlesFilesMBs", "4096");
+				_MaxParticlesFilesNBytes = Long.parseLong(s2a.trim()) * 1024L * 1024L;
+				_SimCaseManagerProperties.setProperty("SimCaseManager.MaxParticlesFilesMBs", s2a.trim());
 				final String s3 = _SimCaseManagerProperties.getProperty("SimCaseManager.MaxNEngines");
 				final int maxNEngines = Integer.parseInt(s3);
 				/** Print it out when it is set for good (below). */
@@ -830,7 +864,10 @@ public class SimCaseManager {
 		_queueOfSimCases = new QueueOfSimCases(this);/**
 														 * For miscellaneous duties.
 														 */
-		_particlesFilePluses = new ArrayList<>();
+		_particlesFilePluses = new LinkedHashMap<>(16, 0.75f, /* accessOrder= */true);
+		_particlesFileReads = new HashMap<>();
+		_particlesFilesNBytes = 0L;
+		_nParticlesFileHits = _nParticlesFileMisses = _nParticlesFileEvictions = 0L;
 		_umbrellaObject = null;
 	}
 
@@ -1076,6 +1113,80 @@ public class SimCaseManager {
 		return _workersThreadPool.submitToWorkers(logger, runnable);
 	}
 
+	/** The body of a parallelFor; processes the indices in [k0, k1). */
+	public interface RangeRunner {
+		void runRange(int k0, int k1);
+	}
+
+	/**
+	 * Runs rangeRunner over [0, n) using this thread and whatever workers are
+	 * free. Rather than fixing each thread's share up front, every thread takes
+	 * the next contiguous chunk of chunkSize indices from a shared cursor until
+	 * there are none left. Hence a thread that draws expensive indices (e.g.,
+	 * particles bending along a coastline) simply takes fewer chunks and the
+	 * others pick up the slack. We stop handing out chunks once
+	 * simCase.getKeepGoing() is false or a chunk fails. The first failure is
+	 * rethrown, wrapped in a RuntimeException, after all threads are done.
+	 */
+	public void parallelFor(final SimCase simCase, final String whereFrom, final int n, final int chunkSize,
+			final RangeRunner rangeRunner) {
+		if (n <= 0) {
+			return;
+		}
+		final int chunkSizeX = Math.max(1, chunkSize);
+		final int nChunks = (n + (chunkSizeX - 1)) / chunkSizeX;
+		final AtomicInteger nextChunk = new AtomicInteger(0);
+		final AtomicReference<Throwable> failure = new AtomicReference<>(null);
+		final Runnable runnable = new Runnable() {
+			@Override
+			public void run() {
+				for (int iChunk = nextChunk.getAndIncrement(); iChunk < nChunks; iChunk = nextChunk
+						.getAndIncrement()) {
+					if (failure.get() != null || (simCase != null && !simCase.getKeepGoing())) {
+						return;
+					}
+					final int k0 = iChunk * chunkSizeX;
+					final int k1 = Math.min(n, k0 + chunkSizeX);
+					try {
+						rangeRunner.runRange(k0, k1);
+					} catch (final Throwable e) {
+						failure.compareAndSet(null, e);
+						return;
+					}
+				}
+			}
+		};
+		final ArrayList<Future<?>> futures = new ArrayList<>();
+		if (nChunks > 1) {
+			synchronized (getLockOnWorkersThreadPool()) {
+				final int nFreeWorkers = getNFreeWorkerThreads(simCase, whereFrom);
+				final int nWorkers = Math.max(0, Math.min(nChunks - 1, nFreeWorkers));
+				for (int iWorker = 0; iWorker < nWorkers; ++iWorker) {
+					final Future<?> future = submitToWorkers(simCase, runnable);
+					if (future == null) {
+						break;
+					}
+					futures.add(future);
+				}
+			}
+		}
+		/** This thread takes its share, and whatever the workers did not get to. */
+		runnable.run();
+		for (final Future<?> future : futures) {
+			try {
+				future.get();
+			} catch (final ExecutionException e) {
+				failure.compareAndSet(null, e.getCause() == null ? e : e.getCause());
+			} catch (final InterruptedException e) {
+				failure.compareAndSet(null, e);
+			}
+		}
+		final Throwable e = failure.get();
+		if (e != null) {
+			throw e instanceof RuntimeException ? (RuntimeException) e : new RuntimeException(e);
+		}
+	}
+
 	/** Manage ParticlesFiles. */
 	final private static String getKey(final String particlesFilePath) {
 		final String returnValue = StringUtilities.cleanUpFilePath(particlesFilePath);
@@ -1087,30 +1198,63 @@ public class SimCaseManager {
 			return null;
 		}
 		final String key = getKey(particlesFilePath);
+		final FutureTask<ParticlesFile> read;
+		boolean mustRead = false;
 		synchronized (_particlesFilePluses) {
-			for (int k = 0; k < _particlesFilePluses.size(); ++k) {
-				final ParticlesFilePlus particlesFilePlus = _particlesFilePluses.get(k);
-				if (particlesFilePlus._key.equals(key)) {
-					/** Check to see if there's a newer one on disc. */
-					final File particlesFileOnDisc = new File(key);
-					if (particlesFileOnDisc.exists()) {
-						final long fileTimeSecs = StaticUtilities.getTimeOfModificationMs(key) / 1000L;
-						if (fileTimeSecs > particlesFilePlus._fileTimeSecs) {
-							/**
-							 * Must delete it. Would like to log, with the dates.
-							 */
-							_particlesFilePluses.remove(k);
-							break;
-						}
-					}
-					/** Got one, no need to delete. */
-					particlesFilePlus._lastAccessSecs = System.currentTimeMillis() / 1000L;
-					out(simCase, "Retrieving  " + key + "(index[" + k + "]).");
+			final ParticlesFilePlus particlesFilePlus = _particlesFilePluses.get(key);
+			if (particlesFilePlus != null) {
+				/** Check to see if there's a newer one on disc. */
+				boolean isStale = false;
+				final File particlesFileOnDisc = new File(key);
+				if (particlesFileOnDisc.exists()) {
+					final long fileTimeSecs = StaticUtilities.getTimeOfModificationMs(key) / 1000L;
+					isStale = fileTimeSecs > particlesFilePlus._fileTimeSecs;
+				}
+				if (!isStale) {
+					/** Got one. */
+					++_nParticlesFileHits;
+					out(simCase, "Retrieving  " + key + ". " + getParticlesFileCacheString());
 					return particlesFilePlus._particlesFile;
 				}
+				/** Must delete it. */
+				removeParticlesFilePlus(simCase, key, "Stale");
+			}
+			++_nParticlesFileMisses;
+			FutureTask<ParticlesFile> inProgress = _particlesFileReads.get(key);
+			if (inProgress == null) {
+				inProgress = new FutureTask<>(new Callable<ParticlesFile>() {
+					@Override
+					public ParticlesFile call() {
+						return readParticlesFile(simCase, key);
+					}
+				});
+				_particlesFileReads.put(key, inProgress);
+				mustRead = true;
+			}
+			read = inProgress;
+		}
+		if (mustRead) {
+			try {
+				read.run();
+			} finally {
+				synchronized (_particlesFilePluses) {
+					_particlesFileReads.remove(key);
+				}
 			}
+		} else {
+			out(simCase, "Waiting for another case's read of " + key + ".");
 		}
-		/** No luck. Read it in. */
+		try {
+			return read.get();
+		} catch (final ExecutionException e) {
+			standardLogError(simCase, e);
+		} catch (final InterruptedException e) {
+			standardLogError(simCase, e);
+		}
+		return null;
+	}
+
+	private ParticlesFile readParticlesFile(final SimCase simCase, final String key) {
 		final long modelFileModSecs = StaticUtilities.getTimeOfModificationMs(key) / 1000L;
 		final long modelFileModInRefSecs = TimeUtilities.convertToRefSecs(modelFileModSecs);
 		final String modelFileModString = TimeUtilities.formatTime(modelFileModInRefSecs, true);
@@ -1128,50 +1272,71 @@ public class SimCaseManager {
 		return _MaxNParticlesFiles > 0;
 	}
 
+	/**
+	 * Adds particlesFile to the cache, replacing any that is already there under
+	 * the same key, and then evicting the least recently used ones until we are
+	 * within both _MaxNParticlesFiles and _MaxParticlesFilesNBytes.
+	 */
 	public void addParticlesFile(final SimCase simCase, final String particlesFilePath,
 			final ParticlesFile particlesFile, final long fileSecs) {
-		if (_particlesFilePluses != null) {
-			final String key = getKey(particlesFilePath);
-			final int currentSizeOfCache = _particlesFilePluses.size();
-			synchronized (_particlesFilePluses) {
-				/**
-				 * Delete the one that is already there or, if we need to, the one that is least
-				 * recently accessed.
-				 */
-				int indexToDelete = -1;
-				for (int k = 0; k < currentSizeOfCache; ++k) {
-					final ParticlesFilePlus particlesFilePlus = _particlesFilePluses.get(k);
-					if (particlesFilePlus._key.equalsIgnoreCase(key)) {
-						indexToDelete = k;
-						break;
-					}
-				}
-				if (indexToDelete == -1 && currentSizeOfCache >= _MaxNParticlesFiles) {
-					/** Must delete the least recently accessed. */
-					long minAccessSecs = Long.MAX_VALUE;
-					for (int k = 0; k < currentSizeOfCache; ++k) {
-						final ParticlesFilePlus particlesFilePlus = _particlesFilePluses.get(k);
-						final long thisAccessSecs = particlesFilePlus._lastAccessSecs;
-						if (thisAccessSecs < minAccessSecs) {
-							indexToDelete = k;
-							minAccessSecs = thisAccessSecs;
-						}
-					}
-				}
-				if (indexToDelete != -1) {
-					/** Must delete something. */
-					final ParticlesFilePlus particlesFilePlus = _particlesFilePluses.get(indexToDelete);
-					out(simCase, "Deleting " + particlesFilePlus._key);
-					_particlesFilePluses.remove(indexToDelete);
-				}
-				/**
-				 * Presumably, we have room. We do only if _MaxNParticlesFiles > 0.
-				 */
-				if (_MaxNParticlesFiles > 0) {
-					out(simCase, "Adding " + key);
-					_particlesFilePluses.add(new ParticlesFilePlus(key, particlesFile, fileSecs));
-				}
+		if (_particlesFilePluses == null || _MaxNParticlesFiles <= 0) {
+			return;
+		}
+		final String key = getKey(particlesFilePath);
+		final ParticlesFilePlus newParticlesFilePlus = new ParticlesFilePlus(key, particlesFile, fileSecs);
+		final long nBytes = newParticlesFilePlus._nBytes;
+		synchronized (_particlesFilePluses) {
+			removeParticlesFilePlus(simCase, key, "Replacing");
+			if (nBytes > _MaxParticlesFilesNBytes) {
+				out(simCase, String.format("Not caching %s; %d MBs is too big.", key, nBytes / (1024L * 1024L)));
+				return;
+			}
+			while (!_particlesFilePluses.isEmpty() && (_particlesFilePluses.size() >= _MaxNParticlesFiles
+					|| _particlesFilesNBytes + nBytes > _MaxParticlesFilesNBytes)) {
+				final String eldestKey = _particlesFilePluses.keySet().iterator().next();
+				removeParticlesFilePlus(simCase, eldestKey, "Evicting");
+				++_nParticlesFileEvictions;
 			}
+			_particlesFilePluses.put(key, newParticlesFilePlus);
+			_particlesFilesNBytes += nBytes;
+			out(simCase, "Adding " + key + ". " + getParticlesFileCacheString());
+		}
+	}
+
+	/** Caller must hold the lock on _particlesFilePluses. */
+	private void removeParticlesFilePlus(final SimCase simCase, final String key, final String why) {
+		final ParticlesFilePlus particlesFilePlus = _particlesFilePluses.remove(key);
+		if (particlesFilePlus != null) {
+			_particlesFilesNBytes -= particlesFilePlus._nBytes;
+			particlesFilePlus._particlesFile.closePagedFile();
+			out(simCase, String.format("%s %s", why, key));
+		}
+	}
+
+	public long getNParticlesFileHits() {
+		synchronized (_particlesFilePluses) {
+			return _nParticlesFileHits;
+		}
+	}
+
+	public long getNParticlesFileMisses() {
+		synchronized (_particlesFilePluses) {
+			return _nParticlesFileMisses;
+		}
+	}
+
+	public long getNParticlesFileEvictions() {
+		synchronized (_particlesFilePluses) {
+			return _nParticlesFileEvictions;
+		}
+	}
+
+	public String getParticlesFileCacheString() {
+		synchronized (_particlesFilePluses) {
+			return String.format("ParticlesFiles Cache: nFiles[%d] MBs[%d/%d] nHits[%d] nMisses[%d] nEvictions[%d]",
+					_particlesFilePluses.size(), _particlesFilesNBytes / (1024L * 1024L),
+					_MaxParticlesFilesNBytes / (1024L * 1024L), _nParticlesFileHits, _nParticlesFileMisses,
+					_nParticlesFileEvictions);
 		}
 	}
 
@@ -1182,7 +1347,12 @@ public class SimCaseManager {
 	public void flushParticlesFiles() {
 		if (_particlesFilePluses != null) {
 			synchronized (_particlesFilePluses) {
+				/** As in removeParticlesFilePlus, release each one's paged file. */
+				for (final ParticlesFilePlus particlesFilePlus : _particlesFilePluses.values()) {
+					particlesFilePlus._particlesFile.closePagedFile();
+				}
 				_particlesFilePluses.clear();
+				_particlesFilesNBytes = 0L;
 			}
 		}
 		SizeOf.runGC(/* MyLogger= */null);
@@ -46,6 +46,22 @@ public class DistressStateVector extends StateVector {
 	final private static int _NTimesToUseIdealHdg = 3;
 	final private static int _NTimesToIterateBeforeGivingUp = 6;
 
+	/**
+	 * Scratch for the moving part of coreTimeUpdate, so that the hot loop does not
+	 * allocate drift's in-out arrays for every particle and step.
+	 */
+	private static class DriftScratch {
+		final private float[] _zs = new float[4];
+		final private boolean[] _stuckOnLand = new boolean[1];
+	}
+
+	final private static ThreadLocal<DriftScratch> _DriftScratches = new ThreadLocal<>() {
+		@Override
+		protected DriftScratch initialValue() {
+			return new DriftScratch();
+		}
+	};
+
 	@Override
 	public StateVector timeUpdate(final Tracker tracker, final Scenario scenario, final long[] simSecsS, final int iT) {
 		final Model model = tracker.getModel();
@@ -69,8 +85,6 @@ public class DistressStateVector extends StateVector {
 
 	final public DistressStateVector coreTimeUpdate(final Tracker tracker, final long[] simSecsS, final int iT,
 			final boolean updateParticleTail) {
-		final Model model = tracker.getModel();
-		final boolean riverine = model.isRiverine();
 		final long currentSimSecs = getSimSecs();
 		final long simSecs = simSecsS[iT];
 		//
@@ -81,7 +95,6 @@ public class DistressStateVector extends StateVector {
 			 */
 			return this;
 		}
-		final Randomx random = _particle.getRandom();
 		final LatLng3 latLng0 = _latLng;
 		--_particle._remainingPenalty;
 		if (isStuckOnLand() || _particle._remainingPenalty > 0) {
@@ -98,7 +111,39 @@ public class DistressStateVector extends StateVector {
 		}
 
 		/** We neither start stuck on land nor anchored; we're moving. */
-		final LeewayCalculator leewayCalculator = getLeewayCalculator();
+		final DriftScratch scratch = _DriftScratches.get();
+		final float[] zs = scratch._zs;
+		getZs(zs, /* zIdx= */0);
+		final boolean[] stuckOnLand = scratch._stuckOnLand;
+		stuckOnLand[0] = false;
+		final LatLng3 latLng = drift(tracker, _particle, currentSimSecs, simSecs, latLng0, zs, /* zIdx= */0,
+				stuckOnLand, /* stuckIdx= */0);
+		final DistressStateVector newStateVector = new DistressStateVector(this, simSecs, updateParticleTail);
+		newStateVector.setZs(zs, /* zIdx= */0);
+		newStateVector.setLatLng(latLng);
+		if (stuckOnLand[0]) {
+			newStateVector.setIsStuckOnLand();
+		}
+		return newStateVector;
+	}
+
+	/**
+	 * The moving part of coreTimeUpdate, on primitives so that ParticleColumns can
+	 * share it. zs[zIdx] through zs[zIdx + 3] hold zSeaEast, zSeaNorth, zWindEast,
+	 * and zWindNorth on entry, and the new draws on return. stuckOnLand[stuckIdx]
+	 * is set if a sticky particle runs aground. Returns the new position.
+	 */
+	static LatLng3 drift(final Tracker tracker, final Particle particle, final long currentSimSecs,
+			final long simSecs, final LatLng3 latLng0, final float[] zs, final int zIdx, final boolean[] stuckOnLand,
+			final int stuckIdx) {
+		final Model model = tracker.getModel();
+		final boolean riverine = model.isRiverine();
+		final Randomx random = particle.getRandom();
+		final LeewayCalculator leewayCalculator = particle.getLeewayCalculator();
+		final float zSeaEast = zs[zIdx];
+		final float zSeaNorth = zs[zIdx + 1];
+		final float zWindEast = zs[zIdx + 2];
+		final float zWindNorth = zs[zIdx + 3];
 		final double[] z = new double[] {
 				Double.NaN, Double.NaN, Double.NaN, Double.NaN
 		};
@@ -123,7 +168,7 @@ public class DistressStateVector extends StateVector {
 			/* Set the draw to zero if ... */
 			final double zDrawNorth;
 			final double zDrawEast;
-			if (!_particle.isEnvMean() && currentsUvGetter.useRandomDuringUpdates()) {
+			if (!particle.isEnvMean() && currentsUvGetter.useRandomDuringUpdates()) {
 				zDrawNorth = random.getTruncatedGaussian();
 				zDrawEast = random.getTruncatedGaussian();
 			} else {
@@ -132,17 +177,17 @@ public class DistressStateVector extends StateVector {
 			}
 			double newZNorth = zDrawNorth;
 			double newZEast = zDrawEast;
-			if (!Double.isNaN(_zSeaNorth)) {
+			if (!Double.isNaN(zSeaNorth)) {
 				/**
 				 * rho is 1 for riverine downstream and 0 for riverine cross-stream. It depends
 				 * on the half life otherwise.
 				 */
 				if (riverine) {
-					newZEast = _zSeaEast;
+					newZEast = zSeaEast;
 					newZNorth = zDrawNorth;
 				} else {
 					final double rho;
-					if (_particle._fullPenalty > 0) {
+					if (particle._fullPenalty > 0) {
 						/** Just emerged from penalty box; rho is 0. */
 						rho = 0d;
 					} else {
@@ -155,8 +200,8 @@ public class DistressStateVector extends StateVector {
 						}
 					}
 					final double rhoPrime = Math.sqrt(1d - rho * rho);
-					newZNorth = rho * _zSeaNorth + rhoPrime * zDrawNorth;
-					newZEast = rho * _zSeaEast + rhoPrime * zDrawEast;
+					newZNorth = rho * zSeaNorth + rhoPrime * zDrawNorth;
+					newZEast = rho * zSeaEast + rhoPrime * zDrawEast;
 				}
 			}
 			z[0] = newZEast;
@@ -216,7 +261,7 @@ public class DistressStateVector extends StateVector {
 			/** Perturb the wind velocity. */
 			final double zDrawEast;
 			final double zDrawNorth;
-			if (!_particle.isEnvMean() && windsUvGetter.useRandomDuringUpdates()) {
+			if (!particle.isEnvMean() && windsUvGetter.useRandomDuringUpdates()) {
 				zDrawNorth = random.getTruncatedGaussian();
 				zDrawEast = random.getTruncatedGaussian();
 			} else {
@@ -225,18 +270,18 @@ public class DistressStateVector extends StateVector {
 			}
 			double newZNorth = zDrawNorth;
 			double newZEast = zDrawEast;
-			if (!Double.isNaN(_zWindNorth)) {
+			if (!Double.isNaN(zWindNorth)) {
 				final double windHalfLifeSecs = windsUvGetter.getHalfLifeSecs();
 				final double rho;
-				if (_particle._fullPenalty == 0 && windHalfLifeSecs > 0d) {
+				if (particle._fullPenalty == 0 && windHalfLifeSecs > 0d) {
 					final double windDecayRatePerSecond = _Ln2 / windHalfLifeSecs;
 					rho = Math.exp(-windDecayRatePerSecond * deltaSecs);
 				} else {
 					rho = 0d;
 				}
 				final double rhoPrime = Math.sqrt(1d - rho * rho);
-				newZNorth = rho * _zWindNorth + rhoPrime * zDrawNorth;
-				newZEast = rho * _zWindEast + rhoPrime * zDrawEast;
+				newZNorth = rho * zWindNorth + rhoPrime * zDrawNorth;
+				newZEast = rho * zWindEast + rhoPrime * zDrawEast;
 			}
 			z[2] = newZEast;
 			z[3] = newZNorth;
@@ -251,7 +296,7 @@ public class DistressStateVector extends StateVector {
 			final float dnWindEastSpeed = (float) (downWindU + newZEast * dnWindDu);
 			final float downWindNorthSpeed = (float) (downWindV + newZNorth * dnWindDv);
 			final double[] eastAndNorthLeewaySpeeds = leewayCalculator.getEastAndNorthLeewaySpeeds(dnWindEastSpeed,
-					downWindNorthSpeed, simSecs, _particle);
+					downWindNorthSpeed, simSecs, particle);
 			/** We do a simple move with the corresponding leeway speed. */
 			windEastMoveR = (eastAndNorthLeewaySpeeds[0] * speedFactor);
 			windNorthMoveR = (eastAndNorthLeewaySpeeds[1] * speedFactor);
@@ -262,26 +307,25 @@ public class DistressStateVector extends StateVector {
 		final double eastMoveR = seaEastMoveR + windEastMoveR;
 		final double northMoveR = seaNorthMoveR + windNorthMoveR;
 		/** Update the z draws. */
-		final DistressStateVector newStateVector = new DistressStateVector(this, simSecs, updateParticleTail);
-		newStateVector._zSeaEast = (float) z[0];
-		newStateVector._zSeaNorth = (float) z[1];
-		newStateVector._zWindEast = (float) z[2];
-		newStateVector._zWindNorth = (float) z[3];
+		zs[zIdx] = (float) z[0];
+		zs[zIdx + 1] = (float) z[1];
+		zs[zIdx + 2] = (float) z[2];
+		zs[zIdx + 3] = (float) z[3];
 
 		/**
 		 * Deal with land. We now have a target latLng if land does not get in the way.
 		 * Recall that we are starting not stuck on land.
 		 */
-		final long mySimSecs = getSimSecs();
-		final TangentCylinder myTangentCylinder = _particle.getTangentCylinderFromSimSecs(latLng0, mySimSecs);
+		final long mySimSecs = currentSimSecs;
+		final TangentCylinder myTangentCylinder = particle.getTangentCylinderFromSimSecs(latLng0, mySimSecs);
 		final TangentCylinder.FlatLatLng initialFlatLatLng = myTangentCylinder.convertToMyFlatLatLng(latLng0);
 		final LatLng3 latLngAfterWind = LatLng3.makeBasicLatLng3(initialFlatLatLng.addOffsets(eastMoveR, northMoveR));
-		final ParticleIndexes prtclIndxs = _particle.getParticleIndexes();
+		final ParticleIndexes prtclIndxs = particle.getParticleIndexes();
 		final boolean isSticky;
 		if (prtclIndxs != null) {
 			isSticky = model.getIsSticky(prtclIndxs);
 		} else {
-			isSticky = _particle.getGuaranteedSticky();
+			isSticky = particle.getGuaranteedSticky();
 		}
 		final ShorelineFinder shorelineFinder = model.getShorelineFinder();
 		double hdg = MathX.initialHdgX(latLng0, latLngAfterWind);
@@ -292,13 +336,11 @@ public class DistressStateVector extends StateVector {
 			final StopAndBlock stopAndBlock = new StopAndBlock(logger, shorelineFinder, latLng0, hdg, completeMeters,
 					_MInc, /* debug= */false);
 			if (stopAndBlock.ranIntoSomething()) {
-				newStateVector.setLatLng(stopAndBlock._stopLatLng);
-				newStateVector.setIsStuckOnLand();
-				_particle._fullPenalty = _particle._remainingPenalty = Integer.MAX_VALUE;
-			} else {
-				newStateVector.setLatLng(latLngAfterWind);
+				stuckOnLand[stuckIdx] = true;
+				particle._fullPenalty = particle._remainingPenalty = Integer.MAX_VALUE;
+				return stopAndBlock._stopLatLng;
 			}
-			return newStateVector;
+			return latLngAfterWind;
 		}
 
 		/**
@@ -400,25 +442,44 @@ public class DistressStateVector extends StateVector {
 				hdg = bestHdg;
 			}
 		}
-		newStateVector.setLatLng(latLng);
 		if (clearedLand || riverine) {
-			_particle._fullPenalty = _particle._remainingPenalty = 0;
+			particle._fullPenalty = particle._remainingPenalty = 0;
 		} else {
-			_particle._fullPenalty = (int) Math.round(1.5 * (_particle._fullPenalty + 1d));
-			_particle._remainingPenalty = _particle._fullPenalty;
+			particle._fullPenalty = (int) Math.round(1.5 * (particle._fullPenalty + 1d));
+			particle._remainingPenalty = particle._fullPenalty;
 		}
-		return newStateVector;
+		return latLng;
+	}
+
+
+	/** Copies the z-draws into zs[zIdx] through zs[zIdx + 3]. */
+	void getZs(final float[] zs, final int zIdx) {
+		zs[zIdx] = _zSeaEast;
+		zs[zIdx + 1] = _zSeaNorth;
+		zs[zIdx + 2] = _zWindEast;
+		zs[zIdx + 3] = _zWindNorth;
+	}
+
+	void setZs(final float[] zs, final int zIdx) {
+		_zSeaEast = zs[zIdx];
+		_zSeaNorth = zs[zIdx + 1];
+		_zWindEast = zs[zIdx + 2];
+		_zWindNorth = zs[zIdx + 3];
 	}
 
 	@Override
 	public String getDescription() {
-		if (isStuckOnLand()) {
-			return "Distress Landed particle of type " + getSearchObjectType().getId();
+		return getDescription(isStuckOnLand(), isAnchored(), getSearchObjectType().getId());
+	}
+
+	static String getDescription(final boolean stuckOnLand, final boolean anchored, final int sotId) {
+		if (stuckOnLand) {
+			return "Distress Landed particle of type " + sotId;
 		}
-		if (isAnchored()) {
-			return "Distress Anchored particle of type " + getSearchObjectType().getId();
+		if (anchored) {
+			return "Distress Anchored particle of type " + sotId;
 		}
-		return "Distress particle of type " + getSearchObjectType().getId();
+		return "Distress particle of type " + sotId;
 	}
 
 	@Override
@@ -0,0 +1,132 @@
+package com.skagit.sarops.tracker;
+
+import java.util.Arrays;
+
+import com.skagit.util.navigation.LatLng3;
+
+/**
+ * Structure-of-arrays storage for the adrift core particles of one
+ * ParticleSet. Once a particle is in distress, ParticleSet hands it to its
+ * ParticleColumns, which keeps its time, position, z-draws, and flags in
+ * columns and advances it with DistressStateVector.drift instead of chaining a
+ * new DistressStateVector per time step. Since both engines run the same
+ * kernel and make the same random draws, the tracks are identical. Positions
+ * stay as LatLng3s because the environment and shoreline look-ups take them;
+ * rebuilding them from lats and lngs would not be bit-for-bit the same.
+ * Penalties stay in Particle, where drift updates them.
+ */
+class ParticleColumns {
+	final private Particle[] _particles;
+	/** _inColumns[k] is true iff particle k is being carried here. */
+	final private boolean[] _inColumns;
+	final private long[] _simSecsS;
+	final private LatLng3[] _latLngs;
+	/** Four per particle: zSeaEast, zSeaNorth, zWindEast, and zWindNorth. */
+	final private float[] _zs;
+	final private boolean[] _stuckOnLand;
+	final private boolean[] _anchored;
+
+	ParticleColumns(final Particle[] particles) {
+		_particles = particles;
+		final int nParticles = particles.length;
+		_inColumns = new boolean[nParticles];
+		_simSecsS = new long[nParticles];
+		_latLngs = new LatLng3[nParticles];
+		_zs = new float[4 * nParticles];
+		_stuckOnLand = new boolean[nParticles];
+		_anchored = new boolean[nParticles];
+	}
+
+	boolean isInColumns(final int k) {
+		return _inColumns[k];
+	}
+
+	/** Loads particle k from its (distress) latest StateVector. */
+	void adopt(final int k, final DistressStateVector dsv) {
+		_simSecsS[k] = dsv.getSimSecs();
+		_latLngs[k] = dsv.getLatLng();
+		dsv.getZs(_zs, 4 * k);
+		_stuckOnLand[k] = dsv.isStuckOnLand();
+		_anchored[k] = dsv.isAnchored();
+		_inColumns[k] = true;
+	}
+
+	/**
+	 * Mirrors ParticleSet.timeUpdateOneParticle followed by
+	 * DistressStateVector.coreTimeUpdate, including the resetting of the z-draws
+	 * whenever coreTimeUpdate builds a fresh DistressStateVector without moving.
+	 */
+	void timeUpdate(final Tracker tracker, final int k, final long simSecs) {
+		final int zIdx = 4 * k;
+		if (_stuckOnLand[k]) {
+			_simSecsS[k] = simSecs;
+			_anchored[k] = false;
+			Arrays.fill(_zs, zIdx, zIdx + 4, Float.NaN);
+			return;
+		}
+		if (_anchored[k]) {
+			_simSecsS[k] = simSecs;
+			Arrays.fill(_zs, zIdx, zIdx + 4, Float.NaN);
+			return;
+		}
+		final long currentSimSecs = _simSecsS[k];
+		if (currentSimSecs >= simSecs) {
+			return;
+		}
+		final Particle particle = _particles[k];
+		--particle._remainingPenalty;
+		if (particle._remainingPenalty > 0) {
+			_simSecsS[k] = simSecs;
+			_stuckOnLand[k] = true;
+			Arrays.fill(_zs, zIdx, zIdx + 4, Float.NaN);
+			return;
+		}
+		_latLngs[k] = DistressStateVector.drift(tracker, particle, currentSimSecs, simSecs, _latLngs[k], _zs, zIdx,
+				_stuckOnLand, k);
+		_simSecsS[k] = simSecs;
+	}
+
+	long getSimSecs(final int k) {
+		return _simSecsS[k];
+	}
+
+	LatLng3 getLatLng(final int k) {
+		return _latLngs[k];
+	}
+
+	boolean isStuckOnLand(final int k) {
+		return _stuckOnLand[k];
+	}
+
+	String getDescription(final int k) {
+		final int sotId = _particles[k].getSearchObjectTypeFromSimSecs(_simSecsS[k]).getId();
+		return DistressStateVector.getDescription(_stuckOnLand[k], _anchored[k], sotId);
+	}
+
+	/**
+	 * Writes each carried particle back as a single DistressStateVector at the end
+	 * of its tail, so that anything reading the Particles afterwards sees their
+	 * final states.
+	 */
+	void flush() {
+		final int nParticles = _particles.length;
+		for (int k = 0; k < nParticles; ++k) {
+			if (!_inColumns[k]) {
+				continue;
+			}
+			final Particle particle = _particles[k];
+			final StateVector tail = particle.getLatestStateVector();
+			final DistressStateVector dsv = new DistressStateVector(tail, _simSecsS[k], /* updateParticleTail= */true);
+			dsv.setLatLng(_latLngs[k]);
+			dsv.setZs(_zs, 4 * k);
+			if (_stuckOnLand[k]) {
+				dsv.setIsStuckOnLand();
+			}
+			if (_anchored[k]) {
+				dsv.setIsAnchored();
+			}
+			_inColumns[k] = false;
+			_latLngs[k] = null;
+		}
+	}
+}
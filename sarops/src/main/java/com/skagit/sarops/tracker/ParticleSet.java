@@ -1,10 +1,8 @@
 package com.skagit.sarops.tracker;
 
-import java.util.ArrayList;
 import java.util.TreeMap;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.Future;
 
+import com.skagit.sarops.environment.CurrentsUvGetter;
 import com.skagit.sarops.model.Model;
 import com.skagit.sarops.model.Scenario;
 import com.skagit.sarops.model.SearchObjectType;
@@ -24,6 +22,8 @@ public class ParticleSet {
 	final public Particle[] _particles;
 	final private Particle[] _envMeanParticles;
 	final private TreeMap<Integer, Integer> _distressTypeToCount;
+	/** Null unless we are using the structure-of-arrays engine. */
+	final private ParticleColumns _columns;
 
 	/** Simple constructor; does not initialize _particles. */
 	ParticleSet(final Tracker tracker, final Scenario scenario, final int nParticles) {
@@ -33,6 +33,8 @@ public class ParticleSet {
 		final int nSearchObjectTypes = tracker.getModel().getNSearchObjectTypes();
 		_envMeanParticles = new Particle[nSearchObjectTypes];
 		_tracker = tracker;
+		final SimGlobalStrings simGlobalStrings = SimCaseManager.getSimGlobalStrings(tracker.getSimCase());
+		_columns = simGlobalStrings.getUseParticleColumns() ? new ParticleColumns(_particles) : null;
 	}
 
 	public int getNParticles(final int sotId) {
@@ -40,79 +42,22 @@ public class ParticleSet {
 		return nParticles == null ? 0 : nParticles;
 	}
 
-	/** Advances all particles to simSecsS[iT]. */
-	void timeUpdate(final long[] simSecsS, final int iT, final ParticlesFile particlesFile) {
-		/**
-		 * Create and start the threads, saving one "slice" for the current thread.
-		 */
-		final int nToCompute = _particles.length;
-		final SimCaseManager.SimCase simCase = _tracker.getSimCase();
-		final SimCaseManager simCaseManager = simCase.getSimCaseManager();
-		final SimGlobalStrings simGlobalStrings = simCase.getSimGlobalStrings();
-		/** Boilerplate for multithreading... */
-		final int minNPerSlice = simGlobalStrings.getMinNPerSliceInTracker();
-		final Object lockOnWorkersThreadPool = simCaseManager.getLockOnWorkersThreadPool();
-		Future<?>[] futures = null;
-		final ArrayList<Integer> notTaskedISlices = new ArrayList<>();
-		int nSlices = (nToCompute + (minNPerSlice - 1)) / minNPerSlice;
-		int nWorkers = 0;
-		if (nSlices > 1) {
-			synchronized (lockOnWorkersThreadPool) {
-				final int nFreeWorkers = simCaseManager.getNFreeWorkerThreads(simCase, "Time Update In ParticleSet");
-				nWorkers = Math.max(0, Math.min(nSlices - 1, nFreeWorkers));
-				if (nWorkers < 2) {
-					nWorkers = 0;
-					nSlices = 1;
-				} else {
-					final int finalNSlices = nSlices = nWorkers + 1;
-					futures = new Future<?>[nWorkers];
-					for (int iWorker = 0; iWorker < nWorkers; ++iWorker) {
-						final int finalIWorker = iWorker;
-						final Runnable runnable = new Runnable() {
-							@Override
-							public void run() {
-								/** ... to here. */
-								runTimeUpdateSlice(finalIWorker, finalNSlices, simSecsS, iT, particlesFile);
-							}
-						};
-						futures[iWorker] = simCaseManager.submitToWorkers(simCase, runnable);
-						if (futures[iWorker] == null) {
-							notTaskedISlices.add(iWorker);
-						}
-					}
-				}
-			}
-		}
-		for (int iSlice = nWorkers; iSlice < nSlices; ++iSlice) {
-			notTaskedISlices.add(iSlice);
-		}
-		for (final int iSlice : notTaskedISlices) {
-			runTimeUpdateSlice(iSlice, nSlices, simSecsS, iT, particlesFile);
-			if (!_tracker.getKeepGoing()) {
-				break;
-			}
-		}
-		try {
-			for (int iWorker = 0; iWorker < nWorkers; ++iWorker) {
-				if (futures[iWorker] != null) {
-					futures[iWorker].get();
-				}
-			}
-		} catch (final ExecutionException e) {
-			SimCaseManager.standardLogError(simCase, e);
-		} catch (final InterruptedException e) {
-			SimCaseManager.standardLogError(simCase, e);
-		}
+	/**
+	 * The number of particles that runTimeUpdateRange works on; the core
+	 * particles followed by the environmental mean particles.
+	 */
+	int getNToTimeUpdate() {
+		return _particles.length + _envMeanParticles.length;
 	}
 
-	private void runTimeUpdateSlice(final int iWorker, final int nSlices, final long[] simSecsS, final int iT,
+	/** Advances particles k0 through k1 - 1 to simSecsS[iT]. */
+	void runTimeUpdateRange(final int k0, final int k1, final long[] simSecsS, final int iT,
 			final ParticlesFile particlesFile) {
 		final int nCoreParticles = _particles.length;
 		final Model model = _tracker.getModel();
-		final int nSearchObjectTypes = model.getNSearchObjectTypes();
-		final int nAllParticles = nCoreParticles + nSearchObjectTypes;
 		final int iScenario = _scenario.getIScenario();
-		for (int iParticleX = iWorker; iParticleX < nAllParticles; iParticleX += nSlices) {
+		final CurrentsUvGetter currentsUvGetter = model.getCurrentsUvGetter();
+		for (int iParticleX = k0; iParticleX < k1; ++iParticleX) {
 			final Particle particle;
 			final ParticleIndexes prtclIndxs;
 			/** sotOrd stands for searchObjectTypeOrdinal. */
@@ -132,6 +77,21 @@ public class ParticleSet {
 				}
 				prtclIndxs = ParticleIndexes.getMeanOne(model, iScenario, sotOrd);
 			}
+			if (iParticle >= 0 && _columns != null) {
+				if (!_columns.isInColumns(iParticle)) {
+					final StateVector latestStateVector = particle.getLatestStateVector();
+					if (latestStateVector.isDistress() && !currentsUvGetter.hasAuxiliaryProcessing()) {
+						_columns.adopt(iParticle, (DistressStateVector) latestStateVector);
+					}
+				}
+				if (_columns.isInColumns(iParticle)) {
+					runColumnsTimeUpdate(iParticle, particle, simSecsS[iT], particlesFile);
+					if (!_tracker.getKeepGoing()) {
+						return;
+					}
+					continue;
+				}
+			}
 			final StateVector latestStateVectorA = particle.getLatestStateVector();
 			timeUpdateOneParticle(simSecsS, iT, latestStateVectorA);
 			if (!_tracker.getKeepGoing()) {
@@ -174,6 +134,60 @@ public class ParticleSet {
 		}
 	}
 
+	/**
+	 * The same as the body of runTimeUpdateRange, but for a particle that is
+	 * carried in _columns.
+	 */
+	private void runColumnsTimeUpdate(final int iParticle, final Particle particle, final long simSecs,
+			final ParticlesFile particlesFile) {
+		final Model model = _tracker.getModel();
+		_columns.timeUpdate(_tracker, iParticle, simSecs);
+		if (_columns.isStuckOnLand(iParticle)) {
+			final long thisSimSecs = _columns.getSimSecs(iParticle);
+			final long birthSimSecs = particle.getBirthSimSecs();
+			final long landingSimSecs;
+			if (model.getReverseDrift()) {
+				landingSimSecs = Math.min(thisSimSecs, birthSimSecs);
+			} else {
+				landingSimSecs = Math.max(thisSimSecs, birthSimSecs);
+			}
+			if (particle.setLandingSimSecs(landingSimSecs)) {
+				particlesFile.setLandingRefSecs(particle.getParticleIndexes(), model.getRefSecs(landingSimSecs));
+			}
+		}
+		final LatLng3 position = _columns.getLatLng(iParticle);
+		final long refSecs = model.getRefSecs(simSecs);
+		particlesFile.setPositionAndSvt(_scenario.getIScenario(), iParticle, position, StateVectorType.DISTRESS,
+				refSecs);
+		if (model.isOutOfArea(position)) {
+			final String typeOfParticle = _columns.getDescription(iParticle);
+			model.logOutOfArea(refSecs, particle.getParticleIndexes(), typeOfParticle, position);
+		}
+	}
+
+	/** The latest position of core particle iParticle. */
+	LatLng3 getLatestLatLng(final int iParticle) {
+		if (_columns != null && _columns.isInColumns(iParticle)) {
+			return _columns.getLatLng(iParticle);
+		}
+		return _particles[iParticle].getLatestStateVector().getLatLng();
+	}
+
+	/** The time of the latest position of core particle iParticle. */
+	long getLatestSimSecs(final int iParticle) {
+		if (_columns != null && _columns.isInColumns(iParticle)) {
+			return _columns.getSimSecs(iParticle);
+		}
+		return _particles[iParticle].getLatestStateVector().getSimSecs();
+	}
+
+	/** Brings the Particles' tails up to date with _columns. */
+	void flushColumns() {
+		if (_columns != null) {
+			_columns.flush();
+		}
+	}
+
 	/** Advances one particle to simSecs. */
 	private void timeUpdateOneParticle(final long[] simSecsS, final int iT, final StateVector previousStateVector) {
 		final boolean updateParticleTail = true;
@@ -132,8 +132,15 @@ public class ParticlesFile {
 	final public static String _VarOcSvtOrd = "ocSvtOrdinal";
 
 	final private SimCaseManager.SimCase _simCase;
+	/** Use.Primitive.Particle.Positions; see getLatLng. */
+	final private boolean _usePrimitivePositions;
 	final private Model _model;
 	private long[] _refSecsS;
+	/**
+	 * _refSecsS's common gap if it is evenly spaced, -1 if it is not, and 0 if
+	 * we have not looked yet.
+	 */
+	private volatile long _uniformGapSecs = 0L;
 	private int[][] _distressTypes;
 	private int[][] _underwayTypes;
 	/** Regular Particles' variables. */
@@ -171,6 +178,14 @@ public class ParticlesFile {
 	private float[][][] _ocEastBoats;
 	private float[][][] _ocNorthBoats;
 	private int[][][] _ocSvtOrdinals;
+	/**
+	 * Non-null iff this was read from disk with Page.Particles.Files on. Then the
+	 * [time][scenario][particle] arrays above are null and we get their time
+	 * slices from _pager. Such a ParticlesFile is read-only.
+	 */
+	private ParticlesFilePager _pager = null;
+	private String _svtOrdVarName = _VarSvtOrd;
+	private boolean _pagedOcData = false;
 
 	/**
 	 * This ctor creates a ParticlesFile object for a tracker, which populates it;
@@ -179,6 +194,7 @@ public class ParticlesFile {
 	public ParticlesFile(final Tracker tracker, final long firstOutputRefSecs, final long lastOutputRefSecs) {
 		_simCase = tracker.getSimCase();
 		final SimGlobalStrings simGlobalStrings = _simCase.getSimGlobalStrings();
+		_usePrimitivePositions = simGlobalStrings.getUsePrimitiveParticlePositions();
 		_model = tracker.getModel();
 		final int nSearchObjectTypes = _model.getNSearchObjectTypes();
 		final boolean storeMeans = simGlobalStrings.storeMeans();
@@ -323,6 +339,7 @@ public class ParticlesFile {
 	/** This ctor reads in the data from a NetCdfFile. */
 	public ParticlesFile(final SimCaseManager.SimCase simCase, String particlesFilePath) {
 		_simCase = simCase;
+		_usePrimitivePositions = SimCaseManager.getSimGlobalStrings(simCase).getUsePrimitiveParticlePositions();
 		/** Try to find a non-directory existing file. */
 		File particlesFile = new File(particlesFilePath);
 		if (particlesFile.exists() && particlesFile.isFile()) {
@@ -407,23 +424,47 @@ public class ParticlesFile {
 				NetCdfUtil.read2DFloats(netCdfFile, nScenarii, nParticlesPerScenario, _VarDistressLat, _distressLats);
 				_distressLngs = new float[nScenarii][nParticlesPerScenario];
 				NetCdfUtil.read2DFloats(netCdfFile, nScenarii, nParticlesPerScenario, _VarDistressLng, _distressLngs);
-				_lats = new float[nRefSecsS][nScenarii][nParticlesPerScenario];
-				NetCdfUtil.read3DFloats(netCdfFile, nRefSecsS, nScenarii, nParticlesPerScenario, _VarLat, _lats);
-				_lngs = new float[nRefSecsS][nScenarii][nParticlesPerScenario];
-				NetCdfUtil.read3DFloats(netCdfFile, nRefSecsS, nScenarii, nParticlesPerScenario, _VarLng, _lngs);
-				_svtOrdinals = new int[nRefSecsS][nScenarii][nParticlesPerScenario];
-				try {
-					NetCdfUtil.read3DInts(netCdfFile, nRefSecsS, nScenarii, nParticlesPerScenario, _VarSvtOrd,
-							_svtOrdinals);
-				} catch (final Exception e2) {
-					NetCdfUtil.read3DInts(netCdfFile, nRefSecsS, nScenarii, nParticlesPerScenario, _OldVarSvtOrd,
-							_svtOrdinals);
+				final SimGlobalStrings simGlobalStrings = SimCaseManager.getSimGlobalStrings(simCase);
+				if (simGlobalStrings.getPageParticlesFiles()) {
+					/** Check that the big variables are there, but leave them on disk. */
+					for (final String varName : new String[] {
+							_VarLat, _VarLng, _VarProbability, _VarPFail
+					}) {
+						if (netCdfFile.findVariable(varName) == null) {
+							throw new IOException("Missing " + varName);
+						}
+					}
+					_svtOrdVarName = netCdfFile.findVariable(_VarSvtOrd) != null ? _VarSvtOrd : _OldVarSvtOrd;
+					if (netCdfFile.findVariable(_svtOrdVarName) == null) {
+						throw new IOException("Missing " + _VarSvtOrd);
+					}
+					_pager = new ParticlesFilePager(particlesFilePath, new String[] {
+							_VarLat, _VarLng, _VarProbability, _VarPFail, _svtOrdVarName, //
+							_VarOcLat, _VarOcLng, _VarOcEastDnWind, _VarOcNorthDnWind, _VarOcEastDnCurrent,
+							_VarOcNorthDnCurrent, _VarOcEastBoat, _VarOcNorthBoat, _VarOcSvtOrd
+					}, nRefSecsS, nScenarii, nParticlesPerScenario, simGlobalStrings.getParticlesFilePageCacheSize());
+					_lats = _lngs = _probabilities = _cumPFails = null;
+					_svtOrdinals = null;
+				} else {
+					_lats = new float[nRefSecsS][nScenarii][nParticlesPerScenario];
+					NetCdfUtil.read3DFloats(netCdfFile, nRefSecsS, nScenarii, nParticlesPerScenario, _VarLat, _lats);
+					_lngs = new float[nRefSecsS][nScenarii][nParticlesPerScenario];
+					NetCdfUtil.read3DFloats(netCdfFile, nRefSecsS, nScenarii, nParticlesPerScenario, _VarLng, _lngs);
+					_svtOrdinals = new int[nRefSecsS][nScenarii][nParticlesPerScenario];
+					try {
+						NetCdfUtil.read3DInts(netCdfFile, nRefSecsS, nScenarii, nParticlesPerScenario, _VarSvtOrd,
+								_svtOrdinals);
+					} catch (final Exception e2) {
+						NetCdfUtil.read3DInts(netCdfFile, nRefSecsS, nScenarii, nParticlesPerScenario, _OldVarSvtOrd,
+								_svtOrdinals);
+					}
+					_probabilities = new float[nRefSecsS][nScenarii][nParticlesPerScenario];
+					NetCdfUtil.read3DFloats(netCdfFile, nRefSecsS, nScenarii, nParticlesPerScenario, _VarProbability,
+							_probabilities);
+					_cumPFails = new float[nRefSecsS][nScenarii][nParticlesPerScenario];
+					NetCdfUtil.read3DFloats(netCdfFile, nRefSecsS, nScenarii, nParticlesPerScenario, _VarPFail,
+							_cumPFails);
 				}
-				_probabilities = new float[nRefSecsS][nScenarii][nParticlesPerScenario];
-				NetCdfUtil.read3DFloats(netCdfFile, nRefSecsS, nScenarii, nParticlesPerScenario, _VarProbability,
-						_probabilities);
-				_cumPFails = new float[nRefSecsS][nScenarii][nParticlesPerScenario];
-				NetCdfUtil.read3DFloats(netCdfFile, nRefSecsS, nScenarii, nParticlesPerScenario, _VarPFail, _cumPFails);
 				_initPriors = new float[nScenarii][nParticlesPerScenario];
 				try {
 					NetCdfUtil.read2DFloats(netCdfFile, nScenarii, nParticlesPerScenario, _VarInitPrior0, _initPriors);
@@ -434,7 +475,7 @@ public class ParticlesFile {
 					} catch (final Exception e1) {
 						for (int k0 = 0; k0 < nScenarii; ++k0) {
 							for (int k1 = 0; k1 < nParticlesPerScenario; ++k1) {
-								_initPriors[k0][k1] = _probabilities[0][k0][k1];
+								_initPriors[k0][k1] = getFloatSlice(_probabilities, _VarProbability, 0)[k0][k1];
 							}
 						}
 					}
@@ -476,47 +517,61 @@ public class ParticlesFile {
 					_meanLats = _meanLngs = null;
 				}
 				/** See if we read in ocTables. */
-				_ocLats = new float[nRefSecsS][nScenarii][nParticlesPerScenario];
-				try {
-					NetCdfUtil.read3DFloats(netCdfFile, nRefSecsS, nScenarii, nParticlesPerScenario, _VarOcLat,
-							_ocLats);
-				} catch (final Exception e) {
-					_ocLats = null;
-				}
-				if (_ocLats != null) {
-					_ocLngs = new float[nRefSecsS][nScenarii][nParticlesPerScenario];
-					_ocEastDnWinds = new float[nRefSecsS][nScenarii][nParticlesPerScenario];
-					_ocNorthDnWinds = new float[nRefSecsS][nScenarii][nParticlesPerScenario];
-					_ocEastDnCurrents = new float[nRefSecsS][nScenarii][nParticlesPerScenario];
-					_ocNorthDnCurrents = new float[nRefSecsS][nScenarii][nParticlesPerScenario];
-					_ocEastBoats = new float[nRefSecsS][nScenarii][nParticlesPerScenario];
-					_ocNorthBoats = new float[nRefSecsS][nScenarii][nParticlesPerScenario];
-					_ocSvtOrdinals = new int[nRefSecsS][nScenarii][nParticlesPerScenario];
-					try {
-						NetCdfUtil.read3DFloats(netCdfFile, nRefSecsS, nScenarii, nParticlesPerScenario, _VarOcLng,
-								_ocLngs);
-						NetCdfUtil.read3DFloats(netCdfFile, nRefSecsS, nScenarii, nParticlesPerScenario,
-								_VarOcEastDnWind, _ocEastDnWinds);
-						NetCdfUtil.read3DFloats(netCdfFile, nRefSecsS, nScenarii, nParticlesPerScenario,
-								_VarOcNorthDnWind, _ocNorthDnWinds);
-						NetCdfUtil.read3DFloats(netCdfFile, nRefSecsS, nScenarii, nParticlesPerScenario,
-								_VarOcEastDnCurrent, _ocEastDnCurrents);
-						NetCdfUtil.read3DFloats(netCdfFile, nRefSecsS, nScenarii, nParticlesPerScenario,
-								_VarOcNorthDnCurrent, _ocNorthDnCurrents);
-						NetCdfUtil.read3DFloats(netCdfFile, nRefSecsS, nScenarii, nParticlesPerScenario, _VarOcEastBoat,
-								_ocEastBoats);
-						NetCdfUtil.read3DFloats(netCdfFile, nRefSecsS, nScenarii, nParticlesPerScenario,
-								_VarOcNorthBoat, _ocNorthBoats);
-						NetCdfUtil.read3DInts(netCdfFile, nRefSecsS, nScenarii, nParticlesPerScenario, _VarOcSvtOrd,
-								_ocSvtOrdinals);
-					} catch (final Exception e) {
-						_ocLats = null;
+				if (_pager != null) {
+					/** The ocTables, if there, stay on disk too. */
+					_pagedOcData = true;
+					for (final String varName : new String[] {
+							_VarOcLat, _VarOcLng, _VarOcEastDnWind, _VarOcNorthDnWind, _VarOcEastDnCurrent,
+							_VarOcNorthDnCurrent, _VarOcEastBoat, _VarOcNorthBoat, _VarOcSvtOrd
+					}) {
+						_pagedOcData &= netCdfFile.findVariable(varName) != null;
 					}
-				} else {
-					_ocLats = _ocLngs = null;
 					_ocLats = _ocLngs = _ocEastDnWinds = _ocNorthDnWinds = null;
 					_ocEastDnCurrents = _ocNorthDnCurrents = _ocEastBoats = _ocNorthBoats = null;
 					_ocSvtOrdinals = null;
+				} else {
+					_ocLats = new float[nRefSecsS][nScenarii][nParticlesPerScenario];
+					try {
+						NetCdfUtil.read3DFloats(netCdfFile, nRefSecsS, nScenarii, nParticlesPerScenario, _VarOcLat,
+								_ocLats);
+					} catch (final Exception e) {
+						_ocLats = null;
+					}
+					if (_ocLats != null) {
+						_ocLngs = new float[nRefSecsS][nScenarii][nParticlesPerScenario];
+						_ocEastDnWinds = new float[nRefSecsS][nScenarii][nParticlesPerScenario];
+						_ocNorthDnWinds = new float[nRefSecsS][nScenarii][nParticlesPerScenario];
+						_ocEastDnCurrents = new float[nRefSecsS][nScenarii][nParticlesPerScenario];
+						_ocNorthDnCurrents = new float[nRefSecsS][nScenarii][nParticlesPerScenario];
+						_ocEastBoats = new float[nRefSecsS][nScenarii][nParticlesPerScenario];
+						_ocNorthBoats = new float[nRefSecsS][nScenarii][nParticlesPerScenario];
+						_ocSvtOrdinals = new int[nRefSecsS][nScenarii][nParticlesPerScenario];
+						try {
+							NetCdfUtil.read3DFloats(netCdfFile, nRefSecsS, nScenarii, nParticlesPerScenario, _VarOcLng,
+									_ocLngs);
+							NetCdfUtil.read3DFloats(netCdfFile, nRefSecsS, nScenarii, nParticlesPerScenario,
+									_VarOcEastDnWind, _ocEastDnWinds);
+							NetCdfUtil.read3DFloats(netCdfFile, nRefSecsS, nScenarii, nParticlesPerScenario,
+									_VarOcNorthDnWind, _ocNorthDnWinds);
+							NetCdfUtil.read3DFloats(netCdfFile, nRefSecsS, nScenarii, nParticlesPerScenario,
+									_VarOcEastDnCurrent, _ocEastDnCurrents);
+							NetCdfUtil.read3DFloats(netCdfFile, nRefSecsS, nScenarii, nParticlesPerScenario,
+									_VarOcNorthDnCurrent, _ocNorthDnCurrents);
+							NetCdfUtil.read3DFloats(netCdfFile, nRefSecsS, nScenarii, nParticlesPerScenario, _VarOcEastBoat,
+									_ocEastBoats);
+							NetCdfUtil.read3DFloats(netCdfFile, nRefSecsS, nScenarii, nParticlesPerScenario,
+									_VarOcNorthBoat, _ocNorthBoats);
+							NetCdfUtil.read3DInts(netCdfFile, nRefSecsS, nScenarii, nParticlesPerScenario, _VarOcSvtOrd,
+									_ocSvtOrdinals);
+						} catch (final Exception e) {
+							_ocLats = null;
+						}
+					} else {
+						_ocLats = _ocLngs = null;
+						_ocLats = _ocLngs = _ocEastDnWinds = _ocNorthDnWinds = null;
+						_ocEastDnCurrents = _ocNorthDnCurrents = _ocEastBoats = _ocNorthBoats = null;
+						_ocSvtOrdinals = null;
+					}
 				}
 				status = true;
 			} catch (final Exception e1) {
@@ -536,6 +591,8 @@ public class ParticlesFile {
 				_ocLats = _ocLngs = _ocEastDnWinds = _ocNorthDnWinds = null;
 				_ocEastDnCurrents = _ocNorthDnCurrents = _ocEastBoats = _ocNorthBoats = null;
 				_ocSvtOrdinals = null;
+				_pager = null;
+				_pagedOcData = false;
 				status = false;
 			}
 		} catch (final IOException e) {
@@ -544,14 +601,56 @@ public class ParticlesFile {
 		_status = status;
 	}
 
+	/** The [scenario][particle] slice at timeIdx, from memory or from _pager. */
+	private float[][] getFloatSlice(final float[][][] floats, final String varName, final int timeIdx) {
+		return _pager == null ? floats[timeIdx] : _pager.getFloats(varName, timeIdx);
+	}
+
+	private int[][] getIntSlice(final int[][][] ints, final String varName, final int timeIdx) {
+		return _pager == null ? ints[timeIdx] : _pager.getInts(varName, timeIdx);
+	}
+
+	/** The whole array; for a paged file, it is read in (not cached). */
+	private float[][][] getAllFloats(final float[][][] floats, final String varName) {
+		return _pager == null ? floats : _pager.readAllFloats(varName);
+	}
+
+	private int[][][] getAllInts(final int[][][] ints, final String varName) {
+		return _pager == null ? ints : _pager.readAllInts(varName);
+	}
+
+	private void checkNotPaged() {
+		if (_pager != null) {
+			throw new UnsupportedOperationException("A paged ParticlesFile is read-only.");
+		}
+	}
+
+	public boolean isPaged() {
+		return _pager != null;
+	}
+
+	/** Releases a paged file's handle; a later read reopens it. */
+	public void closePagedFile() {
+		if (_pager != null) {
+			_pager.close();
+		}
+	}
+
 	public double[] getLatLngPair(final int timeIdx, final ParticleIndexes prtclIndxs) {
+		final double[] latLngPair = new double[2];
+		getLatLngPair(timeIdx, prtclIndxs, latLngPair);
+		return latLngPair;
+	}
+
+	/** Fills the caller's latLngPair; returns false if it is NaN. */
+	public boolean getLatLngPair(final int timeIdx, final ParticleIndexes prtclIndxs, final double[] latLngPair) {
 		final int i = prtclIndxs.getScenarioIndex();
 		final int j = prtclIndxs.getParticleIndex();
 		final double lat;
 		final double lng;
 		if (j >= 0) {
-			lat = _lats[timeIdx][i][j];
-			lng = _lngs[timeIdx][i][j];
+			lat = getFloatSlice(_lats, _VarLat, timeIdx)[i][j];
+			lng = getFloatSlice(_lngs, _VarLng, timeIdx)[i][j];
 		} else {
 			if (_meanLats != null) {
 				final int k = prtclIndxs.getSotOrd();
@@ -561,9 +660,82 @@ public class ParticlesFile {
 				lat = lng = Float.NaN;
 			}
 		}
-		return new double[] {
-				lat, lng
-		};
+		latLngPair[0] = lat;
+		latLngPair[1] = lng;
+		return !Double.isNaN(lat);
+	}
+
+	/**
+	 * The positions, at timeBracket's refSecs, of scenario iScenario's
+	 * particles iParticle0 through iParticle0 + nParticles - 1, into lats and
+	 * lngs starting at offset. Between stored times, we interpolate along great
+	 * circles in primitives; nothing is allocated. A particle whose stored
+	 * position is NaN gets NaNs.
+	 */
+	public void getLatsAndLngs(final TimeBracket timeBracket, final int iScenario, final int iParticle0,
+			final int nParticles, final double[] lats, final double[] lngs, final int offset) {
+		final int timeIdx1 = timeBracket._timeIdx1;
+		final int timeIdx2 = timeBracket._timeIdx2;
+		final float[] lats1 = getFloatSlice(_lats, _VarLat, timeIdx1)[iScenario];
+		final float[] lngs1 = getFloatSlice(_lngs, _VarLng, timeIdx1)[iScenario];
+		if (timeIdx1 == timeIdx2) {
+			for (int k = 0; k < nParticles; ++k) {
+				lats[offset + k] = lats1[iParticle0 + k];
+				lngs[offset + k] = lngs1[iParticle0 + k];
+			}
+			return;
+		}
+		final float[] lats2 = getFloatSlice(_lats, _VarLat, timeIdx2)[iScenario];
+		final float[] lngs2 = getFloatSlice(_lngs, _VarLng, timeIdx2)[iScenario];
+		final long t1 = _refSecsS[timeIdx1];
+		final long t2 = _refSecsS[timeIdx2];
+		final double f = (double) (timeBracket._refSecs - t1) / (t2 - t1);
+		for (int k = 0; k < nParticles; ++k) {
+			final int j = iParticle0 + k;
+			interpolateGreatCircle(lats1[j], lngs1[j], lats2[j], lngs2[j], f, lats, lngs, offset + k);
+		}
+	}
+
+	/**
+	 * The point that is fraction f of the way along the great circle from
+	 * (lat1, lng1) to (lat2, lng2), by spherical linear interpolation of the
+	 * two unit vectors.
+	 */
+	private static void interpolateGreatCircle(final double lat1, final double lng1, final double lat2,
+			final double lng2, final double f, final double[] lats, final double[] lngs, final int k) {
+		if (Double.isNaN(lat1) || Double.isNaN(lat2)) {
+			lats[k] = lngs[k] = Double.NaN;
+			return;
+		}
+		final double phi1 = Math.toRadians(lat1);
+		final double lam1 = Math.toRadians(lng1);
+		final double phi2 = Math.toRadians(lat2);
+		final double lam2 = Math.toRadians(lng2);
+		final double cosPhi1 = Math.cos(phi1);
+		final double cosPhi2 = Math.cos(phi2);
+		final double x1 = cosPhi1 * Math.cos(lam1);
+		final double y1 = cosPhi1 * Math.sin(lam1);
+		final double z1 = Math.sin(phi1);
+		final double x2 = cosPhi2 * Math.cos(lam2);
+		final double y2 = cosPhi2 * Math.sin(lam2);
+		final double z2 = Math.sin(phi2);
+		final double cx = y1 * z2 - z1 * y2;
+		final double cy = z1 * x2 - x1 * z2;
+		final double cz = x1 * y2 - y1 * x2;
+		final double omega = Math.atan2(Math.sqrt(cx * cx + cy * cy + cz * cz), x1 * x2 + y1 * y2 + z1 * z2);
+		if (omega < 1.0e-12) {
+			lats[k] = lat1;
+			lngs[k] = lng1;
+			return;
+		}
+		final double sinOmega = Math.sin(omega);
+		final double a = Math.sin((1d - f) * omega) / sinOmega;
+		final double b = Math.sin(f * omega) / sinOmega;
+		final double x = a * x1 + b * x2;
+		final double y = a * y1 + b * y2;
+		final double z = a * z1 + b * z2;
+		lats[k] = Math.toDegrees(Math.atan2(z, Math.sqrt(x * x + y * y)));
+		lngs[k] = Math.toDegrees(Math.atan2(y, x));
 	}
 
 	public double[] getDistressLatLngPair(final ParticleIndexes prtclIndxs) {
@@ -579,7 +751,7 @@ public class ParticlesFile {
 	public StateVectorType getSvtFromTimeIdx(final int timeIdx, final ParticleIndexes prtclIndxs) {
 		final int i = prtclIndxs.getScenarioIndex();
 		final int j = prtclIndxs.getParticleIndex();
-		final int ordinal = _svtOrdinals[timeIdx][i][j];
+		final int ordinal = getIntSlice(_svtOrdinals, _svtOrdVarName, timeIdx)[i][j];
 		return StateVectorType.values()[ordinal];
 	}
 
@@ -587,16 +759,110 @@ public class ParticlesFile {
 		final int timeIdx = Math.max(0, CombinatoricTools.getGlbIndex(_refSecsS, refSecs));
 		final int i = prtclIndxs.getScenarioIndex();
 		final int j = prtclIndxs.getParticleIndex();
-		final int ordinal = _svtOrdinals[timeIdx][i][j];
+		final int ordinal = getIntSlice(_svtOrdinals, _svtOrdVarName, timeIdx)[i][j];
 		return StateVectorType.values()[ordinal];
 	}
 
-	public LatLng3 getLatLng(final long refSecs, final ParticleIndexes prtclIndxs) {
+	/**
+	 * The clamped glb and lub time indexes of a time; what getLatLng works
+	 * from. Build one with getTimeBracket and reuse it across particles.
+	 */
+	public static class TimeBracket {
+		final private long _refSecs;
+		final private int _timeIdx1;
+		final private int _timeIdx2;
+
+		private TimeBracket(final long refSecs, final int timeIdx1, final int timeIdx2) {
+			_refSecs = refSecs;
+			_timeIdx1 = timeIdx1;
+			_timeIdx2 = timeIdx2;
+		}
+
+		public long getRefSecs() {
+			return _refSecs;
+		}
+
+		public int getTimeIdx1() {
+			return _timeIdx1;
+		}
+
+		public int getTimeIdx2() {
+			return _timeIdx2;
+		}
+	}
+
+	private long getUniformGapSecs() {
+		long uniformGapSecs = _uniformGapSecs;
+		if (uniformGapSecs == 0L) {
+			final int nRefSecsS = _refSecsS.length;
+			uniformGapSecs = nRefSecsS < 2 ? -1L : _refSecsS[1] - _refSecsS[0];
+			for (int k = 2; k < nRefSecsS && uniformGapSecs > 0L; ++k) {
+				if (_refSecsS[k] - _refSecsS[k - 1] != uniformGapSecs) {
+					uniformGapSecs = -1L;
+				}
+			}
+			if (uniformGapSecs <= 0L) {
+				uniformGapSecs = -1L;
+			}
+			_uniformGapSecs = uniformGapSecs;
+		}
+		return uniformGapSecs;
+	}
+
+	/**
+	 * Within the span of an evenly spaced _refSecsS (the usual case), this is
+	 * a division rather than two binary searches.
+	 */
+	public TimeBracket getTimeBracket(final long refSecs) {
 		final int nRefsM1 = _refSecsS.length - 1;
+		final long uniformGapSecs = getUniformGapSecs();
+		if (uniformGapSecs > 0L && _refSecsS[0] <= refSecs && refSecs <= _refSecsS[nRefsM1]) {
+			final long sinceFirst = refSecs - _refSecsS[0];
+			final int timeIdx1 = (int) (sinceFirst / uniformGapSecs);
+			final int timeIdx2 = sinceFirst % uniformGapSecs == 0L ? timeIdx1 : timeIdx1 + 1;
+			return new TimeBracket(refSecs, timeIdx1, timeIdx2);
+		}
 		final int timeIdx1X = CombinatoricTools.getGlbIndex(_refSecsS, refSecs);
 		final int timeIdx1 = Math.max(0, Math.min(nRefsM1, timeIdx1X));
 		final int timeIdx2X = CombinatoricTools.getLubIndex(_refSecsS, refSecs);
 		final int timeIdx2 = Math.max(0, Math.min(nRefsM1, timeIdx2X));
+		return new TimeBracket(refSecs, timeIdx1, timeIdx2);
+	}
+
+	public LatLng3 getLatLng(final long refSecs, final ParticleIndexes prtclIndxs) {
+		return getLatLng(getTimeBracket(refSecs), prtclIndxs);
+	}
+
+	public LatLng3 getLatLng(final TimeBracket timeBracket, final ParticleIndexes prtclIndxs) {
+		if (_usePrimitivePositions) {
+			return getLatLng(timeBracket, prtclIndxs, new double[1], new double[1]);
+		}
+		return getLatLngFromCalculator(timeBracket, prtclIndxs);
+	}
+
+	/**
+	 * For hot loops; latScratch and lngScratch have length at least 1 and are
+	 * the caller's to reuse. With Use.Primitive.Particle.Positions on, a real
+	 * particle goes through getLatsAndLngs, so the LatLng3 is the only
+	 * allocation; otherwise, this is the plain getLatLng.
+	 */
+	public LatLng3 getLatLng(final TimeBracket timeBracket, final ParticleIndexes prtclIndxs,
+			final double[] latScratch, final double[] lngScratch) {
+		final int j = prtclIndxs.getParticleIndex();
+		if (_usePrimitivePositions && j >= 0) {
+			getLatsAndLngs(timeBracket, prtclIndxs.getScenarioIndex(), j, 1, latScratch, lngScratch, 0);
+			if (Double.isNaN(latScratch[0])) {
+				return null;
+			}
+			return LatLng3.getLatLngB(latScratch[0], lngScratch[0]);
+		}
+		return getLatLngFromCalculator(timeBracket, prtclIndxs);
+	}
+
+	/** Through GreatCircleCalculator; what getLatLng has always returned. */
+	private LatLng3 getLatLngFromCalculator(final TimeBracket timeBracket, final ParticleIndexes prtclIndxs) {
+		final int timeIdx1 = timeBracket._timeIdx1;
+		final int timeIdx2 = timeBracket._timeIdx2;
 		final double[] latLng1Pair = getLatLngPair(timeIdx1, prtclIndxs);
 		if (Double.isNaN(latLng1Pair[0])) {
 			return null;
@@ -613,7 +879,7 @@ public class ParticlesFile {
 		final long durationInSecs = t2 - t1;
 		final GreatCircleCalculator greatCircleCalculator = (GreatCircleCalculator) NavigationCalculatorStatics
 				.buildWithSeconds(latLng1, t1, latLng2, durationInSecs, MotionType.GREAT_CIRCLE);
-		final LatLng3 latLng = greatCircleCalculator.getPosition(refSecs);
+		final LatLng3 latLng = greatCircleCalculator.getPosition(timeBracket._refSecs);
 		return latLng;
 	}
 
@@ -727,7 +993,7 @@ public class ParticlesFile {
 		}
 		final int i = prtclIndxs.getScenarioIndex();
 		final int j = prtclIndxs.getParticleIndex();
-		return _probabilities[refSecsIdx][i][j];
+		return getFloatSlice(_probabilities, _VarProbability, refSecsIdx)[i][j];
 	}
 
 	public float getProbability(final long refSecs, final ParticleIndexes prtclIndxs) {
@@ -736,7 +1002,7 @@ public class ParticlesFile {
 		final int timeIdx = Math.max(0, Math.min(nRefsM1, timeIdxX));
 		final int i = prtclIndxs.getScenarioIndex();
 		final int j = prtclIndxs.getParticleIndex();
-		return _probabilities[Math.max(0, timeIdx)][i][j];
+		return getFloatSlice(_probabilities, _VarProbability, Math.max(0, timeIdx))[i][j];
 	}
 
 	public float getCumPFail(final long refSecs, final ParticleIndexes prtclIndxs) {
@@ -746,7 +1012,7 @@ public class ParticlesFile {
 		final int timeIdx = Math.max(0, Math.min(nRefsM1, timeIdxX));
 		final int i = prtclIndxs.getScenarioIndex();
 		final int j = prtclIndxs.getParticleIndex();
-		return _cumPFails[timeIdx][i][j];
+		return getFloatSlice(_cumPFails, _VarPFail, timeIdx)[i][j];
 	}
 
 	public float getInitPrior(final ParticleIndexes prtclIndxs) {
@@ -804,11 +1070,43 @@ public class ParticlesFile {
 	}
 
 	public int getNScenarii() {
-		return _lats[0].length;
+		return _distressLats.length;
 	}
 
 	public int getNParticlesPerScenario() {
-		return _lats[0][0].length;
+		return _distressLats[0].length;
+	}
+
+	/**
+	 * A rough count of the bytes that this holds on the heap; used to bound the
+	 * memory of SimCaseManager's cache of ParticlesFiles. A paged file is charged
+	 * for its full page cache.
+	 */
+	public long estimateNBytes() {
+		if (_distressLats == null) {
+			return 0L;
+		}
+		final long nRefSecsS = _refSecsS == null ? 0 : _refSecsS.length;
+		final long nScenarii = _distressLats.length;
+		final long nParticles = nScenarii == 0 ? 0 : _distressLats[0].length;
+		/** 5 longs, 2 ints, and 3 floats per particle, plus the sailor data. */
+		long nBytes = nScenarii * nParticles * (5 * 8 + 2 * 4 + 3 * 4);
+		if (_sailorQualities != null) {
+			nBytes += nScenarii * nParticles * (3 * 4 + 1);
+		}
+		if (_meanLats != null && _meanBirthRefSecs != null && nScenarii > 0) {
+			final long nSots = _meanBirthRefSecs[0].length;
+			nBytes += nRefSecsS * nScenarii * nSots * 2 * 4;
+		}
+		if (_pager != null) {
+			return nBytes + _pager.getMaxNBytes();
+		}
+		/** lats, lngs, probabilities, cumPFails, and svtOrdinals. */
+		nBytes += nRefSecsS * nScenarii * nParticles * 5 * 4;
+		if (_ocLats != null) {
+			nBytes += nRefSecsS * nScenarii * nParticles * 9 * 4;
+		}
+		return nBytes;
 	}
 
 	public boolean deepEquals(final ParticlesFile other) {
@@ -853,10 +1151,12 @@ public class ParticlesFile {
 		if (!deepEquals("Landing Time", _landingRefSecs, other._landingRefSecs, nScenarii, nParticles)) {
 			return false;
 		}
-		if (!deepEquals(_VarLat, _lats, other._lats, nRefSecsS, nScenarii, nParticles)) {
+		if (!deepEquals(_VarLat, getAllFloats(_lats, _VarLat), other.getAllFloats(other._lats, _VarLat), nRefSecsS,
+				nScenarii, nParticles)) {
 			return false;
 		}
-		if (!deepEquals(_VarLng, _lngs, other._lngs, nRefSecsS, nScenarii, nParticles)) {
+		if (!deepEquals(_VarLng, getAllFloats(_lngs, _VarLng), other.getAllFloats(other._lngs, _VarLng), nRefSecsS,
+				nScenarii, nParticles)) {
 			return false;
 		}
 
@@ -867,13 +1167,16 @@ public class ParticlesFile {
 			return false;
 		}
 
-		if (!deepEquals(_VarSvtOrd, _svtOrdinals, other._svtOrdinals, nRefSecsS, nScenarii, nParticles)) {
+		if (!deepEquals(_VarSvtOrd, getAllInts(_svtOrdinals, _svtOrdVarName),
+				other.getAllInts(other._svtOrdinals, other._svtOrdVarName), nRefSecsS, nScenarii, nParticles)) {
 			return false;
 		}
-		if (!deepEquals(_VarProbability, _probabilities, other._probabilities, nRefSecsS, nScenarii, nParticles)) {
+		if (!deepEquals(_VarProbability, getAllFloats(_probabilities, _VarProbability),
+				other.getAllFloats(other._probabilities, _VarProbability), nRefSecsS, nScenarii, nParticles)) {
 			return false;
 		}
-		if (!deepEquals(_VarPFail, _cumPFails, other._cumPFails, nRefSecsS, nScenarii, nParticles)) {
+		if (!deepEquals(_VarPFail, getAllFloats(_cumPFails, _VarPFail), other.getAllFloats(other._cumPFails, _VarPFail),
+				nRefSecsS, nScenarii, nParticles)) {
 			return false;
 		}
 		return true;
@@ -1089,6 +1392,7 @@ public class ParticlesFile {
 	}
 
 	public void setPosition(final ParticleIndexes prtclIndxs, final LatLng3 latLng, final long refSecs) {
+		checkNotPaged();
 		final int timeIdx = getTimeIndexForSetting(refSecs);
 		final int i = prtclIndxs.getScenarioIndex();
 		final int j = prtclIndxs.getParticleIndex();
@@ -1112,6 +1416,19 @@ public class ParticlesFile {
 		theseLngs[i][q] = (float) latLng.getLng();
 	}
 
+	/**
+	 * setPosition and setSvtOrdinal for a core particle, without building a
+	 * ParticleIndexes; used by ParticleColumns.
+	 */
+	void setPositionAndSvt(final int iScenario, final int iParticle, final LatLng3 latLng,
+			final StateVectorType svt, final long refSecs) {
+		checkNotPaged();
+		final int timeIdx = getTimeIndexForSetting(refSecs);
+		_lats[timeIdx][iScenario][iParticle] = (float) latLng.getLat();
+		_lngs[timeIdx][iScenario][iParticle] = (float) latLng.getLng();
+		_svtOrdinals[timeIdx][iScenario][iParticle] = svt.ordinal();
+	}
+
 	public void setDistressLatLng(final ParticleIndexes prtclIndxs, final LatLng3 latLng) {
 		final int i = prtclIndxs.getScenarioIndex();
 		final int j = prtclIndxs.getParticleIndex();
@@ -1132,6 +1449,7 @@ public class ParticlesFile {
 	}
 
 	public void setSvtOrdinal(final ParticleIndexes prtclIndxs, final StateVectorType svt, final long refSecs) {
+		checkNotPaged();
 		final int i = prtclIndxs.getScenarioIndex();
 		final int j = prtclIndxs.getParticleIndex();
 		final int timeIdx = getTimeIndexForSetting(refSecs);
@@ -1139,6 +1457,7 @@ public class ParticlesFile {
 	}
 
 	public void updateCumPFails(final ParticleIndexes prtclIndxs, final double pFail, final long refSecs) {
+		checkNotPaged();
 		final int i = prtclIndxs.getScenarioIndex();
 		final int j = prtclIndxs.getParticleIndex();
 		final int nRefSecsS = _cumPFails.length;
@@ -1157,6 +1476,7 @@ public class ParticlesFile {
 	}
 
 	public void updateFromLikelihood(final ParticleIndexes prtclIndxs, final double likelihood, final long refSecs) {
+		checkNotPaged();
 		final int i = prtclIndxs.getScenarioIndex();
 		final int j = prtclIndxs.getParticleIndex();
 		final int nRefSecsS = _cumPFails.length;
@@ -1180,6 +1500,7 @@ public class ParticlesFile {
 	}
 
 	public void normalizeProbabilities() {
+		checkNotPaged();
 		final int nRefSecsS = _refSecsS.length;
 		for (int timeIdx = 0; timeIdx < nRefSecsS; ++timeIdx) {
 			final float ttlWeight = NumericalRoutines.normalize2dMtx(_probabilities[timeIdx]);
@@ -1194,10 +1515,12 @@ public class ParticlesFile {
 		final int nRefSecsS = _refSecsS.length;
 		boolean haveBadLatLng = false;
 		TimeLoop: for (int timeIdx = 0; timeIdx < nRefSecsS; ++timeIdx) {
+			final float[][] latSlice = getFloatSlice(_lats, _VarLat, timeIdx);
+			final float[][] lngSlice = getFloatSlice(_lngs, _VarLng, timeIdx);
 			for (int k0 = 0; k0 < _model.getNScenarii(); ++k0) {
 				for (int k1 = 0; k1 < _model.getNParticlesPerScenario(); ++k1) {
-					final float lat = _lats[timeIdx][k0][k1];
-					final float lng = _lngs[timeIdx][k0][k1];
+					final float lat = latSlice[k0][k1];
+					final float lng = lngSlice[k0][k1];
 					if (Float.isNaN(lat) || Float.isNaN(lng)) {
 						SimCaseManager.err(_simCase,
 								String.format("TimeIdx[%d] iScenario[%d] iParticle[%d]", timeIdx, k0, k1));
@@ -1220,10 +1543,10 @@ public class ParticlesFile {
 			final String timeString = TimeUtilities.formatTime(refSecs, true);
 			for (int k0 = 0; k0 < nScenarii; ++k0) {
 				for (int k1 = 0; k1 < nParticlesPerScenario; ++k1) {
-					final int svtOrdinal = _svtOrdinals[iT][k0][k1];
+					final int svtOrdinal = getIntSlice(_svtOrdinals, _svtOrdVarName, iT)[k0][k1];
 					final StateVectorType svt = StateVectorType.values()[svtOrdinal];
-					final double lat = _lats[iT][k0][k1];
-					final double lng = _lngs[iT][k0][k1];
+					final double lat = getFloatSlice(_lats, _VarLat, iT)[k0][k1];
+					final double lng = getFloatSlice(_lngs, _VarLng, iT)[k0][k1];
 					final LatLng3 latLng = LatLng3.getLatLngB(lat, lng);
 					s += Constants._NewLine + timeString + " " + svt.name() + ":" + svt.getColorName() + ":"
 							+ latLng.getString(4);
@@ -1261,84 +1584,84 @@ public class ParticlesFile {
 	}
 
 	public float getOcLat(final int timeIdx, final ParticleIndexes prtclIndxs) {
-		if (_ocLats == null) {
+		if (!hasOcData()) {
 			return Float.NaN;
 		}
 		final int i = prtclIndxs.getScenarioIndex();
 		final int j = prtclIndxs.getParticleIndex();
-		return _ocLats[timeIdx][i][j];
+		return getFloatSlice(_ocLats, _VarOcLat, timeIdx)[i][j];
 	}
 
 	public float getOcLng(final int timeIdx, final ParticleIndexes prtclIndxs) {
-		if (_ocLngs == null) {
+		if (!hasOcData()) {
 			return Float.NaN;
 		}
 		final int i = prtclIndxs.getScenarioIndex();
 		final int j = prtclIndxs.getParticleIndex();
-		return _ocLngs[timeIdx][i][j];
+		return getFloatSlice(_ocLngs, _VarOcLng, timeIdx)[i][j];
 	}
 
 	public float getOcEastDnWind(final int timeIdx, final ParticleIndexes prtclIndxs) {
-		if (_ocEastDnWinds == null) {
+		if (!hasOcData()) {
 			return Float.NaN;
 		}
 		final int i = prtclIndxs.getScenarioIndex();
 		final int j = prtclIndxs.getParticleIndex();
-		return _ocEastDnWinds[timeIdx][i][j];
+		return getFloatSlice(_ocEastDnWinds, _VarOcEastDnWind, timeIdx)[i][j];
 	}
 
 	public float getOcNorthDnWind(final int timeIdx, final ParticleIndexes prtclIndxs) {
-		if (_ocNorthDnWinds == null) {
+		if (!hasOcData()) {
 			return Float.NaN;
 		}
 		final int i = prtclIndxs.getScenarioIndex();
 		final int j = prtclIndxs.getParticleIndex();
-		return _ocNorthDnWinds[timeIdx][i][j];
+		return getFloatSlice(_ocNorthDnWinds, _VarOcNorthDnWind, timeIdx)[i][j];
 	}
 
 	public float getOcEastDnCurrent(final int timeIdx, final ParticleIndexes prtclIndxs) {
-		if (_ocEastDnCurrents == null) {
+		if (!hasOcData()) {
 			return Float.NaN;
 		}
 		final int i = prtclIndxs.getScenarioIndex();
 		final int j = prtclIndxs.getParticleIndex();
-		return _ocEastDnCurrents[timeIdx][i][j];
+		return getFloatSlice(_ocEastDnCurrents, _VarOcEastDnCurrent, timeIdx)[i][j];
 	}
 
 	public float getOcNorthDnCurrent(final int timeIdx, final ParticleIndexes prtclIndxs) {
-		if (_ocNorthDnCurrents == null) {
+		if (!hasOcData()) {
 			return Float.NaN;
 		}
 		final int i = prtclIndxs.getScenarioIndex();
 		final int j = prtclIndxs.getParticleIndex();
-		return _ocNorthDnCurrents[timeIdx][i][j];
+		return getFloatSlice(_ocNorthDnCurrents, _VarOcNorthDnCurrent, timeIdx)[i][j];
 	}
 
 	public float getOcEastBoat(final int timeIdx, final ParticleIndexes prtclIndxs) {
-		if (_ocEastBoats == null) {
+		if (!hasOcData()) {
 			return Float.NaN;
 		}
 		final int i = prtclIndxs.getScenarioIndex();
 		final int j = prtclIndxs.getParticleIndex();
-		return _ocEastBoats[timeIdx][i][j];
+		return getFloatSlice(_ocEastBoats, _VarOcEastBoat, timeIdx)[i][j];
 	}
 
 	public float getOcNorthBoat(final int timeIdx, final ParticleIndexes prtclIndxs) {
-		if (_ocNorthBoats == null) {
+		if (!hasOcData()) {
 			return Float.NaN;
 		}
 		final int i = prtclIndxs.getScenarioIndex();
 		final int j = prtclIndxs.getParticleIndex();
-		return _ocNorthBoats[timeIdx][i][j];
+		return getFloatSlice(_ocNorthBoats, _VarOcNorthBoat, timeIdx)[i][j];
 	}
 
 	public int getOcSvtOrdinal(final int timeIdx, final ParticleIndexes prtclIndxs) {
-		if (_ocSvtOrdinals == null) {
+		if (!hasOcData()) {
 			return StateVectorType.UNDEFINED.ordinal();
 		}
 		final int i = prtclIndxs.getScenarioIndex();
 		final int j = prtclIndxs.getParticleIndex();
-		return _ocSvtOrdinals[timeIdx][i][j];
+		return getIntSlice(_ocSvtOrdinals, _VarOcSvtOrd, timeIdx)[i][j];
 	}
 
 	public void setItinerary(final ParticleIndexes prtclIndxs, final Itinerary itinerary) {
@@ -1347,6 +1670,7 @@ public class ParticlesFile {
 		}
 		final int k0 = prtclIndxs.getScenarioIndex();
 		final int k1 = prtclIndxs.getParticleIndex();
+		checkNotPaged();
 		final VoyageItinerary voyageItinerary = (VoyageItinerary) itinerary;
 		final int nRefSecsS = _refSecsS.length;
 		for (int timeIdx = 0; timeIdx < nRefSecsS; ++timeIdx) {
@@ -1367,6 +1691,6 @@ public class ParticlesFile {
 	}
 
 	public boolean hasOcData() {
-		return _ocLats != null;
+		return _ocLats != null || _pagedOcData;
 	}
 }
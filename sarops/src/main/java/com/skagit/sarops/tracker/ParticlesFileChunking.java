@@ -0,0 +1,131 @@
+package com.skagit.sarops.tracker;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import com.skagit.sarops.simCaseManager.SimCaseManager;
+import com.skagit.sarops.util.SimGlobalStrings;
+
+import ucar.nc2.Variable;
+import ucar.nc2.write.Nc4Chunking;
+
+/**
+ * How a NetCdf-4 particles file lays out its [time][scenario][particle]
+ * variables (the ones in Snapshot._SnapshotVarInfos: lat, lng, probability,
+ * pFail, svt ordinal, and the Oc tables). Everything else stays contiguous.
+ * TIME_SLICE makes each chunk one time step (or as much of one as fits), which
+ * is what the planner wants, since it reads whole time slices. PARTICLE_TRACK
+ * makes each chunk every time step of a few particles, which is what the
+ * compare and Excel dumpers want. Deflate and shuffle apply only to the chunked
+ * variables. A NetCdf-3 file ignores all of this.
+ */
+public class ParticlesFileChunking implements Nc4Chunking {
+	public enum Layout {
+		CONTIGUOUS, TIME_SLICE, PARTICLE_TRACK
+	}
+
+	/** No chunk holds more than this many values (4MB of floats). */
+	final private static int _MaxNValuesPerChunk = 1 << 20;
+	/** For PARTICLE_TRACK; how many particles share a chunk. */
+	final private static int _NParticlesPerTrackChunk = 64;
+	final private static Set<String> _ChunkedVarNames;
+	static {
+		_ChunkedVarNames = new HashSet<>();
+		for (final Snapshot.VarInfoOf3dStandardVars varInfo : Snapshot.VarInfoOf3dStandardVars.values()) {
+			_ChunkedVarNames.add(varInfo._varName);
+		}
+	}
+
+	final private Layout _layout;
+	final private int _deflateLevel;
+	final private boolean _shuffle;
+
+	public ParticlesFileChunking(final Layout layout, final int deflateLevel, final boolean shuffle) {
+		_layout = layout;
+		_deflateLevel = Math.max(0, Math.min(9, deflateLevel));
+		_shuffle = shuffle;
+	}
+
+	/**
+	 * What ParticlesFileWriter passes to NetcdfFileWriter.createNew. Null (the
+	 * library's default) for CONTIGUOUS.
+	 */
+	static ParticlesFileChunking getChunker(final SimCaseManager.SimCase simCase) {
+		final SimGlobalStrings simGlobalStrings = simCase.getSimGlobalStrings();
+		final Layout layout = parseLayout(simGlobalStrings.getParticlesFileLayout());
+		if (layout == Layout.CONTIGUOUS) {
+			return null;
+		}
+		return new ParticlesFileChunking(layout, simGlobalStrings.getParticlesFileDeflateLevel(),
+				simGlobalStrings.getParticlesFileShuffle());
+	}
+
+	/** Accepts the enum's names, case and underscores aside; else CONTIGUOUS. */
+	public static Layout parseLayout(final String layoutString) {
+		if (layoutString == null) {
+			return Layout.CONTIGUOUS;
+		}
+		final String cleaned = layoutString.trim().replace("_", "").replace(".", "");
+		for (final Layout layout : Layout.values()) {
+			if (layout.name().replace("_", "").equalsIgnoreCase(cleaned)) {
+				return layout;
+			}
+		}
+		return Layout.CONTIGUOUS;
+	}
+
+	public Layout getLayout() {
+		return _layout;
+	}
+
+	@Override
+	public boolean isChunked(final Variable v) {
+		return _layout != Layout.CONTIGUOUS && v.getRank() == 3 && _ChunkedVarNames.contains(v.getShortName());
+	}
+
+	@Override
+	public long[] computeChunking(final Variable v) {
+		final int[] shape = v.getShape();
+		final long[] chunking = new long[shape.length];
+		for (int k = 0; k < shape.length; ++k) {
+			chunking[k] = Math.max(1, shape[k]);
+		}
+		if (!isChunked(v)) {
+			return chunking;
+		}
+		final int nTimes = Math.max(1, shape[0]);
+		final int nScenarii = Math.max(1, shape[1]);
+		final int nParticles = Math.max(1, shape[2]);
+		if (_layout == Layout.TIME_SLICE) {
+			final int nScenariiPerChunk = Math.min(nScenarii, _MaxNValuesPerChunk);
+			final int nParticlesPerChunk = Math.max(1,
+					Math.min(nParticles, _MaxNValuesPerChunk / nScenariiPerChunk));
+			chunking[0] = 1;
+			chunking[1] = nScenariiPerChunk;
+			chunking[2] = nParticlesPerChunk;
+		} else {
+			final int nTimesPerChunk = Math.min(nTimes, _MaxNValuesPerChunk);
+			final int nParticlesPerChunk = Math.max(1,
+					Math.min(Math.min(nParticles, _NParticlesPerTrackChunk), _MaxNValuesPerChunk / nTimesPerChunk));
+			chunking[0] = nTimesPerChunk;
+			chunking[1] = 1;
+			chunking[2] = nParticlesPerChunk;
+		}
+		return chunking;
+	}
+
+	@Override
+	public int getDeflateLevel(final Variable v) {
+		return isChunked(v) ? _deflateLevel : 0;
+	}
+
+	@Override
+	public boolean isShuffle(final Variable v) {
+		return isChunked(v) && _shuffle;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%s[deflate=%d,shuffle=%b]", _layout, _deflateLevel, _shuffle);
+	}
+}
@@ -0,0 +1,177 @@
+package com.skagit.sarops.tracker;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.skagit.util.netCdfUtil.NetCdfUtil;
+
+import ucar.ma2.Array;
+import ucar.ma2.DataType;
+import ucar.ma2.InvalidRangeException;
+import ucar.nc2.Attribute;
+import ucar.nc2.Dimension;
+import ucar.nc2.NetcdfFile;
+import ucar.nc2.NetcdfFileWriter;
+import ucar.nc2.Variable;
+
+/**
+ * Rewrites an existing particles file under each ParticlesFileChunking preset
+ * and reports, for each, the file's size, the time to write it, and the time
+ * for the two ways we read particles files: every time slice of lat and lng
+ * (the planner), and whole tracks of a sample of particles (the dumpers).
+ * <p>
+ * Usage: ParticlesFileLayoutBenchmark particlesFile.nc [nTracks]. The copies
+ * go next to the original and are deleted afterwards. The reads come right
+ * after the write, so they are mostly from the OS's cache; run it on a file
+ * that is big compared to memory for cold numbers.
+ */
+public class ParticlesFileLayoutBenchmark {
+	final private static int _DefaultNTracks = 100;
+
+	private static class Preset {
+		final private String _name;
+		final private NetcdfFileWriter.Version _version;
+		final private ParticlesFileChunking _chunker;
+
+		private Preset(final String name, final NetcdfFileWriter.Version version,
+				final ParticlesFileChunking chunker) {
+			_name = name;
+			_version = version;
+			_chunker = chunker;
+		}
+	}
+
+	private static Preset[] getPresets() {
+		final NetcdfFileWriter.Version nc4 = NetcdfFileWriter.Version.netcdf4;
+		return new Preset[] {
+				new Preset("Current", NetCdfUtil._NetCdfVersion, null), //
+				new Preset("TimeSlice", nc4, new ParticlesFileChunking(ParticlesFileChunking.Layout.TIME_SLICE, 0, false)), //
+				new Preset("TimeSlice-Z1S", nc4,
+						new ParticlesFileChunking(ParticlesFileChunking.Layout.TIME_SLICE, 1, true)), //
+				new Preset("Track", nc4,
+						new ParticlesFileChunking(ParticlesFileChunking.Layout.PARTICLE_TRACK, 0, false)), //
+				new Preset("Track-Z1S", nc4,
+						new ParticlesFileChunking(ParticlesFileChunking.Layout.PARTICLE_TRACK, 1, true))
+		};
+	}
+
+	/** Copies every dimension, variable, and attribute of source to target. */
+	private static void copy(final NetcdfFile source, final String targetPath, final Preset preset)
+			throws IOException, InvalidRangeException {
+		final NetcdfFileWriter writer = NetcdfFileWriter.createNew(preset._version, targetPath, preset._chunker);
+		try {
+			for (final Attribute attribute : source.getGlobalAttributes()) {
+				writer.addGroupAttribute(null, attribute);
+			}
+			for (final Dimension dimension : source.getDimensions()) {
+				writer.addDimension(null, dimension.getShortName(), dimension.getLength());
+			}
+			final List<Variable> sourceVariables = source.getVariables();
+			final List<Variable> targetVariables = new ArrayList<>(sourceVariables.size());
+			for (final Variable sourceVariable : sourceVariables) {
+				final Variable targetVariable = writer.addVariable(null, sourceVariable.getShortName(),
+						sourceVariable.getDataType(), sourceVariable.getDimensionsString());
+				for (final Attribute attribute : sourceVariable.getAttributes()) {
+					writer.addVariableAttribute(targetVariable, attribute);
+				}
+				targetVariables.add(targetVariable);
+			}
+			writer.create();
+			final int nVariables = sourceVariables.size();
+			for (int k = 0; k < nVariables; ++k) {
+				final Variable sourceVariable = sourceVariables.get(k);
+				final Array array = sourceVariable.read();
+				if (sourceVariable.getDataType() == DataType.STRING) {
+					writer.writeStringData(targetVariables.get(k), array);
+				} else {
+					writer.write(targetVariables.get(k), array);
+				}
+			}
+		} finally {
+			writer.close();
+		}
+	}
+
+	/** The planner's pattern: each time slice of lat and lng, whole. */
+	private static long readTimeSlices(final String path) throws IOException, InvalidRangeException {
+		long checksum = 0L;
+		try (NetcdfFile netCdfFile = NetcdfFile.open(path)) {
+			for (final String varName : new String[] {
+					ParticlesFile._VarLat, ParticlesFile._VarLng
+			}) {
+				final Variable variable = netCdfFile.findVariable(varName);
+				final int[] shape = variable.getShape();
+				final int[] sliceShape = new int[] {
+						1, shape[1], shape[2]
+				};
+				for (int timeIdx = 0; timeIdx < shape[0]; ++timeIdx) {
+					checksum += variable.read(new int[] {
+							timeIdx, 0, 0
+					}, sliceShape).getSize();
+				}
+			}
+		}
+		return checksum;
+	}
+
+	/** The dumpers' pattern: all times of lat and lng for single particles. */
+	private static long readTracks(final String path, final int nTracks) throws IOException, InvalidRangeException {
+		long checksum = 0L;
+		try (NetcdfFile netCdfFile = NetcdfFile.open(path)) {
+			for (final String varName : new String[] {
+					ParticlesFile._VarLat, ParticlesFile._VarLng
+			}) {
+				final Variable variable = netCdfFile.findVariable(varName);
+				final int[] shape = variable.getShape();
+				final int nParticles = shape[1] * shape[2];
+				final int nToRead = Math.min(nTracks, nParticles);
+				final int[] trackShape = new int[] {
+						shape[0], 1, 1
+				};
+				for (int k = 0; k < nToRead; ++k) {
+					/** Spread the sample over all scenarii and particles. */
+					final int flatIdx = (int) ((long) k * nParticles / nToRead);
+					checksum += variable.read(new int[] {
+							0, flatIdx / shape[2], flatIdx % shape[2]
+					}, trackShape).getSize();
+				}
+			}
+		}
+		return checksum;
+	}
+
+	public static void main(final String[] args) {
+		final File sourceFile = new File(args[0]);
+		final int nTracks = args.length > 1 ? Integer.parseInt(args[1]) : _DefaultNTracks;
+		final String sourcePath = sourceFile.getAbsolutePath();
+		System.out.printf("%s: %d bytes, %d tracks sampled.%n", sourcePath, sourceFile.length(), nTracks);
+		System.out.printf("%-14s %14s %10s %12s %10s%n", "Preset", "Bytes", "Write ms", "Slices ms", "Tracks ms");
+		try (NetcdfFile source = NetcdfFile.open(sourcePath)) {
+			for (final Preset preset : getPresets()) {
+				final File targetFile = new File(sourceFile.getParentFile(),
+						sourceFile.getName() + "." + preset._name + ".nc");
+				final String targetPath = targetFile.getAbsolutePath();
+				try {
+					final long t0 = System.nanoTime();
+					copy(source, targetPath, preset);
+					final long t1 = System.nanoTime();
+					readTimeSlices(targetPath);
+					final long t2 = System.nanoTime();
+					readTracks(targetPath, nTracks);
+					final long t3 = System.nanoTime();
+					System.out.printf("%-14s %14d %10d %12d %10d%n", preset._name, targetFile.length(),
+							(t1 - t0) / 1000000L, (t2 - t1) / 1000000L, (t3 - t2) / 1000000L);
+				} catch (final Exception e) {
+					/** Typically, no native NetCdf-4 library. */
+					System.out.printf("%-14s failed: %s%n", preset._name, e.toString());
+				} finally {
+					targetFile.delete();
+				}
+			}
+		} catch (final IOException e) {
+			e.printStackTrace();
+		}
+	}
+}
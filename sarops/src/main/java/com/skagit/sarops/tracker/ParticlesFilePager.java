@@ -0,0 +1,206 @@
+package com.skagit.sarops.tracker;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import ucar.ma2.Array;
+import ucar.ma2.Index;
+import ucar.ma2.InvalidRangeException;
+import ucar.nc2.NetcdfFile;
+import ucar.nc2.Variable;
+
+/**
+ * Pages time slices of the big [time][scenario][particle] variables of a
+ * particles file in from disk on demand, keeping at most _maxNSlices of them.
+ * A slice is one variable at one time index, i.e., a [scenario][particle]
+ * array, and it lives at slot varOrd * nRefSecsS + timeIdx, where varOrd is
+ * the variable's index in the varNames given to the constructor.
+ * <p>
+ * A hit is one read of an AtomicReferenceArray; it takes no lock and
+ * allocates nothing. A miss locks only its own slot, so concurrent misses on
+ * one slice load it once, and misses on different slices wait only for the
+ * file itself, which we keep open (NetcdfFile reads are not thread-safe).
+ * Eviction is by the clock (second chance) rule: a hit marks its slot, and
+ * a marked slot is passed over once before it goes.
+ * <p>
+ * Slices are read-only; ParticlesFile refuses to modify a paged file.
+ */
+class ParticlesFilePager {
+	final private String _particlesFilePath;
+	final private String[] _varNames;
+	final private int _nRefSecsS;
+	final private int _nScenarii;
+	final private int _nParticlesPerScenario;
+	final private int _maxNSlices;
+	final private AtomicReferenceArray<Object> _slices;
+	final private AtomicIntegerArray _referenced;
+	final private Object[] _slotLocks;
+	/** The loaded slots, oldest first. Guarded by itself. */
+	final private ArrayDeque<Integer> _clock;
+	/** Guarded by _fileLock; opened on demand, and reopened after close. */
+	final private Object _fileLock;
+	private NetcdfFile _netCdfFile;
+
+	ParticlesFilePager(final String particlesFilePath, final String[] varNames, final int nRefSecsS,
+			final int nScenarii, final int nParticlesPerScenario, final int maxNSlices) {
+		_particlesFilePath = particlesFilePath;
+		_varNames = varNames.clone();
+		_nRefSecsS = nRefSecsS;
+		_nScenarii = nScenarii;
+		_nParticlesPerScenario = nParticlesPerScenario;
+		_maxNSlices = Math.max(1, maxNSlices);
+		final int nSlots = _varNames.length * nRefSecsS;
+		_slices = new AtomicReferenceArray<>(nSlots);
+		_referenced = new AtomicIntegerArray(nSlots);
+		_slotLocks = new Object[nSlots];
+		for (int k = 0; k < nSlots; ++k) {
+			_slotLocks[k] = new Object();
+		}
+		_clock = new ArrayDeque<>();
+		_fileLock = new Object();
+		_netCdfFile = null;
+	}
+
+	/** The most that the cached slices can take up. */
+	long getMaxNBytes() {
+		return (long) _maxNSlices * _nScenarii * _nParticlesPerScenario * 4L;
+	}
+
+	/**
+	 * Closes the file; the next miss reopens it. For when the ParticlesFile
+	 * leaves the cache, though someone may still be reading it.
+	 */
+	void close() {
+		synchronized (_fileLock) {
+			if (_netCdfFile != null) {
+				try {
+					_netCdfFile.close();
+				} catch (final IOException e) {
+				}
+				_netCdfFile = null;
+			}
+		}
+	}
+
+	float[][] getFloats(final String varName, final int timeIdx) {
+		return (float[][]) getSlice(getVarOrd(varName), timeIdx, /* isFloat= */true);
+	}
+
+	int[][] getInts(final String varName, final int timeIdx) {
+		return (int[][]) getSlice(getVarOrd(varName), timeIdx, /* isFloat= */false);
+	}
+
+	/** For whole-file sweeps (e.g., deepEquals); does not disturb the cache. */
+	float[][][] readAllFloats(final String varName) {
+		final int varOrd = getVarOrd(varName);
+		final float[][][] floats = new float[_nRefSecsS][][];
+		for (int timeIdx = 0; timeIdx < _nRefSecsS; ++timeIdx) {
+			final Object slice = _slices.get(varOrd * _nRefSecsS + timeIdx);
+			floats[timeIdx] = slice != null ? (float[][]) slice : (float[][]) readSlice(varOrd, timeIdx, true);
+		}
+		return floats;
+	}
+
+	int[][][] readAllInts(final String varName) {
+		final int varOrd = getVarOrd(varName);
+		final int[][][] ints = new int[_nRefSecsS][][];
+		for (int timeIdx = 0; timeIdx < _nRefSecsS; ++timeIdx) {
+			final Object slice = _slices.get(varOrd * _nRefSecsS + timeIdx);
+			ints[timeIdx] = slice != null ? (int[][]) slice : (int[][]) readSlice(varOrd, timeIdx, false);
+		}
+		return ints;
+	}
+
+	/** varName is nearly always one of our own constants, so == finds it. */
+	private int getVarOrd(final String varName) {
+		final int nVarNames = _varNames.length;
+		for (int k = 0; k < nVarNames; ++k) {
+			if (_varNames[k] == varName) {
+				return k;
+			}
+		}
+		for (int k = 0; k < nVarNames; ++k) {
+			if (_varNames[k].equals(varName)) {
+				return k;
+			}
+		}
+		throw new IllegalArgumentException(String.format("%s is not paged.", varName));
+	}
+
+	private Object getSlice(final int varOrd, final int timeIdx, final boolean isFloat) {
+		final int slot = varOrd * _nRefSecsS + timeIdx;
+		final Object slice = _slices.get(slot);
+		if (slice != null) {
+			if (_referenced.get(slot) == 0) {
+				_referenced.lazySet(slot, 1);
+			}
+			return slice;
+		}
+		final Object newSlice;
+		synchronized (_slotLocks[slot]) {
+			final Object slice1 = _slices.get(slot);
+			if (slice1 != null) {
+				/** Someone else loaded it while we waited. */
+				return slice1;
+			}
+			newSlice = readSlice(varOrd, timeIdx, isFloat);
+			_slices.set(slot, newSlice);
+		}
+		synchronized (_clock) {
+			_clock.addLast(slot);
+			while (_clock.size() > _maxNSlices) {
+				final int victim = _clock.pollFirst();
+				if (_referenced.get(victim) != 0) {
+					_referenced.set(victim, 0);
+					_clock.addLast(victim);
+					continue;
+				}
+				_slices.set(victim, null);
+			}
+		}
+		return newSlice;
+	}
+
+	private Object readSlice(final int varOrd, final int timeIdx, final boolean isFloat) {
+		final String varName = _varNames[varOrd];
+		final Array values;
+		synchronized (_fileLock) {
+			try {
+				if (_netCdfFile == null) {
+					_netCdfFile = NetcdfFile.open(_particlesFilePath);
+				}
+				final Variable variable = _netCdfFile.findVariable(varName);
+				if (variable == null) {
+					throw new RuntimeException(String.format("%s has no variable %s.", _particlesFilePath, varName));
+				}
+				values = variable.read(new int[] {
+						timeIdx, 0, 0
+				}, new int[] {
+						1, _nScenarii, _nParticlesPerScenario
+				});
+			} catch (final IOException | InvalidRangeException e) {
+				throw new RuntimeException(
+						String.format("Could not page in %s[%d] from %s.", varName, timeIdx, _particlesFilePath), e);
+			}
+		}
+		final Index index = values.getIndex();
+		if (isFloat) {
+			final float[][] floats = new float[_nScenarii][_nParticlesPerScenario];
+			for (int k0 = 0; k0 < _nScenarii; ++k0) {
+				for (int k1 = 0; k1 < _nParticlesPerScenario; ++k1) {
+					floats[k0][k1] = values.getFloat(index.set(0, k0, k1));
+				}
+			}
+			return floats;
+		}
+		final int[][] ints = new int[_nScenarii][_nParticlesPerScenario];
+		for (int k0 = 0; k0 < _nScenarii; ++k0) {
+			for (int k1 = 0; k1 < _nParticlesPerScenario; ++k1) {
+				ints[k0][k1] = values.getInt(index.set(0, k0, k1));
+			}
+		}
+		return ints;
+	}
+}
@@ -1,6 +1,12 @@
 package com.skagit.sarops.tracker;
 
+import java.io.File;
+import java.io.IOException;
 import java.lang.reflect.Field;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.Iterator;
 
@@ -19,6 +25,8 @@ import com.skagit.util.StaticUtilities;
 import com.skagit.util.StringUtilities;
 import com.skagit.util.netCdfUtil.NetCdfUtil;
 
+import ucar.ma2.Array;
+import ucar.ma2.DataType;
 import ucar.nc2.Dimension;
 import ucar.nc2.NetcdfFileWriter;
 import ucar.nc2.Variable;
@@ -34,6 +42,20 @@ public class ParticlesFileWriter {
 	final private ArrayList<Snapshot> _snapshots;
 	private int[] _timeIndexesToDump;
 	private long[] _dumpTimes;
+	/**
+	 * If _streamSnapshots, each snapshot goes straight into the file (into
+	 * whichever dump slots want it) instead of into _snapshots, and
+	 * _streamingNetCdfFileWriter is the open file in between. That file is at
+	 * _streamingTmpPath until finishStreamingNetCdfFile renames it to
+	 * _particlesFilePath, so nobody ever sees a partial particles file there.
+	 * This happens only in the post-run snapshot pass; ParticlesFile still holds
+	 * every time step's state through doTimeSteps, so it bounds the writer's
+	 * memory, not the run's peak.
+	 */
+	private boolean _streamSnapshots;
+	private NetcdfFileWriter _streamingNetCdfFileWriter;
+	final private String _streamingTmpPath;
+	private int _nSnapshotsBuilt;
 
 	public ParticlesFileWriter(final Tracker tracker) {
 		_simCase = tracker.getSimCase();
@@ -53,9 +75,68 @@ public class ParticlesFileWriter {
 		_snapshots = new ArrayList<>();
 		_timeIndexesToDump = null;
 		_dumpTimes = null;
+		/**
+		 * A PARTICLE_TRACK chunk spans every time, so writing it one time slice at
+		 * a time would recompress each chunk once per slice.
+		 */
+		final SimGlobalStrings simGlobalStrings = _simCase.getSimGlobalStrings();
+		_streamSnapshots = simGlobalStrings.getStreamParticlesFile() && ParticlesFileChunking
+				.parseLayout(simGlobalStrings.getParticlesFileLayout()) != ParticlesFileChunking.Layout.PARTICLE_TRACK;
+		_streamingNetCdfFileWriter = null;
+		_streamingTmpPath = _particlesFilePath + ".partial";
+		_nSnapshotsBuilt = 0;
 	}
 
 	public void writeNetCdfFile(final int nChunksToReport) {
+		int nChunksReportedHere = 0;
+		if (nChunksReportedHere < nChunksToReport) {
+			_simCase.reportChunkDone();
+			++nChunksReportedHere;
+		}
+		if (_streamingNetCdfFileWriter != null) {
+			/** The snapshots are already there; just finish up. */
+			finishStreamingNetCdfFile();
+		} else {
+			final Model model = _particlesFile.getModel();
+			final boolean writeOcTables = model.getWriteOcTables();
+			final boolean storeMeans = _simCase.getSimGlobalStrings().storeMeans();
+			try (NetcdfFileWriter netCdfFileWriter = createNetCdfFile(_particlesFilePath)) {
+				/** Snapshot arrays. */
+				final Iterator<VarInfoOf3dStandardVars> it1 = Snapshot._SnapshotVarInfos.iterator();
+				while (it1.hasNext()) {
+					final VarInfoOf3dStandardVars varInfo = it1.next();
+					if (!varInfo._oc || writeOcTables) {
+						writeSnapshotArray(model, netCdfFileWriter, varInfo);
+					}
+				}
+				if (storeMeans) {
+					/**
+					 * We cannot appeal to VarInfoOf3dStandardVars for the names here, since the
+					 * dimensions are different than time/scenario/particle-within-scenario..
+					 */
+					writeSnapshotArray(model, netCdfFileWriter, ParticlesFile._VarMeanLat, "_meanLat");
+					writeSnapshotArray(model, netCdfFileWriter, ParticlesFile._VarMeanLng, "_meanLng");
+					NetCdfUtil.write2DInt(netCdfFileWriter, ParticlesFile._VarMeanBirthTime, getMeanBirthRefSecsS());
+					NetCdfUtil.write2DInt(netCdfFileWriter, ParticlesFile._VarMeanLandingTime, getMeanLandingRefSecsS());
+				}
+			} catch (final Exception e1) {
+				e1.printStackTrace();
+				MainRunner.HandleFatal(_simCase, new RuntimeException(e1));
+			}
+		}
+		if (nChunksReportedHere < nChunksToReport) {
+			_simCase.reportChunkDone();
+			++nChunksReportedHere;
+		}
+	}
+
+	/**
+	 * Defines the file, creates it, and writes everything but the snapshot
+	 * variables (and, if we store means, the mean birth and landing times). The
+	 * time dimension is preallocated to the number of dumps. The caller must
+	 * close the returned writer.
+	 */
+	private NetcdfFileWriter createNetCdfFile(final String filePath) throws IOException {
 		final Model model = _particlesFile.getModel();
 		final boolean writeOcTables = model.getWriteOcTables();
 		final NetcdfFileWriter.Version[] versionValues = NetcdfFileWriter.Version.values();
@@ -66,11 +147,6 @@ public class ParticlesFileWriter {
 		}
 		final SimGlobalStrings simGlobalStrings = _simCase.getSimGlobalStrings();
 		final boolean storeMeans = simGlobalStrings.storeMeans();
-		int nChunksReportedHere = 0;
-		if (nChunksReportedHere < nChunksToReport) {
-			_simCase.reportChunkDone();
-			++nChunksReportedHere;
-		}
 		final long[] refSecsS = _particlesFile.getRefSecsS();
 		final int nRefSecsS = refSecsS.length;
 		final int nMonteCarloStepsPerDump = model.getNMonteCarloStepsPerDump();
@@ -86,8 +162,9 @@ public class ParticlesFileWriter {
 			_dumpTimes[k] = refSecsS[timeIndex];
 		}
 
-		try (NetcdfFileWriter netCdfFileWriter = NetcdfFileWriter.createNew(NetCdfUtil._NetCdfVersion,
-				_particlesFilePath, /* chunker= */null)) {
+		final NetcdfFileWriter netCdfFileWriter = NetcdfFileWriter.createNew(NetCdfUtil._NetCdfVersion,
+				filePath, ParticlesFileChunking.getChunker(_simCase));
+		try {
 			/** Create dimensions and sets of dimensions. */
 			final Dimension timeDim = NetCdfUtil.createDimension(netCdfFileWriter, ParticlesFile._DimTime,
 					nTimeIndexesToDump);
@@ -272,33 +349,14 @@ public class ParticlesFileWriter {
 				}
 				NetCdfUtil.write1DString(netCdfFileWriter, ParticlesFile._VarSvt, stateVectorTypeNames);
 			}
-
-			/** Snapshot arrays. */
-			final Iterator<VarInfoOf3dStandardVars> it1 = Snapshot._SnapshotVarInfos.iterator();
-			while (it1.hasNext()) {
-				final VarInfoOf3dStandardVars varInfo = it1.next();
-				if (!varInfo._oc || writeOcTables) {
-					writeSnapshotArray(model, netCdfFileWriter, varInfo);
-				}
-			}
-			if (storeMeans) {
-				/**
-				 * We cannot appeal to VarInfoOf3dStandardVars for the names here, since the
-				 * dimensions are different than time/scenario/particle-within-scenario..
-				 */
-				writeSnapshotArray(model, netCdfFileWriter, ParticlesFile._VarMeanLat, "_meanLat");
-				writeSnapshotArray(model, netCdfFileWriter, ParticlesFile._VarMeanLng, "_meanLng");
-				NetCdfUtil.write2DInt(netCdfFileWriter, ParticlesFile._VarMeanBirthTime, getMeanBirthRefSecsS());
-				NetCdfUtil.write2DInt(netCdfFileWriter, ParticlesFile._VarMeanLandingTime, getMeanLandingRefSecsS());
+		} catch (final Exception e) {
+			try {
+				netCdfFileWriter.close();
+			} catch (final IOException e1) {
 			}
-		} catch (final Exception e1) {
-			e1.printStackTrace();
-			MainRunner.HandleFatal(_simCase, new RuntimeException(e1));
-		}
-		if (nChunksReportedHere < nChunksToReport) {
-			_simCase.reportChunkDone();
-			++nChunksReportedHere;
+			throw new RuntimeException(e);
 		}
+		return netCdfFileWriter;
 	}
 
 	/** Creating java arrays from _particlesFile. */
@@ -556,8 +614,139 @@ public class ParticlesFileWriter {
 		}
 	}
 
+	/**
+	 * Opens the file and writes everything that does not depend on the
+	 * snapshots. If we cannot, we go back to holding the snapshots and writing
+	 * at the end.
+	 */
+	private void startStreamingNetCdfFile() {
+		try {
+			new File(_streamingTmpPath).delete();
+			_streamingNetCdfFileWriter = createNetCdfFile(_streamingTmpPath);
+		} catch (final Exception e) {
+			SimCaseManager.err(_simCase, String.format("Cannot stream to %s; will write it at the end.\n%s",
+					_streamingTmpPath, StringUtilities.getStackTraceString(e)));
+			_streamingNetCdfFileWriter = null;
+			_streamSnapshots = false;
+			new File(_streamingTmpPath).delete();
+		}
+	}
+
+	/** Writes snapshot into every dump slot that takes it, and flushes. */
+	private void writeSnapshotSlices(final int snapshotIdx, final Snapshot snapshot) {
+		final Model model = _particlesFile.getModel();
+		final boolean writeOcTables = model.getWriteOcTables();
+		final boolean storeMeans = _simCase.getSimGlobalStrings().storeMeans();
+		final int nTimesToDump = _timeIndexesToDump.length;
+		try {
+			boolean wroteAny = false;
+			for (int k = 0; k < nTimesToDump; ++k) {
+				if (_timeIndexesToDump[k] != snapshotIdx) {
+					continue;
+				}
+				for (final VarInfoOf3dStandardVars varInfo : Snapshot._SnapshotVarInfos) {
+					if (!varInfo._oc || (writeOcTables && snapshot.haveOcData())) {
+						writeSnapshotSlice(k, snapshot, varInfo._varName, varInfo._fieldName);
+					}
+				}
+				if (storeMeans) {
+					writeSnapshotSlice(k, snapshot, ParticlesFile._VarMeanLat, "_meanLat");
+					writeSnapshotSlice(k, snapshot, ParticlesFile._VarMeanLng, "_meanLng");
+				}
+				wroteAny = true;
+			}
+			if (wroteAny) {
+				/** So that anyone watching the file sees the progress. */
+				_streamingNetCdfFileWriter.flush();
+			}
+		} catch (final Exception e) {
+			e.printStackTrace();
+			MainRunner.HandleFatal(_simCase, new RuntimeException(e));
+		}
+	}
+
+	/** One [scenario][x] array of snapshot into time slot k of varName. */
+	private void writeSnapshotSlice(final int k, final Snapshot snapshot, final String varName,
+			final String fieldName) throws Exception {
+		final Variable variable = _streamingNetCdfFileWriter.findVariable(varName);
+		if (variable == null) {
+			return;
+		}
+		final Field field = Snapshot.class.getDeclaredField(fieldName);
+		final Object value = field.get(snapshot);
+		final Array array;
+		if (value instanceof float[][]) {
+			final float[][] floats = (float[][]) value;
+			final int n0 = floats.length;
+			final int n1 = n0 == 0 ? 0 : floats[0].length;
+			final float[] flat = new float[n0 * n1];
+			for (int k0 = 0; k0 < n0; ++k0) {
+				System.arraycopy(floats[k0], 0, flat, k0 * n1, n1);
+			}
+			array = Array.factory(DataType.FLOAT, new int[] {
+					1, n0, n1
+			}, flat);
+		} else if (value instanceof int[][]) {
+			final int[][] ints = (int[][]) value;
+			final int n0 = ints.length;
+			final int n1 = n0 == 0 ? 0 : ints[0].length;
+			final int[] flat = new int[n0 * n1];
+			for (int k0 = 0; k0 < n0; ++k0) {
+				System.arraycopy(ints[k0], 0, flat, k0 * n1, n1);
+			}
+			array = Array.factory(DataType.INT, new int[] {
+					1, n0, n1
+			}, flat);
+		} else {
+			return;
+		}
+		_streamingNetCdfFileWriter.write(variable, new int[] {
+				k, 0, 0
+		}, array);
+	}
+
+	/** The untimed means, close, and move the file into place. */
+	private void finishStreamingNetCdfFile() {
+		final boolean storeMeans = _simCase.getSimGlobalStrings().storeMeans();
+		try {
+			try (NetcdfFileWriter netCdfFileWriter = _streamingNetCdfFileWriter) {
+				if (storeMeans) {
+					NetCdfUtil.write2DInt(netCdfFileWriter, ParticlesFile._VarMeanBirthTime, getMeanBirthRefSecsS());
+					NetCdfUtil.write2DInt(netCdfFileWriter, ParticlesFile._VarMeanLandingTime,
+							getMeanLandingRefSecsS());
+				}
+			}
+			final Path tmpPath = new File(_streamingTmpPath).toPath();
+			final Path finalPath = new File(_particlesFilePath).toPath();
+			try {
+				Files.move(tmpPath, finalPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} catch (final AtomicMoveNotSupportedException e) {
+				Files.move(tmpPath, finalPath, StandardCopyOption.REPLACE_EXISTING);
+			}
+		} catch (final Exception e1) {
+			new File(_streamingTmpPath).delete();
+			e1.printStackTrace();
+			MainRunner.HandleFatal(_simCase, new RuntimeException(e1));
+		}
+		_streamingNetCdfFileWriter = null;
+	}
+
+	/**
+	 * For a run that stops before writeNetCdfFile. As with the non-streaming
+	 * path, there is then no particles file.
+	 */
+	public void abandonNetCdfFile() {
+		if (_streamingNetCdfFileWriter != null) {
+			try {
+				_streamingNetCdfFileWriter.close();
+			} catch (final IOException e) {
+			}
+			_streamingNetCdfFileWriter = null;
+			new File(_streamingTmpPath).delete();
+		}
+	}
+
 	public void buildSnapshot(final long simSecs) {
-		final SimGlobalStrings simGlobalStrings = _simCase.getSimGlobalStrings();
 		final Model model = _particlesFile.getModel();
 		final int nScenarii = model.getNScenarii();
 		final int nParticlesPerScenario = model.getNParticlesPerScenario();
@@ -565,18 +754,41 @@ public class ParticlesFileWriter {
 		final Snapshot currentSnapshot = new Snapshot(_simCase, nScenarii, nParticlesPerScenario, nSearchObjectTypes);
 		final long[] refSecsS = _particlesFile.getRefSecsS();
 		final long refSecs = model.getRefSecs(simSecs);
-		int timeIdx;
+		if (_streamSnapshots && _streamingNetCdfFileWriter == null) {
+			startStreamingNetCdfFile();
+		}
+		/** snapshotIdx is where _snapshots would hold it. */
+		final int timeIdx;
+		final int snapshotIdx;
 		if (model.getReverseDrift()) {
 			timeIdx = CombinatoricTools.getLubIndex(refSecsS, (int) refSecs);
-			while (_snapshots.size() < timeIdx + 1) {
-				_snapshots.add(null);
+			snapshotIdx = timeIdx;
+			if (!_streamSnapshots) {
+				while (_snapshots.size() < timeIdx + 1) {
+					_snapshots.add(null);
+				}
+				_snapshots.set(timeIdx, currentSnapshot);
 			}
-			_snapshots.set(timeIdx, currentSnapshot);
 		} else {
 			timeIdx = CombinatoricTools.getGlbIndex(refSecsS, (int) refSecs);
-			_snapshots.add(currentSnapshot);
+			snapshotIdx = _nSnapshotsBuilt;
+			if (!_streamSnapshots) {
+				_snapshots.add(currentSnapshot);
+			}
+		}
+		++_nSnapshotsBuilt;
+		fillSnapshot(currentSnapshot, refSecs, timeIdx);
+		if (_streamSnapshots) {
+			writeSnapshotSlices(snapshotIdx, currentSnapshot);
 		}
+	}
 
+	private void fillSnapshot(final Snapshot currentSnapshot, final long refSecs, final int timeIdx) {
+		final SimGlobalStrings simGlobalStrings = _simCase.getSimGlobalStrings();
+		final Model model = _particlesFile.getModel();
+		final int nScenarii = model.getNScenarii();
+		final int nParticlesPerScenario = model.getNParticlesPerScenario();
+		final int nSearchObjectTypes = model.getNSearchObjectTypes();
 		float normalizationFactor = 0f;
 		for (int iPass = 0; iPass < 2; ++iPass) {
 			for (int iScenario = 0; iScenario < nScenarii; ++iScenario) {
@@ -14,8 +14,6 @@ import java.util.List;
 import java.util.Random;
 import java.util.TreeMap;
 import java.util.TreeSet;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.Future;
 
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.HorizontalAlignment;
@@ -33,6 +31,7 @@ import com.skagit.sarops.computePFail.DetectValues;
 import com.skagit.sarops.environment.BoxDefinition;
 import com.skagit.sarops.environment.CurrentsUvGetter;
 import com.skagit.sarops.environment.WindsUvGetter;
+import com.skagit.sarops.environment.dynamic.DynamicEnvUvGetter;
 import com.skagit.sarops.model.Model;
 import com.skagit.sarops.model.Scenario;
 import com.skagit.sarops.model.SearchObjectType;
@@ -102,6 +101,12 @@ public class Tracker implements MainSaropsObject {
 	/** One ParticleSet per scenario and one Randomx per Particle. */
 	final private ParticleSet[] _particleSets;
 	final Randomx[][] _randoms;
+	/**
+	 * For the environment look-ahead: each particle's position, and its time,
+	 * when we last queued a look-ahead for it. Allocated on first use.
+	 */
+	private LatLng3[][] _prefetchLatLngs;
+	private long[][] _prefetchSimSecsS;
 	/** _model contains all the information needed to run a simulation. */
 	final private Model _model;
 	/** The location where execution progress is being reported. */
@@ -596,6 +601,9 @@ public class Tracker implements MainSaropsObject {
 				return;
 			}
 		}
+		for (final ParticleSet particleSet : _particleSets) {
+			particleSet.flushColumns();
+		}
 		_simCase.reportChunksDone(nIntroChunks + nMotioningChunks);
 		logger.out("Did all Time Updates.");
 
@@ -630,7 +638,11 @@ public class Tracker implements MainSaropsObject {
 		updateBirthDistressAndExpirationTimesForReverseDrift(firstRefSecs, lastRefSecs);
 		logger.out("Particles file updated for birth, distress, and expiration times.");
 
-		/** Create particlesFileWriter and populate its snapshots. */
+		/**
+		 * Create particlesFileWriter and populate its snapshots. Even with
+		 * Stream.Particles.File, this is after the run; the snapshots need the
+		 * passes above.
+		 */
 		final ParticlesFileWriter particlesFileWriter = new ParticlesFileWriter(this);
 		for (int timeIdx = 0; timeIdx < nRefSecsS; ++timeIdx) {
 			final boolean isLastRefSecs = timeIdx == nRefSecsS - 1;
@@ -651,6 +663,7 @@ public class Tracker implements MainSaropsObject {
 			}
 			dumpTimeStepToLogFile(simSecs, isLastRefSecs);
 			if (!getKeepGoing()) {
+				particlesFileWriter.abandonNetCdfFile();
 				_simCase.runOutChunks();
 				return;
 			}
@@ -994,56 +1007,17 @@ public class Tracker implements MainSaropsObject {
 		final SimGlobalStrings simGlobalStrings = _simCase.getSimGlobalStrings();
 		final SimCaseManager simCaseManager = _simCase.getSimCaseManager();
 		final DebrisLikelihoodCalculator dlc = new DebrisLikelihoodCalculator(this);
-
-		/** Boilerplate for multithreading... */
 		final int minNPerSlice = simGlobalStrings.getMinNPerSliceInTracker();
-		int nSlices = (nParticles + (minNPerSlice - 1)) / minNPerSlice;
-		final Object lockOnWorkersThreadPool = simCaseManager.getLockOnWorkersThreadPool();
-		Future<?>[] futures = null;
-		final ArrayList<Integer> notTaskedISlices = new ArrayList<>();
-		int nWorkers = 0;
-		final boolean useMultithreading = true;
-		if (useMultithreading && nSlices > 1) {
-			synchronized (lockOnWorkersThreadPool) {
-				final int nFreeWorkers = simCaseManager.getNFreeWorkerThreads(_simCase, "UpdateParticlesFileForSortie");
-				nWorkers = Math.max(0, Math.min(nSlices - 1, nFreeWorkers));
-				if (nWorkers < 2) {
-					nWorkers = 0;
-					nSlices = 1;
-				} else {
-					final int finalNSlices = nSlices = nWorkers + 1;
-					futures = new Future<?>[nWorkers];
-					for (int iWorker = 0; iWorker < nWorkers; ++iWorker) {
-						final int finalIWorker = iWorker;
-						final Runnable runnable = new Runnable() {
-							@Override
-							public void run() {
-								/** ... to here. */
-								runSliceForLikelihoods(dlc, finalIWorker, finalNSlices);
-							}
-						};
-						futures[iWorker] = simCaseManager.submitToWorkers(_simCase, runnable);
-						if (futures[iWorker] == null) {
-							notTaskedISlices.add(iWorker);
-						}
-					}
-				}
+		final SimCaseManager.RangeRunner rangeRunner = new SimCaseManager.RangeRunner() {
+			@Override
+			public void runRange(final int k0, final int k1) {
+				runRangeForLikelihoods(dlc, k0, k1);
 			}
-		}
-		for (int iSlice = nWorkers; iSlice < nSlices; ++iSlice) {
-			notTaskedISlices.add(iSlice);
-		}
-		for (final int iSlice : notTaskedISlices) {
-			runSliceForLikelihoods(dlc, iSlice, nSlices);
-		}
+		};
 		try {
-			for (int iWorker = 0; iWorker < nWorkers; ++iWorker) {
-				if (futures[iWorker] != null) {
-					futures[iWorker].get();
-				}
-			}
-		} catch (final ExecutionException e) {
-		} catch (final InterruptedException e) {
+			simCaseManager.parallelFor(_simCase, "UpdateParticlesFileForSortie", nParticles, minNPerSlice, rangeRunner);
+		} catch (final Exception e) {
+			SimCaseManager.standardLogError(_simCase, e);
 		}
 	}
 
@@ -1065,13 +1039,10 @@ public class Tracker implements MainSaropsObject {
 		}
 	}
 
-	private void runSliceForLikelihoods(final DebrisLikelihoodCalculator dlc, final int myStartIndex,
-			final int nSlices) {
-		final int nScenarii = _model.getNScenarii();
+	private void runRangeForLikelihoods(final DebrisLikelihoodCalculator dlc, final int k0, final int k1) {
 		final int nParticlesPerScenario = _model.getNParticlesPerScenario();
-		final int nParticles = nParticlesPerScenario * nScenarii;
 		final List<Sortie> sorties = _model.getSorties();
-		for (int iParticle = myStartIndex; iParticle < nParticles; iParticle += nSlices) {
+		for (int iParticle = k0; iParticle < k1; ++iParticle) {
 			final int iScenario = iParticle / nParticlesPerScenario;
 			final int iParticleThisScenario = iParticle % nParticlesPerScenario;
 			final ParticleIndexes prtclIndxs = ParticleIndexes.getStandardOne(_model, iScenario, iParticleThisScenario);
@@ -1124,6 +1095,82 @@ public class Tracker implements MainSaropsObject {
 		}
 	}
 
+	/**
+	 * Extrapolates each adrift particle's last move nStepsAhead steps, and has
+	 * any dynamic getters fetch boxes for those positions in the background, so
+	 * that the fetching overlaps this step's computing.
+	 */
+	private void queueEnvPrefetch(final long[] simSecsS, final int timeIdx, final int nStepsAhead,
+			final CurrentsUvGetter currentsUvGetter, final WindsUvGetter windsUvGetter) {
+		final DynamicEnvUvGetter dynamicCurrents = currentsUvGetter instanceof DynamicEnvUvGetter
+				? (DynamicEnvUvGetter) currentsUvGetter
+				: null;
+		final DynamicEnvUvGetter dynamicWinds = windsUvGetter instanceof DynamicEnvUvGetter
+				? (DynamicEnvUvGetter) windsUvGetter
+				: null;
+		final int nSimSecsS = simSecsS.length;
+		if ((dynamicCurrents == null && dynamicWinds == null) || timeIdx + 1 >= nSimSecsS) {
+			return;
+		}
+		final long simSecs = simSecsS[timeIdx];
+		final long aheadSimSecs = simSecsS[Math.min(nSimSecsS - 1, timeIdx + nStepsAhead)];
+		final long aheadRefSecs = _model.getRefSecs(aheadSimSecs);
+		final int nScenarii = _model.getNScenarii();
+		if (_prefetchLatLngs == null) {
+			_prefetchLatLngs = new LatLng3[nScenarii][];
+			_prefetchSimSecsS = new long[nScenarii][];
+			for (int iScenario = 0; iScenario < nScenarii; ++iScenario) {
+				final int nParticles = _particleSets[iScenario]._particles.length;
+				_prefetchLatLngs[iScenario] = new LatLng3[nParticles];
+				_prefetchSimSecsS[iScenario] = new long[nParticles];
+			}
+		}
+		for (int iScenario = 0; iScenario < nScenarii; ++iScenario) {
+			final ParticleSet particleSet = _particleSets[iScenario];
+			final Particle[] particles = particleSet._particles;
+			final int nParticles = particles.length;
+			final LatLng3[] oldLatLngs = _prefetchLatLngs[iScenario];
+			final long[] oldSimSecsS = _prefetchSimSecsS[iScenario];
+			for (int iParticle = 0; iParticle < nParticles; ++iParticle) {
+				if (particles[iParticle].getDistressSimSecs() > simSecs) {
+					continue;
+				}
+				final LatLng3 latLng = particleSet.getLatestLatLng(iParticle);
+				final long thisSimSecs = particleSet.getLatestSimSecs(iParticle);
+				final LatLng3 oldLatLng = oldLatLngs[iParticle];
+				final long oldSimSecs = oldSimSecsS[iParticle];
+				oldLatLngs[iParticle] = latLng;
+				oldSimSecsS[iParticle] = thisSimSecs;
+				LatLng3 aheadLatLng = latLng;
+				if (oldLatLng != null && oldSimSecs != thisSimSecs) {
+					/** Keep going the way he went last. */
+					final double ratio = (double) (aheadSimSecs - thisSimSecs) / (thisSimSecs - oldSimSecs);
+					final double lat = latLng.getLat();
+					final double lng = latLng.getLng();
+					final double aheadLat = Math.max(-89d,
+							Math.min(89d, lat + (lat - oldLatLng.getLat()) * ratio));
+					final double aheadLng = lng + LatLng3.getInRange180_180(lng - oldLatLng.getLng()) * ratio;
+					aheadLatLng = LatLng3.getLatLngB(aheadLat, aheadLng);
+				}
+				final double nmiBuffer = 30d;
+				final BoxDefinition boxDefinition = new BoxDefinition(_simCase, _model, aheadRefSecs, aheadLatLng,
+						nmiBuffer);
+				if (dynamicCurrents != null) {
+					dynamicCurrents.incrementalPrefetch(aheadRefSecs, aheadLatLng, boxDefinition);
+				}
+				if (dynamicWinds != null) {
+					dynamicWinds.incrementalPrefetch(aheadRefSecs, aheadLatLng, boxDefinition);
+				}
+			}
+		}
+		if (dynamicCurrents != null) {
+			dynamicCurrents.startPrefetch();
+		}
+		if (dynamicWinds != null) {
+			dynamicWinds.startPrefetch();
+		}
+	}
+
 	private void timeUpdate(final long[] simSecsS, final int timeIdx) {
 		final int nScenarii = _model.getNScenarii();
 		final CurrentsUvGetter currentsUvGetter = _model.getCurrentsUvGetter();
@@ -1137,7 +1184,6 @@ public class Tracker implements MainSaropsObject {
 				final int nParticles = particles.length;
 				for (int iParticle = 0; iParticle < nParticles; ++iParticle) {
 					final Particle particle = particles[iParticle];
-					final StateVector latestStateVector = particle.getLatestStateVector();
 					/**
 					 * Unless this particle is adrift at or before simSecs, we don't need to do
 					 * anything.
@@ -1146,8 +1192,8 @@ public class Tracker implements MainSaropsObject {
 						/** He's still underway as of simSecs. */
 						continue;
 					}
-					final LatLng3 latLng = latestStateVector.getLatLng();
-					final long thisSimSecs = latestStateVector.getSimSecs();
+					final LatLng3 latLng = particleSet.getLatestLatLng(iParticle);
+					final long thisSimSecs = particleSet.getLatestSimSecs(iParticle);
 					/**
 					 * Constants are built into preparing timeWindow and extent.
 					 */
@@ -1159,22 +1205,60 @@ public class Tracker implements MainSaropsObject {
 					windsUvGetter.incrementalPrepare(refSecsForEnvLookUp, latLng, boxDefinition);
 				}
 			}
-			currentsUvGetter.finishPrepare();
-			windsUvGetter.finishPrepare();
+			/** Currents and winds fetch their boxes side by side. */
+			final SimCaseManager.RangeRunner finishPrepareRunner = new SimCaseManager.RangeRunner() {
+				@Override
+				public void runRange(final int k0, final int k1) {
+					for (int k = k0; k < k1; ++k) {
+						if (k == 0) {
+							currentsUvGetter.finishPrepare();
+						} else {
+							windsUvGetter.finishPrepare();
+						}
+					}
+				}
+			};
+			_simCase.getSimCaseManager().parallelFor(_simCase, "FinishPrepare", 2, /* chunkSize= */1,
+					finishPrepareRunner);
+			final int nStepsAhead = _simCase.getSimGlobalStrings().getEnvPrefetchNStepsAhead();
+			if (nStepsAhead > 0) {
+				queueEnvPrefetch(simSecsS, timeIdx, nStepsAhead, currentsUvGetter, windsUvGetter);
+			}
 		}
-		/** Do the rest in parallel. */
+		/**
+		 * Do the rest in parallel. We run a single parallelFor over the particles of
+		 * all of the ParticleSets, laid end to end, so we keep every worker busy even
+		 * when there are many small scenarios, and we wait only once per time step.
+		 */
+		final int[] firstIndexes = new int[nScenarii + 1];
 		for (int iScenario = 0; iScenario < nScenarii; ++iScenario) {
-			final ParticleSet particleSet = _particleSets[iScenario];
-			try {
-				particleSet.timeUpdate(simSecsS, timeIdx, _particlesFile);
-			} catch (final Exception e) {
-				final String stackTrace = StringUtilities.getStackTraceString(e);
-				final String eString = e.toString();
-				final String s = String.format("Failed on Time Update.\n" + "Message[%s]:  StackTrace:%s", eString,
-						stackTrace);
-				SimCaseManager.err(_simCase, s);
-				MainRunner.HandleFatal(_simCase, new RuntimeException(e));
+			firstIndexes[iScenario + 1] = firstIndexes[iScenario] + _particleSets[iScenario].getNToTimeUpdate();
+		}
+		final SimCaseManager.RangeRunner rangeRunner = new SimCaseManager.RangeRunner() {
+			@Override
+			public void runRange(final int k0, final int k1) {
+				for (int iScenario = 0; iScenario < nScenarii; ++iScenario) {
+					final int first = firstIndexes[iScenario];
+					final int kA = Math.max(k0, first);
+					final int kB = Math.min(k1, firstIndexes[iScenario + 1]);
+					if (kA < kB) {
+						_particleSets[iScenario].runTimeUpdateRange(kA - first, kB - first, simSecsS, timeIdx,
+								_particlesFile);
+					}
+				}
 			}
+		};
+		final int minNPerSlice = _simCase.getSimGlobalStrings().getMinNPerSliceInTracker();
+		try {
+			_simCase.getSimCaseManager().parallelFor(_simCase, "Time Update In Tracker", firstIndexes[nScenarii],
+					minNPerSlice, rangeRunner);
+		} catch (final Exception e) {
+			final String stackTrace = StringUtilities.getStackTraceString(e);
+			final String eString = e.toString();
+			final String s = String.format("Failed on Time Update.\n" + "Message[%s]:  StackTrace:%s", eString,
+					stackTrace);
+			SimCaseManager.err(_simCase, s);
+			MainRunner.HandleFatal(_simCase, new RuntimeException(e));
 		}
 	}
 
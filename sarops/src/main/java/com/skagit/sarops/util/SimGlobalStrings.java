@@ -92,7 +92,6 @@ public class SimGlobalStrings {
 		return defaultValue;
 	}
 
-	@SuppressWarnings("unused")
 	private String getString(final String name, final String defaultValue) {
 		final String s = getString(name);
 		return s == null ? defaultValue : s;
@@ -126,6 +125,91 @@ public class SimGlobalStrings {
 		return getInt("Min.N.Per.Slice.In.Tracker", 250);
 	}
 
+	public boolean getUseParticleColumns() {
+		return getBoolean("Use.Particle.Columns", false);
+	}
+
+	public boolean getUseInterpolationStencils() {
+		return getBoolean("Use.Interpolation.Stencils", true);
+	}
+
+	public boolean getPageParticlesFiles() {
+		return getBoolean("Page.Particles.Files", false);
+	}
+
+	public boolean getUsePrimitiveParticlePositions() {
+		return getBoolean("Use.Primitive.Particle.Positions", false);
+	}
+
+	public int getParticlesFilePageCacheSize() {
+		return getInt("Particles.File.Page.Cache.Size", 64);
+	}
+
+	public boolean getStreamParticlesFile() {
+		return getBoolean("Stream.Particles.File", false);
+	}
+
+	public String getParticlesFileLayout() {
+		return getString("Particles.File.Layout", "Contiguous");
+	}
+
+	public int getParticlesFileDeflateLevel() {
+		return getInt("Particles.File.Deflate.Level", 0);
+	}
+
+	public boolean getParticlesFileShuffle() {
+		return getBoolean("Particles.File.Shuffle", false);
+	}
+
+	public int getMaxNEnvFetchesInFlight() {
+		return getInt("Max.N.Env.Fetches.In.Flight", 4);
+	}
+
+	public int getEnvPrefetchNStepsAhead() {
+		return getInt("Env.Prefetch.N.Steps.Ahead", 0);
+	}
+
+	/** Blank means no disk cache of dynamic env boxes. */
+	public String getEnvBoxDiskCacheDirName() {
+		return getString("Env.Box.Disk.Cache.Dir", "");
+	}
+
+	public int getEnvBoxDiskCacheMBs() {
+		return getInt("Env.Box.Disk.Cache.MBs", 2048);
+	}
+
+	public int getEnvBoxDiskCacheMaxAgeHours() {
+		return getInt("Env.Box.Disk.Cache.Max.Age.Hours", 6);
+	}
+
+	public String getEnvSidecarCacheDirName() {
+		return getString("Env.Sidecar.Cache.Dir", "");
+	}
+
+	public boolean getUseRegularGridInterpolation() {
+		return getBoolean("Use.Regular.Grid.Interpolation", false);
+	}
+
+	public boolean getUseLegIndex() {
+		return getBoolean("Use.Leg.Index", true);
+	}
+
+	public int getPqRefinerWindow() {
+		return getInt("Pq.Refiner.Window", 1);
+	}
+
+	public boolean getUseDeltaPos() {
+		return getBoolean("Use.Delta.Pos", false);
+	}
+
+	public int getPvPlacerMassGridNCells() {
+		return getInt("Pv.Placer.Mass.Grid.N.Cells", 0);
+	}
+
+	public boolean getPvPlacerMassGridBenchmark() {
+		return getBoolean("Pv.Placer.Mass.Grid.Benchmark", false);
+	}
+
 	public int getMinSampleSize() {
 		return getInt("Min.Sample.Size", 250);
 	}